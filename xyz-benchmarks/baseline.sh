@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+#
+# Records a baseline of the benchmarks together with the environment of the run.
+# Run it from the root of the repository on the reference machine:
+#
+#   xyz-benchmarks/baseline.sh
+#
+# The results are written to xyz-benchmarks/baseline.json and the environment to xyz-benchmarks/baseline-environment.txt.
+# Additional JVM options for the forked benchmark JVMs can be passed with JMH_JVM_ARGS.
+
+set -euo pipefail
+
+DIR="$(cd "$(dirname "$0")" && pwd)"
+cd "$DIR/.."
+
+if [ -n "$(git status --porcelain --untracked-files=no)" ]; then
+  echo "The working tree has local changes, a baseline must be recorded for a commit." >&2
+  exit 1
+fi
+
+mvn -B clean install -Pbenchmarks -DskipTests
+
+{
+  echo "Commit:      $(git rev-parse HEAD)"
+  echo "Date:        $(date -u +%Y-%m-%dT%H:%M:%SZ)"
+  echo "CPU:         $(grep -m1 'model name' /proc/cpuinfo 2>/dev/null | cut -d: -f2- | xargs || sysctl -n machdep.cpu.brand_string)"
+  echo "Cores:       $(getconf _NPROCESSORS_ONLN)"
+  echo "Memory:      $(free -h 2>/dev/null | awk '/^Mem:/ {print $2}' || sysctl -n hw.memsize)"
+  echo "OS:          $(uname -srm)"
+  echo "JVM options: ${JMH_JVM_ARGS:-none}"
+  echo "Java:"
+  java -version 2>&1 | sed 's/^/  /'
+} > "$DIR/baseline-environment.txt"
+
+JVM_ARGS=()
+if [ -n "${JMH_JVM_ARGS:-}" ]; then
+  JVM_ARGS=(-jvmArgsAppend "$JMH_JVM_ARGS")
+fi
+
+java -jar "$DIR/target/benchmarks.jar" ${JVM_ARGS[@]+"${JVM_ARGS[@]}"} -rf json -rff "$DIR/baseline.json"
+
+cat "$DIR/baseline-environment.txt"
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.coordinates.BBox;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates the GeoJSON fixtures used by the benchmarks. All fixtures are created from a fixed seed, so that every run of a benchmark
+ * works on exactly the same data and no network or database access is required.
+ */
+public class Fixtures {
+
+  /**
+   * The tile, which contains all generated geometries.
+   */
+  public static final int TILE_LEVEL = 12;
+  public static final int TILE_X = 2200;
+  public static final int TILE_Y = 1343;
+
+  private static final long SEED = 42L;
+
+  public enum Kind {
+    /**
+     * Many small features with a point geometry and a few flat properties.
+     */
+    POINTS(10_000),
+    /**
+     * Few features with a polygon geometry of many vertices.
+     */
+    DENSE_POLYGONS(100),
+    /**
+     * Point features with deeply nested property trees.
+     */
+    DEEP_PROPERTIES(1_000);
+
+    public final int featureCount;
+
+    Kind(int featureCount) {
+      this.featureCount = featureCount;
+    }
+  }
+
+  /**
+   * Returns the GeoJSON of a feature collection for the given kind of fixture.
+   */
+  public static String featureCollectionJson(Kind kind) throws JsonProcessingException {
+    final Random random = new Random(SEED);
+    final BBox bbox = WebMercatorTile.forWeb(TILE_LEVEL, TILE_X, TILE_Y).getBBox(false);
+    final List<Object> features = new ArrayList<>(kind.featureCount);
+    for (int i = 0; i < kind.featureCount; i++) {
+      features.add(feature(kind, i, random, bbox));
+    }
+
+    final Map<String, Object> collection = new LinkedHashMap<>();
+    collection.put("type", "FeatureCollection");
+    collection.put("features", features);
+    return XyzSerializable.DEFAULT_MAPPER.get().writeValueAsString(collection);
+  }
+
+  /**
+   * Returns a parsed feature collection for the given kind of fixture.
+   */
+  public static FeatureCollection featureCollection(Kind kind) throws JsonProcessingException {
+    return XyzSerializable.deserialize(featureCollectionJson(kind));
+  }
+
+  private static Map<String, Object> feature(Kind kind, int i, Random random, BBox bbox) {
+    final Map<String, Object> feature = new LinkedHashMap<>();
+    feature.put("type", "Feature");
+    feature.put("id", "feature-" + i);
+
+    final Map<String, Object> geometry = new LinkedHashMap<>();
+    if (kind == Kind.DENSE_POLYGONS) {
+      geometry.put("type", "Polygon");
+      geometry.put("coordinates", polygon(random, bbox, 1_000));
+    } else {
+      geometry.put("type", "Point");
+      geometry.put("coordinates", position(random, bbox));
+    }
+    feature.put("geometry", geometry);
+
+    final Map<String, Object> properties = flatProperties(i, random);
+    if (kind == Kind.DEEP_PROPERTIES) {
+      properties.put("tree", propertyTree(random, 6, 3));
+    }
+    properties.put("@ns:com:here:xyz", xyzNamespace(i));
+    feature.put("properties", properties);
+    return feature;
+  }
+
+  private static Map<String, Object> flatProperties(int i, Random random) {
+    final Map<String, Object> properties = new LinkedHashMap<>();
+    properties.put("name", "Feature " + i);
+    properties.put("category", "category-" + random.nextInt(16));
+    properties.put("rank", random.nextInt(1000));
+    properties.put("height", random.nextDouble() * 100);
+    properties.put("open", random.nextBoolean());
+    return properties;
+  }
+
+  private static Map<String, Object> xyzNamespace(int i) {
+    final Map<String, Object> ns = new LinkedHashMap<>();
+    ns.put("space", "benchmark");
+    ns.put("createdAt", 1_500_000_000_000L + i);
+    ns.put("updatedAt", 1_500_000_000_000L + i);
+    ns.put("uuid", "uuid-" + i);
+    ns.put("tags", new String[]{"benchmark", "tag-" + (i % 10)});
+    return ns;
+  }
+
+  /**
+   * Creates a property tree of the given depth, in which each object has the given number of child objects and a few leaf values.
+   */
+  private static Map<String, Object> propertyTree(Random random, int depth, int width) {
+    final Map<String, Object> node = new LinkedHashMap<>();
+    node.put("value", random.nextInt());
+    node.put("label", "node-" + random.nextInt(100));
+    if (depth > 0) {
+      final List<Object> list = new ArrayList<>(width);
+      for (int i = 0; i < width; i++) {
+        list.add(random.nextDouble());
+      }
+      node.put("values", list);
+      for (int i = 0; i < width; i++) {
+        node.put("child" + i, propertyTree(random, depth - 1, width));
+      }
+    }
+    return node;
+  }
+
+  private static double[] position(Random random, BBox bbox) {
+    return new double[]{
+        bbox.minLon() + random.nextDouble() * (bbox.maxLon() - bbox.minLon()),
+        bbox.minLat() + random.nextDouble() * (bbox.maxLat() - bbox.minLat())
+    };
+  }
+
+  /**
+   * Creates a closed, star-shaped ring with the given number of vertices around a random center inside the bounding box.
+   */
+  private static double[][][] polygon(Random random, BBox bbox, int vertices) {
+    final double[] center = position(random, bbox);
+    final double maxRadius = Math.min(bbox.maxLon() - bbox.minLon(), bbox.maxLat() - bbox.minLat()) / 8;
+    final double[][] ring = new double[vertices + 1][];
+    for (int i = 0; i < vertices; i++) {
+      final double angle = 2 * Math.PI * i / vertices;
+      final double radius = maxRadius * (0.5 + 0.5 * random.nextDouble());
+      ring[i] = new double[]{center[0] + radius * Math.cos(angle), center[1] + radius * Math.sin(angle)};
+    }
+    ring[vertices] = ring[0];
+    return new double[][][]{ring};
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.benchmarks;
+
+import com.here.xyz.benchmarks.Fixtures.Kind;
+import com.here.xyz.hub.task.ModifyFeatureOp;
+import com.here.xyz.hub.task.ModifyOp.Entry;
+import com.here.xyz.hub.task.ModifyOp.IfExists;
+import com.here.xyz.hub.task.ModifyOp.IfNotExists;
+import com.here.xyz.models.geojson.implementation.Feature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the processing of a conditional modification of all features of a fixture, in which each feature was modified concurrently by
+ * the client and by someone else. A parallel batch size of 0 processes the entries sequentially, 1 processes them in parallel, so that
+ * the scaling can be read from the ratio of both results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModifyOpBenchmark {
+
+  @Param({"POINTS", "DEEP_PROPERTIES"})
+  public Kind kind;
+
+  @Param({"MERGE", "PATCH"})
+  public IfExists ifExists;
+
+  @Param({"0", "1"})
+  public int parallelBatchSize;
+
+  private ModifyFeatureOp modifyOp;
+
+  @Setup
+  public void setup() throws Exception {
+    final List<Feature> base = Fixtures.featureCollection(kind).getFeatures();
+    final List<Feature> head = Fixtures.featureCollection(kind).getFeatures();
+    final List<Feature> input = Fixtures.featureCollection(kind).getFeatures();
+
+    for (int i = 0; i < base.size(); i++) {
+      final Feature headState = head.get(i);
+      headState.getProperties().put("category", "modified");
+      headState.getProperties().getXyzNamespace().setUuid("uuid-" + i + "-head");
+
+      final Feature inputState = input.get(i);
+      inputState.getProperties().put("rank", ((Number) inputState.getProperties().get("rank")).intValue() + 1);
+      inputState.getProperties().put("modified", true);
+    }
+
+    modifyOp = new ModifyFeatureOp(new ArrayList<>(input), IfNotExists.CREATE, ifExists, true);
+    for (int i = 0; i < base.size(); i++) {
+      final Entry<Feature, Feature, Feature> entry = modifyOp.entries.get(i);
+      entry.head = head.get(i);
+      entry.base = base.get(i);
+    }
+  }
+
+  /**
+   * The processing doesn't modify the head, base or input states, hence the same operation can be processed repeatedly.
+   */
+  @Benchmark
+  public ModifyFeatureOp process() throws Exception {
+    modifyOp.process(parallelBatchSize);
+    return modifyOp;
+  }
+}
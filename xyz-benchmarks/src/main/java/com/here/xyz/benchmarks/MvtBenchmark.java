@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.benchmarks;
+
+import com.here.xyz.benchmarks.Fixtures.Kind;
+import com.here.xyz.hub.util.geo.MapBoxVectorTileBuilder;
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.implementation.Feature;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the encoding of features into a Mapbox vector tile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MvtBenchmark {
+
+  @Param({"POINTS", "DENSE_POLYGONS", "DEEP_PROPERTIES"})
+  public Kind kind;
+
+  private WebMercatorTile tile;
+  private List<Feature> features;
+
+  @Setup
+  public void setup() throws Exception {
+    tile = WebMercatorTile.forWeb(Fixtures.TILE_LEVEL, Fixtures.TILE_X, Fixtures.TILE_Y);
+    features = Fixtures.featureCollection(kind).getFeatures();
+  }
+
+  @Benchmark
+  public byte[] build() throws Exception {
+    return new MapBoxVectorTileBuilder().build(tile, 0, "benchmark", features);
+  }
+}
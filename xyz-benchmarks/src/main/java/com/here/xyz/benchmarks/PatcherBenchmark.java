@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.benchmarks.Fixtures.Kind;
+import com.here.xyz.hub.util.diff.Difference;
+import com.here.xyz.hub.util.diff.Patcher;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the calculation and the application of the difference between two states of a feature collection, in which every feature was
+ * modified.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatcherBenchmark {
+
+  private static final TypeReference<Map<String, Object>> MAP = new TypeReference<Map<String, Object>>() {
+  };
+
+  @Param({"POINTS", "DENSE_POLYGONS", "DEEP_PROPERTIES"})
+  public Kind kind;
+
+  private String json;
+  private Map<String, Object> source;
+  private Map<String, Object> target;
+  private Difference difference;
+  private Map<String, Object> patchTarget;
+
+  @Setup
+  public void setup() throws Exception {
+    json = Fixtures.featureCollectionJson(kind);
+    source = XyzSerializable.deserialize(json, MAP);
+    target = XyzSerializable.deserialize(json, MAP);
+    modify(target);
+    difference = Patcher.getDifference(source, target);
+  }
+
+  /**
+   * The patch is applied in place, hence each invocation gets a fresh copy of the source state.
+   */
+  @Setup(Level.Invocation)
+  public void copySource() throws Exception {
+    patchTarget = XyzSerializable.deserialize(json, MAP);
+  }
+
+  @Benchmark
+  public Difference getDifference() {
+    return Patcher.getDifference(source, target);
+  }
+
+  @Benchmark
+  public boolean isEqual() {
+    return Patcher.isEqual(source, target);
+  }
+
+  @Benchmark
+  public Map<String, Object> patch() {
+    Patcher.patch(patchTarget, difference);
+    return patchTarget;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void modify(Map<String, Object> collection) {
+    for (Object feature : (List<Object>) collection.get("features")) {
+      final Map<String, Object> properties = (Map<String, Object>) ((Map<String, Object>) feature).get("properties");
+      properties.put("rank", ((Number) properties.get("rank")).intValue() + 1);
+      properties.put("modified", true);
+      properties.remove("open");
+
+      Map<String, Object> node = (Map<String, Object>) properties.get("tree");
+      while (node != null) {
+        node.put("value", ((Number) node.get("value")).intValue() + 1);
+        node = (Map<String, Object>) node.get("child0");
+      }
+    }
+  }
+}
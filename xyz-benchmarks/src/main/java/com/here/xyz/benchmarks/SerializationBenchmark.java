@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.benchmarks;
+
+import com.here.xyz.XyzSerializable;
+import com.here.xyz.benchmarks.Fixtures.Kind;
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serialization, the deserialization and the hashing of feature collections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"POINTS", "DENSE_POLYGONS", "DEEP_PROPERTIES"})
+  public Kind kind;
+
+  private String json;
+  private FeatureCollection collection;
+  private FeatureCollection rawCollection;
+
+  @Setup
+  public void setup() throws Exception {
+    json = Fixtures.featureCollectionJson(kind);
+    collection = XyzSerializable.deserialize(json);
+    collection.getFeatures();
+    rawCollection = new FeatureCollection();
+    rawCollection._setFeatures(collection.getFeatures().stream().map(Feature::serialize)
+        .collect(Collectors.joining(",", "[", "]")).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Serializes a fully parsed feature collection.
+   */
+  @Benchmark
+  public String serialize() {
+    return collection.serialize();
+  }
+
+  /**
+   * Deserializes a feature collection, the features stay unparsed in the {@link com.here.xyz.LazyParsable}.
+   */
+  @Benchmark
+  public FeatureCollection deserialize() throws Exception {
+    return XyzSerializable.deserialize(json);
+  }
+
+  /**
+   * Deserializes a feature collection and parses its features through {@link com.here.xyz.LazyParsable#get()}.
+   */
+  @Benchmark
+  public List<Feature> deserializeAndParseFeatures() throws Exception {
+    return XyzSerializable.<FeatureCollection>deserialize(json).getFeatures();
+  }
+
+  /**
+   * Transfers a feature collection of raw features from the connector to the hub as JSON. The hub passes the response through without
+   * parsing it.
+   */
+  @Benchmark
+  public FeatureCollection transferJson() throws Exception {
+    return XyzSerializable.deserialize(rawCollection.toByteArray(false));
+  }
+
+  /**
+   * Transfers a feature collection of raw features from the connector to the hub in the binary encoding. The features are transcoded by
+   * the connector and parsed by the hub.
+   */
+  @Benchmark
+  public FeatureCollection transferBinary() throws Exception {
+    return XyzSerializable.deserialize(rawCollection.toByteArray(true));
+  }
+
+  /**
+   * Calculates the hash of a fully parsed feature collection, as done for the cache keys of events.
+   */
+  @Benchmark
+  public String getHash() {
+    return collection.getHash();
+  }
+}
@@ -21,6 +21,7 @@ package com.here.xyz.connectors;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
 import com.google.common.hash.Hashing;
 import com.here.xyz.Payload;
 import com.here.xyz.Typed;
@@ -34,6 +35,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,6 +66,11 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
    */
   private static final int INPUT_PREVIEW_BYTE_SIZE = 4 * 1024; // 4K
   private static final String ETAG_STRING = ",\"etag\":\"_\"}";
+  /**
+   * The binary encoded key of the etag property, followed by the type of its value, a short ASCII string of 32 characters.
+   */
+  private static final byte[] BINARY_ETAG_KEY = {(byte) (SmileConstants.TOKEN_PREFIX_KEY_ASCII + 3), 'e', 't', 'a', 'g',
+      (byte) (SmileConstants.TOKEN_PREFIX_TINY_ASCII + 31)};
   /**
    * The maximal response size in bytes that can be sent back without relocating the response.
    */
@@ -88,6 +95,10 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
    * A flag to inform, if the lambda is running in embedded mode.
    */
   private boolean embedded = false;
+  /**
+   * A flag to inform, if the current event was received in the binary encoding. The response is encoded in the same way.
+   */
+  private boolean binary = false;
 
   /**
    * Returns the number of milliseconds that have passed since the request started (for time measuring inside the lambda).
@@ -120,6 +131,7 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
   public void handleRequest(InputStream input, OutputStream output, Context context) {
     try {
       start = System.currentTimeMillis();
+      binary = false;
       Typed dataOut;
       this.context = context;
       String ifNoneMatch = null;
@@ -158,7 +170,8 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
   Event readEvent(InputStream input) throws ErrorResponseException {
     try {
       input = Payload.prepareInputStream(input);
-      String streamPreview = previewInput(input);
+      binary = Payload.isBinary(input);
+      String streamPreview = binary ? "binary encoded event" : previewInput(input);
 
       Event receivedEvent = XyzSerializable.deserialize(input);
       logger.info("{} [{} ms] - Parsed event: {}", receivedEvent.getStreamId(), ms(), streamPreview);
@@ -180,7 +193,7 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
   @SuppressWarnings("UnstableApiUsage")
   void writeDataOut(OutputStream output, Typed dataOut, String ifNoneMatch) {
     try {
-      byte[] bytes = dataOut == null ? null : dataOut.serialize().getBytes();
+      byte[] bytes = dataOut == null ? null : dataOut.toByteArray(binary);
       if (bytes == null) {
         return;
       }
@@ -188,9 +201,16 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
 
       // Calculate ETag
       String hash = Hashing.murmur3_128().newHasher().putBytes(bytes).hash().toString();
-      byte[] etagBytes = ETAG_STRING.replace("_", hash).getBytes();
+      byte[] etagBytes = binary ? binaryEtagBytes(hash) : ETAG_STRING.replace("_", hash).getBytes();
       if (hash.equals(ifNoneMatch)) {
-        bytes = new NotModifiedResponse().serialize().getBytes();
+        bytes = new NotModifiedResponse().toByteArray(binary);
+      }
+
+      // Fast path: neither compression nor relocation is needed, write the response and the etag directly
+      if (embedded || bytes.length <= Math.min(MIN_COMPRESS_SIZE, MAX_RESPONSE_SIZE - etagBytes.length)) {
+        output.write(bytes, 0, bytes.length - 1);
+        output.write(etagBytes);
+        return;
       }
 
       // Transform: handle compression and etag injection
@@ -231,6 +251,18 @@ public abstract class AbstractConnectorHandler implements RequestStreamHandler {
    */
   protected abstract void initialize(Event event) throws Exception;
 
+  /**
+   * Returns the binary encoded etag property followed by the end of the object, which replaces the end of the binary encoded response.
+   */
+  private static byte[] binaryEtagBytes(String hash) {
+    final byte[] hashBytes = hash.getBytes(StandardCharsets.US_ASCII);
+    final byte[] etagBytes = new byte[BINARY_ETAG_KEY.length + hashBytes.length + 1];
+    System.arraycopy(BINARY_ETAG_KEY, 0, etagBytes, 0, BINARY_ETAG_KEY.length);
+    System.arraycopy(hashBytes, 0, etagBytes, BINARY_ETAG_KEY.length, hashBytes.length);
+    etagBytes[etagBytes.length - 1] = SmileConstants.TOKEN_LITERAL_END_OBJECT;
+    return etagBytes;
+  }
+
   private String previewInput(InputStream input) throws IOException {
     input.mark(INPUT_PREVIEW_BYTE_SIZE);
     byte[] bytes = new byte[INPUT_PREVIEW_BYTE_SIZE];
@@ -19,6 +19,8 @@
 
 package com.here.xyz.connectors;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -130,6 +132,29 @@ public class AbstractConnectorHandlerTest {
     FeatureCollection result = XyzSerializable.deserialize(stringBuilder.toString());
   }
 
+  @Test
+  public void testBinaryEncoding() throws Exception {
+    TestStorageConnector testStorageConnector = new TestStorageConnector();
+    HealthCheckEvent healthCheckEvent = new HealthCheckEvent().withStreamId("TEST_STREAM_ID");
+
+    // Reading a binary encoded event switches the response to the binary encoding
+    Event event = testStorageConnector.readEvent(new ByteArrayInputStream(healthCheckEvent.toByteArray(true)));
+    assertTrue(event instanceof HealthCheckEvent);
+    assertEquals("TEST_STREAM_ID", event.getStreamId());
+
+    FeatureCollection fc = generateRandomFeatures(10, 5);
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    testStorageConnector.writeDataOut(os, fc, null);
+
+    byte[] outputBytes = os.toByteArray();
+    assertTrue(Payload.isBinary(outputBytes));
+
+    FeatureCollection result = XyzSerializable.deserialize(outputBytes);
+    assertNotNull(result.getEtag());
+    assertEquals(10, result.getFeatures().size());
+    assertEquals(fc.getFeatures().get(0).getProperties().asMap(), result.getFeatures().get(0).getProperties().asMap());
+  }
+
   //This is a test for the relocation client. To run it, an S3 bucket and valid credentials are required.
   //@Test
   public void testRelocatedEvent() throws Exception {
@@ -258,6 +258,8 @@ public class Service implements Logging {
     public int HTTP_PORT;
     public String XYZ_HUB_REDIS_HOST;
     public int XYZ_HUB_REDIS_PORT;
+    public int XYZ_HUB_L1_CACHE_SIZE; //MB
+    public int XYZ_HUB_L1_CACHE_TTL; //seconds
     public String XYZ_HUB_S3_BUCKET;
 
     public String JWT_PUB_KEY;
@@ -290,6 +292,15 @@ public class Service implements Logging {
     public int GLOBAL_MAX_QUEUE_SIZE; //MB
     public int REMOTE_FUNCTION_REQUEST_TIMEOUT; //seconds
 
+    public int TASK_WORKER_POOL_SIZE;
+    public int TASK_WORKER_MAX_QUEUE_SIZE;
+    public int COMPUTE_POOL_SIZE; //threads, 0 uses the number of available processors
+
+    public int MODIFY_OP_PARALLEL_BATCH_SIZE; //features, 0 disables the parallel processing
+
+    public int FEATURE_HEAD_STATE_CACHE_TTL; //seconds, 0 disables the cache
+    public int LOAD_FEATURES_CHUNK_SIZE; //features, 0 loads all head states with one event
+
     public String FS_WEB_ROOT;
 
     public String HEALTH_CHECK_HEADER_NAME;
@@ -35,6 +35,22 @@ import java.util.Map.Entry;
  */
 public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
 
+  /**
+   * The compiled form of this access matrix or null, if the matrix was not compiled.
+   */
+  private transient CompiledActionMatrix compiled;
+
+  /**
+   * Assumes that this action matrix is used as access rights matrix and compiles it into a form, which is used by all following calls of
+   * {@link #matches(ActionMatrix)}. The matrix must not be modified after it was compiled.
+   *
+   * @return this.
+   */
+  ActionMatrix compile() {
+    compiled = new CompiledActionMatrix(this);
+    return this;
+  }
+
   /**
    * Adds the given attribute map to the provided action of this action matrix and returns this action matrix again. If no such action
    * exists a new action is created and the attributes map is added to a new list that is created. If the given attributes map or an equal
@@ -136,6 +152,9 @@ public class ActionMatrix extends LinkedHashMap<String, List<AttributeMap>> {
    * @return true if this access matrix grants access to the request; false otherwise.
    */
   public boolean matches(ActionMatrix requestMatrix) {
+    if (compiled != null) {
+      return compiled.matches(requestMatrix);
+    }
     if (this.size() == 0) {
       return requestMatrix.size() == 0;
     }
@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.auth;
+
+import io.vertx.core.json.JsonArray;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * The compiled form of an access matrix. It grants exactly the same rights as the {@link ActionMatrix} it was compiled from, but it can be
+ * evaluated faster against request matrices:
+ *
+ * <ul>
+ * <li>Access attribute maps, which consist of a single attribute with a single value (e.g. {"space": "x"}), are indexed by their attribute
+ * and value, so that matrices with many spaces or owners don't need to be scanned.</li>
+ * <li>The values of all other access attribute maps are pre-processed, e.g. the prefixes of wildcard values are split off once.</li>
+ * </ul>
+ */
+class CompiledActionMatrix {
+
+  private final int size;
+  private final Map<String, CompiledAccessList> actions = new HashMap<>();
+
+  CompiledActionMatrix(ActionMatrix accessMatrix) {
+    size = accessMatrix.size();
+    for (Entry<String, List<AttributeMap>> entry : accessMatrix.entrySet()) {
+      if (entry.getValue() != null && entry.getValue().size() > 0) {
+        actions.put(entry.getKey(), new CompiledAccessList(entry.getValue()));
+      }
+    }
+  }
+
+  /**
+   * Tests this access matrix against the given request matrix.
+   *
+   * @param requestMatrix the request matrix.
+   * @return true if this access matrix grants access to the request; false otherwise.
+   * @see ActionMatrix#matches(ActionMatrix)
+   */
+  boolean matches(ActionMatrix requestMatrix) {
+    if (size == 0) {
+      return requestMatrix.size() == 0;
+    }
+    if (size < requestMatrix.size()) {
+      return false;
+    }
+
+    for (final Entry<String, List<AttributeMap>> entry : requestMatrix.entrySet()) {
+      final String action = entry.getKey();
+      if (action == null) {
+        return false;
+      }
+      final List<AttributeMap> resourceList = entry.getValue();
+      if (resourceList == null || resourceList.size() == 0) {
+        continue;
+      }
+      final CompiledAccessList accessList = actions.get(action);
+      if (accessList == null) {
+        return false;
+      }
+
+      for (final AttributeMap resource : resourceList) {
+        if (resource != null && !accessList.matches(resource)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static Object unwrap(Object value) {
+    return value instanceof JsonArray ? ((JsonArray) value).getList() : value;
+  }
+
+  /**
+   * All access attribute maps of one action.
+   */
+  private static class CompiledAccessList {
+
+    /**
+     * Whether there is an empty access attribute map, which grants access to all resources.
+     */
+    private boolean matchesAll;
+
+    /**
+     * The values of all access attribute maps with a single scalar attribute, by the attribute key.
+     */
+    private final Map<String, Set<Object>> index = new HashMap<>();
+
+    /**
+     * All other access attribute maps.
+     */
+    private final List<CompiledAttributeMap> attributeMaps = new ArrayList<>();
+
+    CompiledAccessList(List<AttributeMap> accessList) {
+      for (final AttributeMap access : accessList) {
+        if (access == null) {
+          continue;
+        }
+        if (access.size() == 0) {
+          matchesAll = true;
+          return;
+        }
+        if (access.size() == 1) {
+          final Entry<String, Object> attribute = access.entrySet().iterator().next();
+          final Object value = attribute.getValue();
+          if (value != null && !(value instanceof List) && !(value instanceof JsonArray)
+              && !(value instanceof String && ((String) value).endsWith(AttributeMap.WILDCARD))) {
+            index.computeIfAbsent(attribute.getKey(), k -> new HashSet<>()).add(value);
+            continue;
+          }
+        }
+        attributeMaps.add(new CompiledAttributeMap(access));
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean matches(AttributeMap resource) {
+      if (matchesAll) {
+        return true;
+      }
+
+      for (final Entry<String, Set<Object>> entry : index.entrySet()) {
+        final Object resourceValue = unwrap(resource.get(entry.getKey()));
+        if (resourceValue instanceof List) {
+          for (final Object value : (List<Object>) resourceValue) {
+            if (value != null && entry.getValue().contains(value)) {
+              return true;
+            }
+          }
+        } else if (resourceValue != null && entry.getValue().contains(resourceValue)) {
+          return true;
+        }
+      }
+
+      for (final CompiledAttributeMap attributeMap : attributeMaps) {
+        if (attributeMap.matches(resource)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * An access attribute map.
+   *
+   * @see AttributeMap#matches(Map)
+   */
+  private static class CompiledAttributeMap {
+
+    private final String[] keys;
+    private final CompiledValue[][] values;
+    private final boolean[] isList;
+
+    @SuppressWarnings("unchecked")
+    CompiledAttributeMap(AttributeMap access) {
+      keys = new String[access.size()];
+      values = new CompiledValue[access.size()][];
+      isList = new boolean[access.size()];
+
+      int i = 0;
+      for (final Entry<String, Object> attribute : access.entrySet()) {
+        final Object value = unwrap(attribute.getValue());
+        keys[i] = attribute.getKey();
+        isList[i] = value instanceof List;
+        if (isList[i]) {
+          final List<Object> list = (List<Object>) value;
+          values[i] = list.stream().map(CompiledValue::new).toArray(CompiledValue[]::new);
+        } else {
+          values[i] = new CompiledValue[]{new CompiledValue(value)};
+        }
+        i++;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean matches(AttributeMap resource) {
+      for (int i = 0; i < keys.length; i++) {
+        final Object resourceValue = unwrap(resource.get(keys[i]));
+
+        // A list of access values must all be matched, an empty list matches nothing
+        if (isList[i] && values[i].length == 0) {
+          return false;
+        }
+        for (final CompiledValue value : values[i]) {
+          if (resourceValue instanceof List ? !value.matchesAny((List<Object>) resourceValue) : !value.matches(resourceValue)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * A scalar access value.
+   */
+  private static class CompiledValue {
+
+    private final Object value;
+
+    /**
+     * The prefix of a wildcard value, otherwise null.
+     */
+    private final String prefix;
+
+    CompiledValue(Object value) {
+      this.value = value;
+      this.prefix = value instanceof String && ((String) value).endsWith(AttributeMap.WILDCARD)
+          ? ((String) value).substring(0, ((String) value).length() - 1) : null;
+    }
+
+    boolean matches(Object resourceValue) {
+      if (value == resourceValue) {
+        return true;
+      }
+      if (value == null) {
+        return false;
+      }
+      if (value.equals(resourceValue)) {
+        return true;
+      }
+      return prefix != null && resourceValue instanceof String && ((String) resourceValue).startsWith(prefix);
+    }
+
+    boolean matchesAny(List<Object> resourceValues) {
+      if (resourceValues.size() == 0) {
+        return false;
+      }
+      if (resourceValues.contains(value)) {
+        return true;
+      }
+      if (prefix != null) {
+        for (final Object resourceValue : resourceValues) {
+          if (resourceValue instanceof String && ((String) resourceValue).startsWith(prefix)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -29,12 +29,27 @@ import io.vertx.ext.auth.User;
 import io.vertx.ext.auth.jwt.JWTAuthOptions;
 import io.vertx.ext.auth.jwt.impl.JWTAuthProviderImpl;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.DataFormatException;
+import net.jodah.expiringmap.ExpiringMap;
 import org.apache.commons.lang3.StringUtils;
 
 public class CompressedJWTAuthProvider extends JWTAuthProviderImpl {
 
+  private static final long MAX_CACHE_TTL = TimeUnit.MINUTES.toSeconds(10);
+
+  /**
+   * The users of recently verified tokens by the digest of the token and the verification options. Entries never live longer than the
+   * token is valid. The cache belongs to the provider, because each provider verifies the tokens with its own keys.
+   */
+  private final ExpiringMap<String, VerifiedJWTUser> verifiedTokens = ExpiringMap.builder()
+      .maxSize(10_000)
+      .variableExpiration()
+      .build();
+
   public CompressedJWTAuthProvider(Vertx vertx, JWTAuthOptions config) {
     super(vertx, config);
   }
@@ -43,6 +58,13 @@ public class CompressedJWTAuthProvider extends JWTAuthProviderImpl {
   public void authenticate(JsonObject authInfo, Handler<AsyncResult<User>> resultHandler) {
     final String jwt = authInfo.getString("jwt");
 
+    final String digest = digest(jwt, authInfo.getJsonObject("options"));
+    final VerifiedJWTUser verifiedUser = digest != null ? verifiedTokens.get(digest) : null;
+    if (verifiedUser != null) {
+      resultHandler.handle(Future.succeededFuture(verifiedUser));
+      return;
+    }
+
     if (!isJWT(jwt)) {
       try {
         byte[] bytearray = Base64.getDecoder().decode(jwt.getBytes(StandardCharsets.UTF_8));
@@ -55,7 +77,42 @@ public class CompressedJWTAuthProvider extends JWTAuthProviderImpl {
       }
     }
 
-    super.authenticate(authInfo, resultHandler);
+    super.authenticate(authInfo, ar -> {
+      if (ar.failed() || digest == null) {
+        resultHandler.handle(ar);
+        return;
+      }
+
+      final VerifiedJWTUser user = new VerifiedJWTUser(ar.result());
+      long ttl = MAX_CACHE_TTL;
+      final Long exp = user.principal().getLong("exp");
+      if (exp != null) {
+        ttl = Math.min(ttl, exp - TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+      }
+      if (ttl > 0) {
+        verifiedTokens.put(digest, user, ttl, TimeUnit.SECONDS);
+      }
+      resultHandler.handle(Future.succeededFuture(user));
+    });
+  }
+
+  /**
+   * Returns the SHA-256 digest of the raw token and the verification options, or null if the token is null.
+   */
+  private static String digest(String jwt, JsonObject options) {
+    if (jwt == null) {
+      return null;
+    }
+    try {
+      final MessageDigest md = MessageDigest.getInstance("SHA-256");
+      md.update(jwt.getBytes(StandardCharsets.UTF_8));
+      if (options != null && options.size() > 0) {
+        md.update(options.encode().getBytes(StandardCharsets.UTF_8));
+      }
+      return Base64.getEncoder().encodeToString(md.digest());
+    } catch (NoSuchAlgorithmException e) {
+      return null;
+    }
   }
 
   private boolean isJWT(final String jwt) {
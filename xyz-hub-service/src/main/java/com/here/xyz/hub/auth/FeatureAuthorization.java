@@ -21,6 +21,7 @@ package com.here.xyz.hub.auth;
 
 import static io.netty.handler.codec.http.HttpResponseStatus.FORBIDDEN;
 
+import com.google.common.collect.ImmutableSet;
 import com.here.xyz.events.GetFeaturesByBBoxEvent;
 import com.here.xyz.events.GetFeaturesByGeometryEvent;
 import com.here.xyz.hub.rest.Api;
@@ -33,9 +34,16 @@ import com.here.xyz.hub.task.ModifyOp.Entry;
 import com.here.xyz.hub.task.ModifyOp.IfExists;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
 import com.here.xyz.models.geojson.implementation.Feature;
+import java.util.Set;
 
 public class FeatureAuthorization extends Authorization {
 
+  /**
+   * All actions, which a conditional operation may require.
+   */
+  private static final Set<String> CONDITIONAL_OP_ACTIONS = ImmutableSet.of(XyzHubActionMatrix.READ_FEATURES,
+      XyzHubActionMatrix.CREATE_FEATURES, XyzHubActionMatrix.UPDATE_FEATURES, XyzHubActionMatrix.DELETE_FEATURES);
+
   @SuppressWarnings("unchecked")
   public static <X extends FeatureTask> void authorize(X task, Callback<X> callback) {
     if (task instanceof ConditionalOperation) {
@@ -89,7 +97,13 @@ public class FeatureAuthorization extends Authorization {
     final ActionMatrix tokenRights = jwt.getXyzHubMatrix();
     final XyzHubActionMatrix requestRights = new XyzHubActionMatrix();
 
-    task.modifyOp.entries.forEach(entry -> addAttributeMapForEntry(task, requestRights, entry));
+    for (Entry<Feature, Feature, Feature> entry : task.modifyOp.entries) {
+      addAttributeMapForEntry(task, requestRights, entry);
+      // When all actions were added, the remaining entries can't add anything
+      if (requestRights.keySet().containsAll(CONDITIONAL_OP_ACTIONS)) {
+        break;
+      }
+    }
 
     evaluateRights(requestRights, tokenRights, task, callback);
   }
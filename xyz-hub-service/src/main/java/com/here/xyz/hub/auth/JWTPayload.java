@@ -24,6 +24,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
 import java.util.Map;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -41,18 +42,36 @@ public class JWTPayload {
   public XYZUsageLimits limits;
   public boolean anonymous;
 
+  @JsonIgnore
+  private volatile XyzHubActionMatrix xyzHubMatrix;
+
+  /**
+   * Returns the payload for the given claims of a verified token. The payloads of verified tokens are kept together with the tokens by
+   * {@link VerifiedJWTUser}, so that they are parsed only once per token.
+   *
+   * @param claims the claims of the token.
+   * @return the payload.
+   */
+  public static JWTPayload fromClaims(JsonObject claims) {
+    return Json.mapper.convertValue(claims, JWTPayload.class);
+  }
+
   /**
-   * Returns the XYZ Hub action matrix, if there is any for this JWT token.
+   * Returns the XYZ Hub action matrix, if there is any for this JWT token. The returned matrix is compiled and must not be modified.
    * @return the XYZ Hub action matrix or null.
    */
   @JsonIgnore
   public XyzHubActionMatrix getXyzHubMatrix(){
+    if (xyzHubMatrix != null)
+      return xyzHubMatrix;
     if (urm == null)
       return null;
     final ActionMatrix hereActionMatrix = urm.get(URMServiceId.XYZ_HUB);
     if (hereActionMatrix == null)
       return null;
-    return Json.mapper.convertValue(hereActionMatrix, XyzHubActionMatrix.class);
+    final XyzHubActionMatrix matrix = Json.mapper.convertValue(hereActionMatrix, XyzHubActionMatrix.class);
+    matrix.compile();
+    return xyzHubMatrix = matrix;
   }
 
   /**
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.auth;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.AuthProvider;
+import io.vertx.ext.auth.User;
+
+/**
+ * The user of a verified token together with the parsed payload of the token. Instances are shared by all requests using the same token,
+ * so the payload is parsed only once.
+ */
+public class VerifiedJWTUser implements User {
+
+  private final User user;
+  private final JWTPayload payload;
+
+  VerifiedJWTUser(User user) {
+    this.user = user;
+    this.payload = JWTPayload.fromClaims(user.principal());
+  }
+
+  /**
+   * Returns the parsed payload of the token.
+   *
+   * @return the payload.
+   */
+  public JWTPayload getPayload() {
+    return payload;
+  }
+
+  @Override
+  public synchronized User isAuthorized(String authority, Handler<AsyncResult<Boolean>> resultHandler) {
+    user.isAuthorized(authority, resultHandler);
+    return this;
+  }
+
+  @Override
+  public synchronized User clearCache() {
+    user.clearCache();
+    return this;
+  }
+
+  @Override
+  public JsonObject principal() {
+    return user.principal();
+  }
+
+  @Override
+  public void setAuthProvider(AuthProvider authProvider) {
+    user.setAuthProvider(authProvider);
+  }
+}
@@ -19,6 +19,7 @@
 
 package com.here.xyz.hub.cache;
 
+import com.here.xyz.hub.Service;
 import io.vertx.core.Handler;
 
 public interface CacheClient {
@@ -40,7 +41,13 @@ public interface CacheClient {
 	void remove(String key);
 
 	static CacheClient create() {
-		return RedisCacheClient.create();
+		CacheClient redis = RedisCacheClient.create();
+		if (Service.configuration.XYZ_HUB_L1_CACHE_SIZE <= 0 || Service.configuration.XYZ_HUB_L1_CACHE_TTL <= 0) {
+			return redis;
+		}
+		InMemoryCacheClient l1 = new InMemoryCacheClient((long) Service.configuration.XYZ_HUB_L1_CACHE_SIZE * 1024 * 1024,
+				Service.configuration.XYZ_HUB_L1_CACHE_TTL);
+		return new TieredCacheClient(l1, redis, Service.configuration.XYZ_HUB_L1_CACHE_TTL);
 	}
 
 	void shutdown();
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import io.vertx.core.Handler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache client, which keeps the values in the memory of this node. The size of the cache is limited by the sum of the byte sizes of
+ * its values, the least recently used entries get evicted first. Each entry expires individually after its TTL, which is capped by a
+ * maximal TTL, so that the entries of this node don't live longer than the ones of a shared cache.
+ */
+public class InMemoryCacheClient implements CacheClient {
+
+  private final Cache<String, Entry> cache;
+  private final long maxTtl;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder byteSize = new LongAdder();
+
+  /**
+   * @param maxByteSize The maximal amount of bytes to be kept in the cache
+   * @param maxTtl The maximal live time of an entry in seconds
+   */
+  public InMemoryCacheClient(long maxByteSize, long maxTtl) {
+    this.maxTtl = maxTtl;
+    cache = CacheBuilder.newBuilder()
+        // A single segment, as the weight limit would be split over the segments otherwise, so that large entries would be evicted right
+        // away and the eviction would not be in least recently used order over all entries
+        .concurrencyLevel(1)
+        .maximumWeight(maxByteSize)
+        .weigher((String key, Entry entry) -> entry.byteSize + 2 * key.length())
+        .expireAfterWrite(maxTtl, TimeUnit.SECONDS)
+        .removalListener((RemovalNotification<String, Entry> notification) -> byteSize.add(-notification.getValue().byteSize))
+        .build();
+  }
+
+  @Override
+  public void get(String key, Handler<String> handler) {
+    final Object value = read(key);
+    handler.handle(value instanceof String ? (String) value : null);
+  }
+
+  @Override
+  public void getBinary(String key, Handler<byte[]> handler) {
+    final Object value = read(key);
+    handler.handle(value instanceof byte[] ? (byte[]) value : null);
+  }
+
+  @Override
+  public void set(String key, String value, long ttl) {
+    if (value != null) {
+      write(key, new Entry(value, 2 * value.length(), ttl));
+    }
+  }
+
+  @Override
+  public void setBinary(String key, byte[] value, long ttl) {
+    if (value != null) {
+      write(key, new Entry(value, value.length, ttl));
+    }
+  }
+
+  @Override
+  public void remove(String key) {
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void shutdown() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * @return The amount of requests, which were answered from this cache.
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return The amount of requests, for which no valid entry was found in this cache.
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return The amount of bytes, which are currently kept in this cache.
+   */
+  public long getByteSize() {
+    return byteSize.sum();
+  }
+
+  private Object read(String key) {
+    final Entry entry = cache.getIfPresent(key);
+    if (entry == null || entry.isExpired()) {
+      if (entry != null) {
+        cache.asMap().remove(key, entry);
+      }
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.value;
+  }
+
+  private void write(String key, Entry entry) {
+    if (!entry.isExpired()) {
+      // Count the bytes before the entry is inserted, as the removal listener may already subtract them during the insertion
+      byteSize.add(entry.byteSize);
+      cache.put(key, entry);
+    }
+  }
+
+  private class Entry {
+
+    final Object value;
+    final int byteSize;
+    final long expiresAt;
+
+    Entry(Object value, int byteSize, long ttl) {
+      this.value = value;
+      this.byteSize = byteSize;
+      this.expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Math.min(ttl, maxTtl));
+    }
+
+    boolean isExpired() {
+      return expiresAt <= System.currentTimeMillis();
+    }
+  }
+}
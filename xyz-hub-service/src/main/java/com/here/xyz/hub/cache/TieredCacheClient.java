@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import io.vertx.core.Handler;
+
+/**
+ * A cache client, which combines a fast cache of this node (L1) with a shared cache (L2). Reads are answered by the L1 cache if possible,
+ * values, which were only found in the L2 cache, are copied into the L1 cache. Writes and removals go to both caches.
+ *
+ * The copies don't know the remaining live time of the L2 entries, as reading it would cost another round trip to the L2 cache for every
+ * L1 miss. Instead they live for the L1 live time, so a copy may outlive its L2 entry by at most that time.
+ *
+ * The cache keys of feature responses contain the contentUpdatedAt timestamp of the space, so that all entries of a space are invalidated
+ * implicitly, when its content changes. The outdated entries are not requested anymore and get evicted from the L1 cache.
+ */
+public class TieredCacheClient implements CacheClient {
+
+  private final InMemoryCacheClient l1;
+  private final CacheClient l2;
+
+  /**
+   * The live time in seconds for values, which are copied from the L2 cache into the L1 cache.
+   */
+  private final long l1Ttl;
+
+  public TieredCacheClient(InMemoryCacheClient l1, CacheClient l2, long l1Ttl) {
+    this.l1 = l1;
+    this.l2 = l2;
+    this.l1Ttl = l1Ttl;
+  }
+
+  @Override
+  public void get(String key, Handler<String> handler) {
+    l1.get(key, l1Result -> {
+      if (l1Result != null) {
+        handler.handle(l1Result);
+        return;
+      }
+      l2.get(key, l2Result -> {
+        if (l2Result != null) {
+          l1.set(key, l2Result, l1Ttl);
+        }
+        handler.handle(l2Result);
+      });
+    });
+  }
+
+  @Override
+  public void getBinary(String key, Handler<byte[]> handler) {
+    l1.getBinary(key, l1Result -> {
+      if (l1Result != null) {
+        handler.handle(l1Result);
+        return;
+      }
+      l2.getBinary(key, l2Result -> {
+        if (l2Result != null) {
+          l1.setBinary(key, l2Result, l1Ttl);
+        }
+        handler.handle(l2Result);
+      });
+    });
+  }
+
+  @Override
+  public void set(String key, String value, long ttl) {
+    l1.set(key, value, ttl);
+    l2.set(key, value, ttl);
+  }
+
+  @Override
+  public void setBinary(String key, byte[] value, long ttl) {
+    l1.setBinary(key, value, ttl);
+    l2.setBinary(key, value, ttl);
+  }
+
+  @Override
+  public void remove(String key) {
+    l1.remove(key);
+    l2.remove(key);
+  }
+
+  @Override
+  public void shutdown() {
+    l1.shutdown();
+    l2.shutdown();
+  }
+
+  /**
+   * @return The L1 cache of this node.
+   */
+  public InMemoryCacheClient getL1() {
+    return l1;
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.config;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import net.jodah.expiringmap.ExpiringMap;
+import org.slf4j.Marker;
+
+/**
+ * A read-through cache for configuration objects like spaces and connectors.
+ *
+ * <ul>
+ * <li>Concurrent requests for an object, which is not cached, share a single load from the config storage.</li>
+ * <li>When an object is requested after its refresh time, it is still served from the cache, while it is reloaded in the background.
+ * Only when an object was not requested until it expired, the next request waits for the storage.</li>
+ * <li>Objects, which don't exist, are cached for a shorter time as well, so that requests for unknown IDs don't reach the storage each
+ * time.</li>
+ * </ul>
+ *
+ * The cache of other nodes is invalidated by the config clients through the {@link com.here.xyz.hub.rest.admin.MessageBroker}.
+ *
+ * @param <V> the type of the cached objects.
+ */
+class ConfigCache<V> {
+
+  @FunctionalInterface
+  interface Loader<V> {
+
+    /**
+     * Loads an object from the config storage. If the object doesn't exist, the handler is called with a succeeded future having a null
+     * result.
+     */
+    void load(Marker marker, String id, Handler<AsyncResult<V>> handler);
+  }
+
+  private final long ttl;
+  private final long refreshAfter;
+  private final long negativeTtl;
+
+  private final ExpiringMap<String, CacheEntry<V>> entries;
+  private final Map<String, PendingLoad<V>> pendingLoads = new ConcurrentHashMap<>();
+
+  /**
+   * @param maxSize the maximum number of cached objects, including the ones which don't exist.
+   * @param ttl the time after which an object expires.
+   * @param refreshAfter the time after which a requested object is reloaded in the background; must be less than the ttl.
+   * @param negativeTtl the time after which the information that an object doesn't exist expires.
+   * @param unit the time unit of all times.
+   */
+  ConfigCache(int maxSize, long ttl, long refreshAfter, long negativeTtl, TimeUnit unit) {
+    this.ttl = unit.toMillis(ttl);
+    this.refreshAfter = unit.toMillis(refreshAfter);
+    this.negativeTtl = unit.toMillis(negativeTtl);
+    this.entries = ExpiringMap.builder()
+        .maxSize(maxSize)
+        .variableExpiration()
+        .build();
+  }
+
+  /**
+   * Returns the object with the given ID. The handler is called with a null result, if the object doesn't exist.
+   */
+  void get(Marker marker, String id, Loader<V> loader, Handler<AsyncResult<V>> handler) {
+    final CacheEntry<V> entry = entries.get(id);
+    if (entry == null) {
+      load(marker, id, loader, handler);
+      return;
+    }
+
+    if (entry.value != null && System.currentTimeMillis() - entry.loadedAt > refreshAfter) {
+      load(marker, id, loader, null);
+    }
+    handler.handle(Future.succeededFuture(entry.value));
+  }
+
+  /**
+   * Returns the cached object, if it is cached.
+   */
+  V getIfPresent(String id) {
+    final CacheEntry<V> entry = entries.get(id);
+    return entry == null ? null : entry.value;
+  }
+
+  void put(String id, V value) {
+    entries.put(id, new CacheEntry<>(value), value == null ? negativeTtl : ttl, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Removes the object. A pending load of the object, which was started before, doesn't put its result into the cache and isn't joined by
+   * later requests, as it may return the outdated object.
+   */
+  void remove(String id) {
+    pendingLoads.compute(id, (k, pending) -> {
+      entries.remove(id);
+      if (pending != null) {
+        pending.removed = true;
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Loads the object, unless it is already being loaded. All handlers, which are waiting for the same object, are called once it was
+   * loaded. A failure of the load doesn't remove a cached object, so that a failing background refresh keeps serving the cached object
+   * until it expires.
+   */
+  private void load(Marker marker, String id, Loader<V> loader, Handler<AsyncResult<V>> handler) {
+    final boolean[] isFirstRequest = {false};
+    final PendingLoad<V> pendingLoad = pendingLoads.compute(id, (k, pending) -> {
+      if (pending == null) {
+        pending = new PendingLoad<>();
+        isFirstRequest[0] = true;
+      }
+      if (handler != null) {
+        pending.handlers.add(handler);
+      }
+      return pending;
+    });
+    if (!isFirstRequest[0]) {
+      return;
+    }
+
+    loader.load(marker, id, ar -> {
+      pendingLoads.compute(id, (k, pending) -> {
+        if (ar.succeeded() && !pendingLoad.removed) {
+          put(id, ar.result());
+        }
+        return pending == pendingLoad ? null : pending;
+      });
+      pendingLoad.handlers.forEach(h -> h.handle(ar));
+    });
+  }
+
+  private static class PendingLoad<V> {
+
+    /**
+     * Whether the object was removed while it was loaded. Only read and written while the pending load of the ID is locked.
+     */
+    boolean removed;
+    final ConcurrentLinkedQueue<Handler<AsyncResult<V>>> handlers = new ConcurrentLinkedQueue<>();
+  }
+
+  private static class CacheEntry<V> {
+
+    final V value;
+    final long loadedAt = System.currentTimeMillis();
+
+    CacheEntry(V value) {
+      this.value = value;
+    }
+  }
+}
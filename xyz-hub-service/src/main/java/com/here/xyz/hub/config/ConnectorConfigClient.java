@@ -38,18 +38,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Marker;
 
 public abstract class ConnectorConfigClient implements Initializable, Logging {
 
-  public static final ExpiringMap<String, Connector> cache = ExpiringMap.builder()
-      .expirationPolicy(ExpirationPolicy.CREATED)
-      .expiration(3, TimeUnit.MINUTES)
-      .build();
+  static final ConfigCache<Connector> cache = new ConfigCache<>(10_000, 180, 120, 30, TimeUnit.SECONDS);
 
   public static ConnectorConfigClient getInstance() {
     // TODO remove the below comments when it's time to move to dynamo
@@ -67,21 +62,14 @@ public abstract class ConnectorConfigClient implements Initializable, Logging {
 
 
   public void get(Marker marker, String connectorId, Handler<AsyncResult<Connector>> handler) {
-    final Connector connectorFromCache = cache.get(connectorId);
-
-    if (connectorFromCache != null) {
-      logger().info(marker, "storageId: {} - The connector was loaded from cache", connectorId);
-      handler.handle(Future.succeededFuture(connectorFromCache));
-      return;
-    }
-
-    getConnector(marker, connectorId, ar -> {
-      if (ar.succeeded()) {
-        final Connector connector = ar.result();
-        cache.put(connectorId, connector);
-        handler.handle(Future.succeededFuture(connector));
-      } else {
+    cache.get(marker, connectorId, this::getConnector, ar -> {
+      if (ar.succeeded() && ar.result() != null) {
+        handler.handle(Future.succeededFuture(ar.result()));
+      } else if (ar.succeeded()) {
         logger().info(marker, "storageId[{}]: Connector not found", connectorId);
+        handler.handle(Future.failedFuture("The connector config not found for storageId: " + connectorId));
+      } else {
+        logger().info(marker, "storageId[{}]: Failed to load connector configuration, reason: ", connectorId, ar.cause());
         handler.handle(Future.failedFuture(ar.cause()));
       }
     });
@@ -101,6 +89,8 @@ public abstract class ConnectorConfigClient implements Initializable, Logging {
         final Connector connectorResult = ar.result();
         if (withInvalidation)
           invalidateCache(connector.id);
+        else
+          cache.remove(connector.id);
         handler.handle(Future.succeededFuture(connectorResult));
       } else {
         logger().info(marker, "storageId[{}]: Failed to store connector configuration, reason: ", connector.id, ar.cause());
@@ -191,6 +181,10 @@ public abstract class ConnectorConfigClient implements Initializable, Logging {
   }
 
 
+  /**
+   * Loads the connector from the config storage. If the connector doesn't exist, the handler is called with a succeeded future having a
+   * null result.
+   */
   protected abstract void getConnector(Marker marker, String connectorId, Handler<AsyncResult<Connector>> handler);
 
   protected abstract void storeConnector(Marker marker, Connector connector, Handler<AsyncResult<Connector>> handler);
@@ -200,7 +194,8 @@ public abstract class ConnectorConfigClient implements Initializable, Logging {
   protected abstract void getAllConnectors(Marker marker, Handler<AsyncResult<List<Connector>>> handler);
 
   public void invalidateCache(String id) {
-    new InvalidateConnectorCacheMessage().withId(id).withBroadcastIncludeLocalNode(true).broadcast();
+    cache.remove(id);
+    new InvalidateConnectorCacheMessage().withId(id).broadcast();
   }
 
   public static class InvalidateConnectorCacheMessage extends AdminMessage {
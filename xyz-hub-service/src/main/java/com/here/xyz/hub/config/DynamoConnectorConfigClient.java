@@ -54,7 +54,7 @@ public class DynamoConnectorConfigClient extends ConnectorConfigClient {
 
     if (item == null) {
       logger().debug(marker, "connector ID [{}]: This configuration does not exist", connectorId);
-      handler.handle(Future.failedFuture("The connector config was not found for connector ID: " + connectorId));
+      handler.handle(Future.succeededFuture(null));
       return;
     }
 
@@ -70,7 +70,7 @@ public class JDBCConnectorConfigClient extends ConnectorConfigClient {
           handler.handle(Future.succeededFuture(connector));
         } else {
           logger().debug(marker, "storageId[{}]: This configuration does not exist", connectorId);
-          handler.handle(Future.failedFuture("The connector config not found for storageId: " + connectorId));
+          handler.handle(Future.succeededFuture(null));
         }
       } else {
         logger().debug(marker, "storageId[{}]: Failed to load configuration, reason: ", connectorId, out.cause());
@@ -32,13 +32,8 @@ import io.vertx.core.Handler;
 import io.vertx.core.json.Json;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-import net.jodah.expiringmap.ExpirationPolicy;
-import net.jodah.expiringmap.ExpiringMap;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Marker;
 
@@ -51,12 +46,7 @@ public abstract class SpaceConfigClient implements Initializable, Logging {
         .setConfig(mapper.getSerializationConfig().withView(WithConnectors.class));
   });
 
-  public static final ExpiringMap<String, Space> cache = ExpiringMap.builder()
-      .expirationPolicy(ExpirationPolicy.CREATED)
-      .expiration(3, TimeUnit.MINUTES)
-      .build();
-
-  private static final Map<String, ConcurrentLinkedQueue<Handler<AsyncResult<Space>>>> pendingHandlers = new ConcurrentHashMap<>();
+  static final ConfigCache<Space> cache = new ConfigCache<>(10_000, 180, 120, 30, TimeUnit.SECONDS);
   private SpaceSelectionCondition emptySpaceCondition = new SpaceSelectionCondition();
 
   public static SpaceConfigClient getInstance() {
@@ -74,39 +64,22 @@ public abstract class SpaceConfigClient implements Initializable, Logging {
   }
 
   public void get(Marker marker, String spaceId, Handler<AsyncResult<Space>> handler) {
-    Space cached = cache.get(spaceId);
-    if (cached != null) {
-      logger().info(marker, "space[{}}]: Loaded space from cache: {}", spaceId, Json.encode(cached));
-      handler.handle(Future.succeededFuture(cached));
-      return;
-    }
-
-    /*
-    In case we get the query for a space of which a previous request is already in flight we wait for its response and call the callback
-    then. This is a performance optimization for highly parallel requests coming from the user at once.
-     */
-    boolean isFirstRequest = pendingHandlers.putIfAbsent(spaceId, new ConcurrentLinkedQueue<>()) == null;
-    pendingHandlers.get(spaceId).add(handler);
-    if (!isFirstRequest) {
-      return;
-    }
+    cache.get(marker, spaceId, this::loadSpace, handler);
+  }
 
+  private void loadSpace(Marker marker, String spaceId, Handler<AsyncResult<Space>> handler) {
     getSpace(marker, spaceId, ar -> {
-      ConcurrentLinkedQueue<Handler<AsyncResult<Space>>> handlersToCall = pendingHandlers.remove(spaceId);
       if (ar.succeeded()) {
         Space space = ar.result();
         if (space != null) {
-          cache.put(spaceId, space);
           logger().info(marker, "space[{}}]: Loaded space: {} {}", spaceId, Json.encode(space), ar.cause());
         } else {
           logger().info(marker, "space[{}}]: Space with this ID was not found {}", spaceId, ar.cause());
         }
-        cache.put(spaceId, space);
-        handlersToCall.forEach(h -> h.handle(Future.succeededFuture(ar.result())));
       } else {
         logger().info(marker, "space[{}]: Failed to load the space, reason: {}", spaceId, ar.cause());
-        handlersToCall.forEach(h -> h.handle(Future.failedFuture(ar.cause())));
       }
+      handler.handle(ar);
     });
   }
 
@@ -162,6 +135,10 @@ public abstract class SpaceConfigClient implements Initializable, Logging {
     getSelected(marker, emptySpaceCondition, selectedCondition, handler);
   }
 
+  /**
+   * Loads the space from the config storage. If the space doesn't exist, the handler is called with a succeeded future having a null
+   * result.
+   */
   protected abstract void getSpace(Marker marker, String spaceId, Handler<AsyncResult<Space>> handler);
 
   protected abstract void storeSpace(Marker marker, Space space, Handler<AsyncResult<Space>> handler);
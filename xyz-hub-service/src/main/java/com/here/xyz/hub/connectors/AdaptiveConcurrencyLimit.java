@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * An adaptive limit for the number of concurrent calls to a remote function. The limit is derived from the measured round-trip times
+ * (RTT). While the recent RTT stays close to the minimal RTT, the remote function is not saturated and the limit grows. When the recent RTT
+ * increases, requests start queuing up in the remote function and the limit shrinks by the ratio of both values. Timeouts and throttling
+ * errors decrease the limit multiplicatively.
+ *
+ * The minimal RTT is the minimum of the current and the previous measurement window. At the start of each window the limit is lowered, so
+ * that the requests queued in the remote function drain and the new window measures the RTT of an unsaturated remote function.
+ */
+public class AdaptiveConcurrencyLimit {
+
+  /**
+   * The relevance of a new limit in relation to the current limit.
+   */
+  private static final double SMOOTHING = 0.2d;
+  /**
+   * The relevance of a new RTT sample for the recent RTT.
+   */
+  private static final double RTT_RELEVANCE = 0.1d;
+  /**
+   * The factor by which the limit is decreased, when a call timed out or was throttled.
+   */
+  private static final double BACKOFF_RATIO = 0.9d;
+  /**
+   * The minimal factor by which the limit is decreased due to an increased RTT.
+   */
+  private static final double MIN_GRADIENT = 0.5d;
+  /**
+   * The length of a window, in which the minimal RTT is measured anew, so that the limit adapts to a permanently changed latency of the
+   * remote function.
+   */
+  static final long MIN_RTT_WINDOW = TimeUnit.MINUTES.toNanos(1);
+  /**
+   * The factor by which the limit is decreased at the start of a window to probe for the minimal RTT.
+   */
+  static final double PROBE_RATIO = 0.5d;
+
+  private final LongSupplier nanoTime;
+  private double limit;
+  private double minRtt = Double.MAX_VALUE;
+  private double windowMinRtt = Double.MAX_VALUE;
+  private double previousWindowMinRtt = Double.MAX_VALUE;
+  private double recentRtt;
+  private long windowStart;
+
+  /**
+   * Creates a new limit.
+   *
+   * @param initialLimit the initial limit.
+   */
+  public AdaptiveConcurrencyLimit(int initialLimit) {
+    this(initialLimit, System::nanoTime);
+  }
+
+  AdaptiveConcurrencyLimit(int initialLimit, LongSupplier nanoTime) {
+    this.nanoTime = nanoTime;
+    this.limit = Math.max(1, initialLimit);
+    this.windowStart = nanoTime.getAsLong();
+  }
+
+  /**
+   * Returns the current limit within the given bounds.
+   *
+   * @param minLimit the minimal limit.
+   * @param maxLimit the maximal limit.
+   * @return the current limit.
+   */
+  public synchronized int getLimit(int minLimit, int maxLimit) {
+    limit = bound(limit, minLimit, maxLimit);
+    return (int) limit;
+  }
+
+  /**
+   * Updates the limit with the result of a finished call.
+   *
+   * @param rtt the round-trip time of the call in nanoseconds.
+   * @param inFlight the number of calls, which were in flight when the call finished.
+   * @param dropped true, if the call timed out or was throttled by the remote function.
+   * @param minLimit the minimal limit.
+   * @param maxLimit the maximal limit.
+   */
+  public synchronized void onSample(long rtt, int inFlight, boolean dropped, int minLimit, int maxLimit) {
+    if (dropped) {
+      limit = bound(limit * BACKOFF_RATIO, minLimit, maxLimit);
+      return;
+    }
+
+    final long now = nanoTime.getAsLong();
+    if (now - windowStart > MIN_RTT_WINDOW) {
+      windowStart = now;
+      previousWindowMinRtt = windowMinRtt;
+      windowMinRtt = Double.MAX_VALUE;
+      limit = bound(limit * PROBE_RATIO, minLimit, maxLimit);
+    }
+    windowMinRtt = Math.min(windowMinRtt, rtt);
+    minRtt = Math.min(previousWindowMinRtt, windowMinRtt);
+    recentRtt = recentRtt == 0 ? rtt : recentRtt * (1d - RTT_RELEVANCE) + rtt * RTT_RELEVANCE;
+
+    // Only grow the limit, if it is actually used. Otherwise it would grow without bounds while the load is low.
+    final double gradient = Math.max(MIN_GRADIENT, Math.min(1d, minRtt / recentRtt));
+    if (gradient == 1d && inFlight < limit / 2) {
+      return;
+    }
+
+    final double newLimit = limit * gradient + Math.sqrt(limit);
+    limit = bound(limit * (1d - SMOOTHING) + newLimit * SMOOTHING, minLimit, maxLimit);
+  }
+
+  /**
+   * Returns the minimal RTT in milliseconds.
+   */
+  public synchronized double getMinRtt() {
+    return minRtt == Double.MAX_VALUE ? 0d : minRtt / 1_000_000d;
+  }
+
+  /**
+   * Returns the sliding average of the recent RTT in milliseconds.
+   */
+  public synchronized double getRecentRtt() {
+    return recentRtt / 1_000_000d;
+  }
+
+  private static double bound(double limit, int minLimit, int maxLimit) {
+    return Math.max(Math.max(1, minLimit), Math.min(Math.max(1, maxLimit), limit));
+  }
+}
@@ -44,6 +44,11 @@ public class EmbeddedFunctionClient extends QueueingRemoteFunctionClient impleme
    */
   private ExecutorService embeddedExecutor;
 
+  /**
+   * The class of the embedded connector. A new instance of it handles each call, so that concurrent calls don't share any state.
+   */
+  private volatile Class<?> mainClass;
+
   EmbeddedFunctionClient(Connector connectorConfig) {
     super(connectorConfig);
     if (!(connectorConfig.remoteFunction instanceof Connector.RemoteFunctionConfig.Embedded)) {
@@ -62,8 +67,11 @@ public class EmbeddedFunctionClient extends QueueingRemoteFunctionClient impleme
       String className = null;
       try {
         className = ((Connector.RemoteFunctionConfig.Embedded) connectorConfig.remoteFunction).className;
-        final Class<?> mainClass = Class.forName(className);
-        final RequestStreamHandler reqHandler = (RequestStreamHandler) mainClass.newInstance();
+        Class<?> handlerClass = mainClass;
+        if (handlerClass == null || !handlerClass.getName().equals(className)) {
+          mainClass = handlerClass = Class.forName(className);
+        }
+        final RequestStreamHandler reqHandler = (RequestStreamHandler) handlerClass.newInstance();
         if (reqHandler instanceof AbstractConnectorHandler) {
           ((AbstractConnectorHandler) reqHandler).setEmbedded(true);
         }
@@ -19,6 +19,7 @@
 
 package com.here.xyz.hub.connectors;
 
+import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
 import static io.netty.handler.codec.http.HttpResponseStatus.TOO_MANY_REQUESTS;
 
 import com.here.xyz.hub.Service;
@@ -26,6 +27,7 @@ import com.here.xyz.hub.connectors.models.Connector;
 import com.here.xyz.hub.rest.HttpException;
 import com.here.xyz.hub.util.ByteSizeAware;
 import com.here.xyz.hub.util.LimitedQueue;
+import com.here.xyz.hub.util.Prioritized;
 import com.here.xyz.hub.util.logging.Logging;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
@@ -57,6 +59,7 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
   private static LongAdder globalMinConnectionSum = new LongAdder();
   private static AtomicLong lastSizeAdjustment;
   AtomicInteger usedConnections = new AtomicInteger(0);
+  private final LongAdder expiredCalls = new LongAdder();
   /**
    * Sliding average request execution time in seconds.
    */
@@ -66,11 +69,16 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
    * the remote function.
    */
   private double rateOfService;
-  private LimitedQueue<FunctionCall> queue = new LimitedQueue<>(0,0);
+  private LimitedQueue<FunctionCall> queue = new LimitedQueue<>(0, 0, Priority.values().length);
+  /**
+   * The adaptive limit for the number of concurrent calls, which is bounded by the min and max connections of the connector.
+   */
+  private final AdaptiveConcurrencyLimit concurrencyLimit;
 
 
   public QueueingRemoteFunctionClient(Connector connectorConfig) {
     super(connectorConfig);
+    concurrencyLimit = new AdaptiveConcurrencyLimit(getMaxConnections());
     recalculateRateOfService();
 
     clientInstances.add(this);
@@ -84,9 +92,8 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
      */
     adjustQueueByteSizes();
     /*
-    For simplicity also here just set the value to maximum long. That means that we don't take the performance of the
-    connector into account for defining the maximum queue length. Doing so this would just be a performance- / cost-
-    optimization.
+    Initially the queue length is not limited. It gets adjusted to the measured performance of the remote function
+    once the first calls have been completed.
      */
     queue.setMaxSize(Long.MAX_VALUE);
   }
@@ -129,7 +136,7 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
   }
 
   @Override
-  protected void submit(final Marker marker, byte[] bytes, final Handler<AsyncResult<byte[]>> callback) {
+  protected void submit(final Marker marker, byte[] bytes, Priority priority, final Handler<AsyncResult<byte[]>> callback) {
     Handler<AsyncResult<byte[]>> cb = r -> {
       //This is the point where the request's response came back so measure the throughput
       invokeCompleted();
@@ -139,21 +146,25 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
     //This is the point where new requests arrive so measure the arrival time
     invokeStarted();
 
-    if (!compareAndIncrementUpTo(getMaxConnections(), usedConnections)) {
-      enqueue(marker, bytes, cb);
+    if (!compareAndIncrementUpTo(getConcurrencyLimit(), usedConnections)) {
+      enqueue(marker, bytes, priority, cb);
       return;
     }
     _invoke(marker, bytes, cb);
   }
 
   private void _invoke(final Marker marker, byte[] bytes, final Handler<AsyncResult<byte[]>> callback) {
-    //long start = System.nanoTime();
+    final long start = System.nanoTime();
     invoke(marker, bytes, r -> {
-      //long end = System.nanoTime();
-      //TODO: Activate performance calculation once it's implemented completely
-      //recalculatePerformance(end - start, TimeUnit.NANOSECONDS);
-      //Look into queue if there is something further to do
-      FunctionCall fc = queue.remove();
+      final long executionTime = System.nanoTime() - start;
+      final boolean overloaded = r.failed() && isOverloadError(r.cause());
+      //Other errors may be returned much faster or slower than a regular response, so their latency says nothing about the load
+      if (r.succeeded() || overloaded) {
+        concurrencyLimit.onSample(executionTime, usedConnections.get(), overloaded, getMinConnections(), getMaxConnections());
+      }
+      recalculatePerformance(executionTime, TimeUnit.NANOSECONDS);
+      //Look into queue if there is something further to do, unless the limit was decreased meanwhile
+      FunctionCall fc = usedConnections.get() <= getConcurrencyLimit() ? nextCall() : null;
       if (fc == null)
         usedConnections.getAndDecrement(); //Free the connection only in case it's not needed for the next invocation
       try {
@@ -166,10 +177,50 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
       if (fc != null) {
         _invoke(fc.marker, fc.bytes, fc.callback);
       }
+      //In case the limit was increased, use the additional connections for further enqueued elements
+      invokeEnqueued();
     });
   }
 
-  private void recalculatePerformance(long executionTime, TimeUnit timeUnit) {
+  private void invokeEnqueued() {
+    while (queue.getSize() > 0 && compareAndIncrementUpTo(getConcurrencyLimit(), usedConnections)) {
+      FunctionCall fc = nextCall();
+      if (fc == null) {
+        usedConnections.getAndDecrement();
+        return;
+      }
+      _invoke(fc.marker, fc.bytes, fc.callback);
+    }
+  }
+
+  /**
+   * Removes the next call from the queue. Calls, which exceeded their deadline while waiting in the queue, are not invoked anymore, because
+   * their clients have already given up.
+   *
+   * @return the next call to be invoked or null, if the queue is empty.
+   */
+  private FunctionCall nextCall() {
+    FunctionCall fc;
+    while ((fc = queue.remove()) != null && fc.isExpired()) {
+      expiredCalls.increment();
+      fc.callback.handle(Future.failedFuture(new HttpException(GATEWAY_TIMEOUT, "Remote function call timed out in the queue.")));
+    }
+    return fc;
+  }
+
+  /**
+   * Returns true, if the error indicates that the remote function is overloaded, e.g. the call timed out or was throttled. Unknown errors
+   * are not considered as overload.
+   */
+  private static boolean isOverloadError(Throwable t) {
+    if (t instanceof HttpException) {
+      final int status = ((HttpException) t).status.code();
+      return status == GATEWAY_TIMEOUT.code() || status == TOO_MANY_REQUESTS.code();
+    }
+    return false;
+  }
+
+  private synchronized void recalculatePerformance(long executionTime, TimeUnit timeUnit) {
     recalculateSARET(executionTime, timeUnit);
     recalculateRateOfService();
     adjustQueueElementCount();
@@ -177,14 +228,14 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
 
   private void recalculateSARET(long executionTime, TimeUnit timeUnit) {
     double executionTimeSeconds = (double) (timeUnit.toMicros(executionTime)) / 1_000_000d;
-    double requestRelevance = 1 / (rateOfService * REQUEST_RELEVANCE_FACTOR);
+    double requestRelevance = Math.min(1d, 1 / (rateOfService * REQUEST_RELEVANCE_FACTOR));
     SARET = executionTimeSeconds * requestRelevance + SARET * (1d - requestRelevance);
 
 
   }
 
   public void recalculateRateOfService() {
-    rateOfService = getMaxConnections() / SARET;
+    rateOfService = getConcurrencyLimit() / SARET;
   }
 
   public double getRateOfService() { return rateOfService; }
@@ -195,6 +246,26 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
 
   public int getUsedConnections() { return usedConnections.intValue(); }
 
+  /**
+   * Returns the number of calls, which were dropped, because they exceeded their deadline while waiting in the queue.
+   */
+  public long getExpiredCalls() { return expiredCalls.sum(); }
+
+  /**
+   * Returns the current limit for the number of concurrent calls, which adapts to the measured round-trip times of the remote function.
+   */
+  public int getConcurrencyLimit() { return concurrencyLimit.getLimit(getMinConnections(), getMaxConnections()); }
+
+  /**
+   * Returns the minimal round-trip time of the remote function in milliseconds.
+   */
+  public double getMinRoundTripTime() { return concurrencyLimit.getMinRtt(); }
+
+  /**
+   * Returns the sliding average of the recent round-trip times of the remote function in milliseconds.
+   */
+  public double getRecentRoundTripTime() { return concurrencyLimit.getRecentRtt(); }
+
   public double getPriority() {
     return (double) getMinConnections() / globalMinConnectionSum.doubleValue();
   }
@@ -212,12 +283,15 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
    * {@link #rateOfService} of this RemoteFunctionClient.
    */
   private void adjustQueueElementCount() {
-    long maxFeasibleElements = (long) Math.ceil(rateOfService * REQUEST_TIMEOUT);
-    queue.setMaxSize(maxFeasibleElements);
+    long maxFeasibleElements = (long) Math.ceil(rateOfService * REQUEST_TIMEOUT / 1000d);
+    queue.setMaxSize(maxFeasibleElements)
+        .forEach(discardedFc ->
+            discardedFc.callback
+                .handle(Future.failedFuture(new HttpException(TOO_MANY_REQUESTS, "Remote function is busy or cannot be invoked."))));
   }
 
-  private void enqueue(final Marker marker, byte[] bytes, final Handler<AsyncResult<byte[]>> callback) {
-    FunctionCall fc = new FunctionCall(marker,bytes,callback);
+  private void enqueue(final Marker marker, byte[] bytes, Priority priority, final Handler<AsyncResult<byte[]>> callback) {
+    FunctionCall fc = new FunctionCall(marker, bytes, priority, System.currentTimeMillis() + REQUEST_TIMEOUT, callback);
 
     /*if (System.currentTimeMillis() > lastSizeAdjustment.get() + SIZE_ADJUSTMENT_INTERVAL
         && fc.getByteSize() + queue.getByteSize() > queue.getMaxByteSize()) {
@@ -234,17 +308,33 @@ public abstract class QueueingRemoteFunctionClient extends RemoteFunctionClient
                 .handle(Future.failedFuture(new HttpException(TOO_MANY_REQUESTS, "Remote function is busy or cannot be invoked."))));
   }
 
-  public static class FunctionCall implements ByteSizeAware {
+  public static class FunctionCall implements ByteSizeAware, Prioritized {
 
     final Marker marker;
     final byte[] bytes;
+    final Priority priority;
+    /**
+     * The point in time in milliseconds, after which the call is not invoked anymore.
+     */
+    final long deadline;
     final Handler<AsyncResult<byte[]>> callback;
-    public FunctionCall(Marker marker, byte[] bytes, Handler<AsyncResult<byte[]>> callback) {
+    public FunctionCall(Marker marker, byte[] bytes, Priority priority, long deadline, Handler<AsyncResult<byte[]>> callback) {
       this.marker = marker;
       this.bytes = bytes;
+      this.priority = priority;
+      this.deadline = deadline;
       this.callback = callback;
     }
 
+    boolean isExpired() {
+      return System.currentTimeMillis() > deadline;
+    }
+
+    @Override
+    public int getPriority() {
+      return priority.ordinal();
+    }
+
     @Override
     public long getByteSize() {
       return bytes.length;
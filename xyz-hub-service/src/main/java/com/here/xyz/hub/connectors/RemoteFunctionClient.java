@@ -105,7 +105,29 @@ public abstract class RemoteFunctionClient {
         updateStorageConfig();
     }
 
+    /**
+     * The priority classes of remote function calls. When calls need to be queued, calls of a higher priority are invoked first.
+     */
+    public enum Priority {
+        /**
+         * Interactive reads, e.g. tile requests, for which a client is waiting.
+         */
+        INTERACTIVE,
+        /**
+         * Writes and other bulk operations.
+         */
+        BULK,
+        /**
+         * Notifications, e.g. for listeners, which don't need a response.
+         */
+        NOTIFICATION
+    }
+
     protected void submit(final Marker marker, byte[] bytes, final Handler<AsyncResult<byte[]>> callback) {
+        submit(marker, bytes, Priority.BULK, callback);
+    }
+
+    protected void submit(final Marker marker, byte[] bytes, Priority priority, final Handler<AsyncResult<byte[]>> callback) {
         invoke(marker, bytes, r -> {
             //This is the point where the request's response came back so measure the throughput
             invokeCompleted();
@@ -26,15 +26,25 @@ import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERR
 import static io.netty.handler.codec.rtsp.RtspResponseStatuses.REQUEST_ENTITY_TOO_LARGE;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.here.xyz.Payload;
 import com.here.xyz.Typed;
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.connectors.RelocationClient;
+import com.here.xyz.events.DeleteFeaturesByTagEvent;
 import com.here.xyz.events.Event;
+import com.here.xyz.events.GetFeaturesByIdEvent;
+import com.here.xyz.events.GetStatisticsEvent;
+import com.here.xyz.events.QueryEvent;
 import com.here.xyz.events.RelocatedEvent;
 import com.here.xyz.hub.Service;
+import com.here.xyz.hub.connectors.RemoteFunctionClient.Priority;
 import com.here.xyz.hub.connectors.models.Connector;
+import com.here.xyz.hub.connectors.models.RawJsonResponse;
 import com.here.xyz.hub.rest.HttpException;
 import com.here.xyz.hub.util.logging.Logging;
 import com.here.xyz.models.geojson.implementation.XyzError;
@@ -46,8 +56,11 @@ import io.vertx.core.Handler;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Marker;
 
@@ -56,6 +69,12 @@ public class RpcClient implements Logging {
   private static final ConcurrentHashMap<String, RpcClient> storageIdToClient = new ConcurrentHashMap<>();
   private static final RelocationClient relocationClient = new RelocationClient(Service.configuration.XYZ_HUB_S3_BUCKET);
 
+  /**
+   * The properties of a FeatureCollection, which may be passed to the client as they were received from the connector.
+   */
+  private static final Set<String> RAW_FEATURE_COLLECTION_FIELDS = new HashSet<>(Arrays.asList(
+      "type", "etag", "features", "bbox", "handle", "count", "inserted", "updated", "deleted", "oldFeatures", "failed"));
+
   /**
    * The connector this client is currently bound to.
    */
@@ -112,7 +131,7 @@ public class RpcClient implements Logging {
     return connector;
   }
 
-  private void invokeWithRelocation(final Marker marker, byte[] bytes, final Handler<AsyncResult<byte[]>> callback) {
+  private void invokeWithRelocation(final Marker marker, byte[] bytes, Priority priority, final Handler<AsyncResult<byte[]>> callback) {
     try {
       if (bytes.length > connector.capabilities.maxPayloadSize) { // If the payload is too large to send directly to the connector
         // If relocation is supported, use the relocation client to transfer the event to the connector
@@ -127,7 +146,7 @@ public class RpcClient implements Logging {
           return;
         }
       }
-      functionClient.submit(marker, bytes, callback);
+      functionClient.submit(marker, bytes, priority, callback);
     } catch (Exception e) {
       callback.handle(Future.failedFuture(e));
     }
@@ -142,19 +161,33 @@ public class RpcClient implements Logging {
    */
   @SuppressWarnings("rawtypes")
   public void execute(final Marker marker, final Event event, final Handler<AsyncResult<XyzResponse>> callback) {
+    execute(marker, event, false, callback);
+  }
+
+  /**
+   * Executes an event and returns the parsed response. If raw responses are accepted, the event is sent as JSON and a FeatureCollection,
+   * which the connector returned, is not parsed. Only its envelope is read and it's returned as {@link RawJsonResponse} holding the bytes
+   * of the connector.
+   *
+   * @param marker the log marker
+   * @param event the event
+   * @param acceptRaw whether a FeatureCollection may be returned as {@link RawJsonResponse}
+   * @param callback the callback handler
+   */
+  @SuppressWarnings("rawtypes")
+  public void execute(final Marker marker, final Event event, final boolean acceptRaw, final Handler<AsyncResult<XyzResponse>> callback) {
     event.setConnectorParams(connector.params);
-    final String eventJson = event.serialize();
-    final byte[] bytes = eventJson.getBytes();
+    final byte[] bytes = serialize(event, acceptRaw);
     logger().info(marker, "Invoking remote function \"{}\". Total uncompressed event size: {}, Event: {}", this.storage().id, bytes.length,
-        preview(eventJson, 4092));
+        preview(bytes, 4092));
 
-    invokeWithRelocation(marker, bytes, bytesResult -> {
+    invokeWithRelocation(marker, bytes, priorityOf(event), bytesResult -> {
       if (bytesResult.failed()) {
         callback.handle(Future.failedFuture(bytesResult.cause()));
         return;
       }
 
-      parseResponse(marker, bytesResult.result(), r -> {
+      parseResponse(marker, bytesResult.result(), acceptRaw, r -> {
         if (r.failed()) {
           logger().error(marker, "Unable to decode the response.", r.cause());
           callback.handle(Future.failedFuture(r.cause()));
@@ -165,11 +198,37 @@ public class RpcClient implements Logging {
     });
   }
 
-  private String preview(String eventJson, @SuppressWarnings("SameParameterValue") int previewLength) {
-    if (eventJson == null || eventJson.length() <= previewLength) {
-      return eventJson;
+  /**
+   * Returns the priority of a call of the given event. Reads, for which a client is waiting, are preferred to writes.
+   */
+  @SuppressWarnings("rawtypes")
+  private static Priority priorityOf(final Event event) {
+    if ((event instanceof QueryEvent && !(event instanceof DeleteFeaturesByTagEvent)) || event instanceof GetFeaturesByIdEvent
+        || event instanceof GetStatisticsEvent) {
+      return Priority.INTERACTIVE;
+    }
+    return Priority.BULK;
+  }
+
+  /**
+   * Serializes the event in the encoding, which is supported by the connector. The connector responds in the encoding of the event.
+   *
+   * @param acceptRaw whether the response may be passed through as it is. Such events are always encoded as JSON, because a binary encoded
+   *     response would have to be parsed.
+   */
+  @SuppressWarnings("rawtypes")
+  private byte[] serialize(final Event event, final boolean acceptRaw) {
+    return event.toByteArray(connector.capabilities.binaryEncodingSupport && !acceptRaw);
+  }
+
+  private String preview(byte[] bytes, int previewLength) {
+    if (bytes == null) {
+      return null;
     }
-    return eventJson.substring(0, previewLength);
+    if (Payload.isBinary(bytes)) {
+      return "<binary encoded, " + bytes.length + " bytes>";
+    }
+    return new String(bytes, 0, Math.min(bytes.length, previewLength), StandardCharsets.UTF_8);
   }
 
   /**
@@ -182,26 +241,26 @@ public class RpcClient implements Logging {
    */
   public void send(final Marker marker, @SuppressWarnings("rawtypes") final Event event) {
     event.setConnectorParams(connector.params);
-    invokeWithRelocation(marker, event.serialize().getBytes(), r -> {
+    invokeWithRelocation(marker, serialize(event, false), Priority.NOTIFICATION, r -> {
       if (r.failed()) {
         logger().error(marker, "Failed to send event to remote function {}.", connector.remoteFunction.id);
       }
     });
   }
 
-  private void parseResponse(Marker marker, final byte[] bytes, @SuppressWarnings("rawtypes") Handler<AsyncResult<XyzResponse>> callback) {
-    String stringResponse = null;
-    if (bytes != null) {
-      stringResponse = new String(bytes, StandardCharsets.UTF_8);
-    }
-    if (bytes == null || stringResponse.length() == 0) {
+  private void parseResponse(Marker marker, final byte[] bytes, boolean acceptRaw,
+      @SuppressWarnings("rawtypes") Handler<AsyncResult<XyzResponse>> callback) {
+    if (bytes == null || bytes.length == 0) {
       logger().error(marker, "Received empty response, but expected a JSON response.", new NullPointerException());
       callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Received an empty response from the storage connector.")));
       return;
     }
 
     try {
-      Typed payload = XyzSerializable.deserialize(stringResponse);
+      Typed payload = acceptRaw ? toRawFeatureCollection(bytes) : null;
+      if (payload == null) {
+        payload = XyzSerializable.deserialize(bytes);
+      }
       if (payload instanceof RelocatedEvent) {
         try {
           // TODO: async
@@ -237,8 +296,8 @@ public class RpcClient implements Logging {
       logger().error(marker, "Received empty response, but expected a JSON response.", new NullPointerException());
       callback.handle(Future.failedFuture(new HttpException(BAD_GATEWAY, "Received an empty response from the storage connector.")));
     } catch (JsonMappingException e) {
-      logger().error(marker, "Error in the provided content {}", stringResponse, e);
-      HttpException parsedError = getErrorMessage(stringResponse);
+      logger().error(marker, "Error in the provided content {}", preview(bytes, bytes.length), e);
+      HttpException parsedError = getErrorMessage(bytes);
       callback.handle(Future.failedFuture(parsedError != null ? parsedError : new HttpException(BAD_GATEWAY,
           "Invalid content provided by the connector: Invalid JSON type. Expected is a sub-type of XyzResponse.")));
     } catch (JsonParseException e) {
@@ -251,22 +310,67 @@ public class RpcClient implements Logging {
     } catch (HttpException e) {
       callback.handle(Future.failedFuture(e));
     } catch (Exception e) {
-      logger().error(marker, "Unexpected exception while processing connector response: {}", stringResponse, e);
+      logger().error(marker, "Unexpected exception while processing connector response: {}", preview(bytes, bytes.length), e);
       callback.handle(
           Future.failedFuture(new HttpException(INTERNAL_SERVER_ERROR, "Unexpected exception while processing connector response.")));
     }
   }
 
   /**
-   * Tries to parse the stringResponse and checks for errorMessage. In case of found, it throws a new exception with the errorMessage.
+   * Reads the envelope of a JSON response. If the response is a FeatureCollection, it's returned as {@link RawJsonResponse}, which holds
+   * the bytes as they were received from the connector, otherwise null is returned. If the envelope contains other properties than the
+   * ones of a FeatureCollection, null is returned as well, so that the response is parsed and these properties are not sent to the client.
+   *
+   * @param bytes the response
+   */
+  private static RawJsonResponse toRawFeatureCollection(final byte[] bytes) throws IOException {
+    if (Payload.isBinary(bytes)) {
+      return null;
+    }
+
+    String etag = null;
+    boolean isFeatureCollection = false, hasFeatures = false;
+    try (JsonParser parser = XyzSerializable.DEFAULT_MAPPER.get().getFactory().createParser(bytes)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String name = parser.getCurrentName();
+        if (!RAW_FEATURE_COLLECTION_FIELDS.contains(name)) {
+          return null;
+        }
+        final JsonToken token = parser.nextToken();
+        if ("type".equals(name)) {
+          if (token != JsonToken.VALUE_STRING || !"FeatureCollection".equals(parser.getText())) {
+            return null;
+          }
+          isFeatureCollection = true;
+        } else if ("etag".equals(name) && token == JsonToken.VALUE_STRING) {
+          etag = parser.getText();
+        } else {
+          hasFeatures |= "features".equals(name);
+          parser.skipChildren();
+        }
+      }
+    }
+
+    if (!isFeatureCollection || !hasFeatures) {
+      return null;
+    }
+    return new RawJsonResponse().withBytes(bytes).withEtag(etag);
+  }
+
+  /**
+   * Tries to parse the response and checks for errorMessage. In case of found, it throws a new exception with the errorMessage.
    * Additionally checks if the message is related to Time Out and throws a GATEWAY_TIMEOUT. Also, if the message is not parsable at all,
    * throws an exception informing "Invalid JSON string"
    *
-   * @param stringResponse the original response
+   * @param bytes the original response
    */
-  private HttpException getErrorMessage(final String stringResponse) {
+  private HttpException getErrorMessage(final byte[] bytes) {
     try {
-      final JsonNode node = XyzSerializable.DEFAULT_MAPPER.get().readTree(stringResponse);
+      final ObjectMapper mapper = (Payload.isBinary(bytes) ? XyzSerializable.BINARY_MAPPER : XyzSerializable.DEFAULT_MAPPER).get();
+      final JsonNode node = mapper.readTree(bytes);
       if (node.has("errorMessage")) {
         final String errorMessage = node.get("errorMessage").asText();
         if (errorMessage.contains("Task timed out after ")) {
@@ -275,7 +379,7 @@ public class RpcClient implements Logging {
         return new HttpException(BAD_GATEWAY, errorMessage);
       }
     } catch (IOException jpe) {
-      logger().error("Invalid content provided by the connector: Invalid JSON string: " + stringResponse, jpe);
+      logger().error("Invalid content provided by the connector: Invalid JSON string: " + preview(bytes, bytes.length), jpe);
       return new HttpException(BAD_GATEWAY, "Invalid content provided by the connector");
     }
     return null;
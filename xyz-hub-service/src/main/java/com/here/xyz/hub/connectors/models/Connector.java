@@ -131,6 +131,16 @@ public class Connector {
      */
     public int maxPayloadSize = 6 * 1024 * 1024;
 
+    /**
+     * If the connector supports the binary encoding (Smile) of events and responses instead of JSON.
+     */
+    public boolean binaryEncodingSupport;
+
+    /**
+     * If the connector supports the conflict detection of updates. See: {@link com.here.xyz.events.ModifyFeaturesEvent#getConflictDetection()}
+     */
+    public boolean conflictDetection;
+
     /**
      * Whether searching by properties is supported. (Only applicable for storage connectors)
      */
@@ -160,7 +170,9 @@ public class Connector {
       return preserializedResponseSupport == that.preserializedResponseSupport &&
           relocationSupport == that.relocationSupport &&
           maxUncompressedSize == that.maxUncompressedSize &&
-          maxPayloadSize == that.maxPayloadSize;
+          maxPayloadSize == that.maxPayloadSize &&
+          binaryEncodingSupport == that.binaryEncodingSupport &&
+          conflictDetection == that.conflictDetection;
     }
 
   }
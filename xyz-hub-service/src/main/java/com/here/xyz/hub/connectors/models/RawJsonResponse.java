@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.connectors.models;
+
+import com.here.xyz.responses.XyzResponse;
+
+/**
+ * A response, which holds the already serialized JSON value of another response, e.g. when it was read from the cache. It is sent to the
+ * client as it is.
+ */
+public class RawJsonResponse extends XyzResponse<RawJsonResponse> {
+
+  private byte[] bytes;
+
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  public void setBytes(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  public RawJsonResponse withBytes(byte[] bytes) {
+    setBytes(bytes);
+    return this;
+  }
+}
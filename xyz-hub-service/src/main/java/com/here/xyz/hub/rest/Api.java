@@ -26,6 +26,7 @@ import static com.here.xyz.hub.rest.Api.HeaderValues.STREAM_ID;
 import static io.netty.handler.codec.http.HttpHeaderValues.TEXT_PLAIN;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_GATEWAY;
 import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
+import static io.netty.handler.codec.http.HttpResponseStatus.CONFLICT;
 import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 import static io.netty.handler.codec.http.HttpResponseStatus.NOT_FOUND;
@@ -38,7 +39,9 @@ import static io.vertx.core.http.HttpHeaders.CONTENT_TYPE;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.here.xyz.hub.XYZHubRESTVerticle;
 import com.here.xyz.hub.auth.JWTPayload;
+import com.here.xyz.hub.auth.VerifiedJWTUser;
 import com.here.xyz.hub.connectors.models.BinaryResponse;
+import com.here.xyz.hub.connectors.models.RawJsonResponse;
 import com.here.xyz.hub.connectors.models.Space.CacheProfile;
 import com.here.xyz.hub.task.FeatureTask;
 import com.here.xyz.hub.task.SpaceTask;
@@ -90,6 +93,9 @@ public abstract class Api implements Logging {
    */
   public static HttpException responseToHttpException(final XyzResponse response) {
     if (response instanceof ErrorResponse) {
+      if (XyzError.CONFLICT.equals(((ErrorResponse) response).getError())) {
+        return new HttpException(CONFLICT, ((ErrorResponse) response).getErrorMessage());
+      }
       return new HttpException(BAD_GATEWAY, ((ErrorResponse) response).getErrorMessage());
     }
     return new HttpException(BAD_GATEWAY, "Received invalid response of type '" + response.getClass().getSimpleName() + "'");
@@ -111,6 +117,8 @@ public abstract class Api implements Logging {
           logger().warn(task.getMarker(), "Received an error response: {}", errorResponse);
           if (XyzError.TIMEOUT.equals(errorResponse.getError())) {
             sendErrorResponse(task.context, GATEWAY_TIMEOUT, XyzError.TIMEOUT, DEFAULT_GATEWAY_TIMEOUT_MESSAGE);
+          } else if (XyzError.CONFLICT.equals(errorResponse.getError())) {
+            sendErrorResponse(task.context, CONFLICT, XyzError.CONFLICT, errorResponse.getErrorMessage());
           } else {
             sendErrorResponse(task.context, BAD_GATEWAY, errorResponse.getError(), DEFAULT_BAD_GATEWAY_MESSAGE);
           }
@@ -169,6 +177,8 @@ public abstract class Api implements Logging {
       logger().warn(task.getMarker(), "Received an error response: {}", errorResponse);
       if (XyzError.TIMEOUT.equals(errorResponse.getError())) {
         sendErrorResponse(task.context, GATEWAY_TIMEOUT, XyzError.TIMEOUT, DEFAULT_GATEWAY_TIMEOUT_MESSAGE);
+      } else if (XyzError.CONFLICT.equals(errorResponse.getError())) {
+        sendErrorResponse(task.context, CONFLICT, XyzError.CONFLICT, errorResponse.getErrorMessage());
       } else {
         sendErrorResponse(task.context, BAD_GATEWAY, errorResponse.getError(), DEFAULT_BAD_GATEWAY_MESSAGE);
       }
@@ -182,6 +192,11 @@ public abstract class Api implements Logging {
           return;
         }
 
+        if (response instanceof RawJsonResponse) {
+          sendResponse(task, OK, APPLICATION_GEO_JSON, ((RawJsonResponse) response).getBytes());
+          return;
+        }
+
         if (response instanceof FeatureCollection) {
           // Warning: We need to use "toString()" here and NOT Json.encode, because in fact the feature collection may be an
           // LazyParsedFeatureCollection and in that case only toString will work as intended!
@@ -340,6 +355,8 @@ public abstract class Api implements Logging {
           error = XyzError.TIMEOUT;
         } else if (BAD_REQUEST.code() == httpException.status.code()) {
           error = XyzError.ILLEGAL_ARGUMENT;
+        } else if (CONFLICT.code() == httpException.status.code()) {
+          error = XyzError.CONFLICT;
         } else {
           error = XyzError.EXCEPTION;
         }
@@ -521,7 +538,8 @@ public abstract class Api implements Logging {
       }
       JWTPayload payload = context.get(JWT);
       if (payload == null && context.user() != null) {
-        payload = Json.mapper.convertValue(context.user().principal(), JWTPayload.class);
+        payload = context.user() instanceof VerifiedJWTUser ? ((VerifiedJWTUser) context.user()).getPayload()
+            : JWTPayload.fromClaims(context.user().principal());
         context.put(JWT, payload);
       }
 
@@ -27,10 +27,12 @@ import com.here.xyz.hub.rest.Api;
 import com.here.xyz.hub.rest.admin.Node;
 import com.here.xyz.hub.util.health.Config;
 import com.here.xyz.hub.util.health.MainHealthCheck;
+import com.here.xyz.hub.util.health.checks.CacheHealthCheck;
 import com.here.xyz.hub.util.health.checks.ExecutableCheck;
 import com.here.xyz.hub.util.health.checks.JDBCHealthCheck;
 import com.here.xyz.hub.util.health.checks.RedisHealthCheck;
 import com.here.xyz.hub.util.health.checks.RemoteFunctionHealthChecks;
+import com.here.xyz.hub.util.health.checks.TaskWorkerPoolHealthCheck;
 import com.here.xyz.hub.util.health.schema.Reporter;
 import com.here.xyz.hub.util.health.schema.Response;
 import com.here.xyz.hub.util.logging.Logging;
@@ -61,7 +63,9 @@ public class HealthApi extends Api {
               .withEssential(true)
       )
       .add(new RedisHealthCheck(Service.configuration.XYZ_HUB_REDIS_HOST, Service.configuration.XYZ_HUB_REDIS_PORT))
-      .add(new RemoteFunctionHealthChecks());
+      .add(new RemoteFunctionHealthChecks())
+      .add(new CacheHealthCheck())
+      .add(new TaskWorkerPoolHealthCheck());
   //To be continued ...
 
   public HealthApi(Vertx vertx, Router router) {
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.hub.task;
+
+import com.here.xyz.events.Event;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The storage calls, which are currently in flight, by their coalescing key. Calls, which request the same data while such a call is in
+ * flight, wait for it and receive its serialized response instead of calling the storage again.
+ */
+class CoalescedCalls {
+
+  private final ConcurrentHashMap<String, List<BiConsumer<byte[], Exception>>> inFlightCalls = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the coalescing key of an event. Besides the cache key of the event, it contains the values, which are not part of the cache
+   * key, but may influence the response of the storage. Calls with different credentials or parameters are therefore never merged.
+   *
+   * @param event the event
+   * @param cacheKey the cache key of the event
+   * @return the coalescing key
+   */
+  static String key(Event event, String cacheKey) {
+    return cacheKey
+        + ":" + event.getIfNoneMatch()
+        + ":" + event.getPreferPrimaryDataSource()
+        + ":" + event.getTid()
+        + ":" + event.getAid()
+        + ":" + event.getParams();
+  }
+
+  /**
+   * Joins the in-flight call with the given key. If there is no such call, the caller must execute the call and complete it afterwards.
+   * Otherwise the waiter is registered and invoked, when the in-flight call is completed.
+   *
+   * @param key the coalescing key
+   * @param waiter the waiter, which receives the serialized response or the exception of the in-flight call
+   * @return true, if the caller must execute the call; false, if the waiter was registered
+   */
+  boolean join(String key, BiConsumer<byte[], Exception> waiter) {
+    final boolean[] isFirst = new boolean[1];
+    inFlightCalls.compute(key, (k, waiting) -> {
+      if (waiting == null) {
+        isFirst[0] = true;
+        return new ArrayList<>();
+      }
+      waiting.add(waiter);
+      return waiting;
+    });
+    return isFirst[0];
+  }
+
+  /**
+   * Returns true, if other calls are waiting for the in-flight call with the given key. The list of waiting calls is only read inside the
+   * atomic mapping function, as it's modified by {@link #join(String, BiConsumer)} concurrently. A call, which joins after this check, is
+   * still served by {@link #complete(String, Supplier, Exception)}.
+   */
+  boolean hasWaiting(String key) {
+    final boolean[] hasWaiting = new boolean[1];
+    inFlightCalls.computeIfPresent(key, (k, waiting) -> {
+      hasWaiting[0] = !waiting.isEmpty();
+      return waiting;
+    });
+    return hasWaiting[0];
+  }
+
+  /**
+   * Completes the in-flight call with the given key and notifies all waiting calls. The response is serialized only once and only if any
+   * call is waiting.
+   *
+   * @param key the coalescing key
+   * @param response the serialized response, may be null if the call failed
+   * @param exception the exception of the call or null, if the call succeeded
+   */
+  void complete(String key, Supplier<byte[]> response, Exception exception) {
+    final List<BiConsumer<byte[], Exception>> waiting = inFlightCalls.remove(key);
+    if (waiting == null || waiting.isEmpty()) {
+      return;
+    }
+    final byte[] value = exception == null && response != null ? response.get() : null;
+    waiting.forEach(handler -> handler.accept(value, exception));
+  }
+}
@@ -55,14 +55,23 @@ import com.here.xyz.hub.task.ModifyOp.Entry;
 import com.here.xyz.hub.task.TaskPipeline.Callback;
 import com.here.xyz.models.geojson.implementation.Feature;
 import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import com.here.xyz.models.geojson.implementation.FeatureCollection.ModificationFailure;
 import com.here.xyz.models.geojson.implementation.Properties;
+import com.here.xyz.models.geojson.implementation.XyzError;
+import com.here.xyz.responses.ErrorResponse;
 import com.here.xyz.responses.XyzResponse;
 import io.vertx.core.AsyncResult;
 import io.vertx.ext.web.RoutingContext;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>> extends Task<T, X> {
 
@@ -331,7 +340,8 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::validate)
           .then(FeatureTaskHandler::readCache)
-          .then(FeatureTaskHandler::invoke)
+          .then(FeatureTaskHandler::invokeCoalesced)
+          .thenBlocking(FeatureTaskHandler::serializeResponse, FeatureTaskHandler::isSerializationOffloadRequired)
           .then(FeatureTaskHandler::writeCache);
     }
   }
@@ -348,8 +358,8 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::validate)
           .then(FeatureTaskHandler::readCache)
-          .then(FeatureTaskHandler::invoke)
-          .then(FeatureTaskHandler::transformResponse)
+          .then(FeatureTaskHandler::invokeCoalesced)
+          .thenBlocking(FeatureTaskHandler::transformResponse, FeatureTaskHandler::isTransformationRequired)
           .then(FeatureTaskHandler::writeCache);
     }
   }
@@ -365,8 +375,9 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(FeatureTaskHandler::resolveSpace)
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::readCache)
-          .then(FeatureTaskHandler::invoke)
+          .then(FeatureTaskHandler::invokeCoalesced)
           .then(FeatureTaskHandler::convertResponse)
+          .thenBlocking(FeatureTaskHandler::serializeResponse, FeatureTaskHandler::isSerializationOffloadRequired)
           .then(FeatureTaskHandler::writeCache);
     }
   }
@@ -384,7 +395,8 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::validate)
           .then(FeatureTaskHandler::readCache)
-          .then(FeatureTaskHandler::invoke)
+          .then(FeatureTaskHandler::invokeCoalesced)
+          .thenBlocking(FeatureTaskHandler::serializeResponse, FeatureTaskHandler::isSerializationOffloadRequired)
           .then(FeatureTaskHandler::writeCache);
     }
   }
@@ -401,7 +413,8 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::validate)
           .then(FeatureTaskHandler::readCache)
-          .then(FeatureTaskHandler::invoke)
+          .then(FeatureTaskHandler::invokeCoalesced)
+          .thenBlocking(FeatureTaskHandler::serializeResponse, FeatureTaskHandler::isSerializationOffloadRequired)
           .then(FeatureTaskHandler::writeCache);
     }
   }
@@ -435,7 +448,7 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(FeatureTaskHandler::resolveSpace)
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::readCache)
-          .then(FeatureTaskHandler::invoke)
+          .then(FeatureTaskHandler::invokeCoalesced)
           .then(FeatureTaskHandler::convertResponse)
           .then(FeatureTaskHandler::writeCache);
     }
@@ -453,8 +466,19 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(FeatureTaskHandler::resolveSpace)
           .then(FeatureTaskHandler::checkPreconditions)
           .then(FeatureAuthorization::authorize)
+          .then(this::invalidateHeadStates)
           .then(FeatureTaskHandler::invoke);
     }
+
+    /**
+     * The IDs of the features, which are going to be deleted, are not known upfront, so all cached head states of the space are dropped.
+     */
+    private void invalidateHeadStates(DeleteOperation task, Callback<DeleteOperation> callback) {
+      if (HeadStateCache.isEnabled(space, storage)) {
+        HeadStateCache.invalidate(space.getId());
+      }
+      callback.call(task);
+    }
   }
 
   public static class ModifySpaceQuery extends FeatureTask<ModifySpaceEvent, ModifySpaceQuery> {
@@ -490,7 +514,8 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
     public List<String> removeTags;
     public String prefixId;
     private Map<Object, Integer> positionById;
-    private LoadFeaturesEvent loadFeaturesEvent;
+    private List<LoadFeaturesEvent> loadFeaturesEvents;
+    private boolean cachedHeadStatesUsed;
 
     public ConditionalOperation(ModifyFeaturesEvent event, RoutingContext context, ApiResponseType apiResponseTypeType,
         ModifyFeatureOp modifyOp,
@@ -509,10 +534,13 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           .then(this::loadObjects)
           .then(this::verifyResourceExists)
           .then(FeatureTaskHandler::updateTags)
-          .then(FeatureTaskHandler::processConditionalOp)
+          .thenBlocking(FeatureTaskHandler::processConditionalOp, FeatureTaskHandler::isParallelProcessingRequired)
           .then(FeatureAuthorization::authorize)
           .then(FeatureTaskHandler::enforceUsageQuotas)
-          .then(FeatureTaskHandler::invoke);
+          .then(this::removeHeadStates)
+          .then(FeatureTaskHandler::invoke)
+          .then(this::retryConflicts)
+          .thenBlocking(this::cacheHeadStates, ConditionalOperation::isHeadStateCachingRequired);
     }
 
     private void verifyResourceExists(ConditionalOperation task, Callback<ConditionalOperation> callback) {
@@ -523,52 +551,103 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
       }
     }
 
+    /**
+     * Loads the head states, which are not cached, with one {@link LoadFeaturesEvent} per chunk of features. The chunks are loaded
+     * concurrently.
+     */
     private void loadObjects(final ConditionalOperation s, final Callback<ConditionalOperation> c) {
-      final LoadFeaturesEvent event = toLoadFeaturesEvent();
-      if (event == null) {
+      loadHeads(toLoadFeaturesEvents(), c);
+    }
+
+    private void loadHeads(final List<LoadFeaturesEvent> events, final Callback<ConditionalOperation> c) {
+      if (events.isEmpty()) {
         c.call(this);
         return;
       }
-      FeatureTaskHandler.setAdditionalEventProps(s, s.storage, event);
-      try {
-        RpcClient.getInstanceFor(s.storage).execute(getMarker(), event, r -> processLoadEvent(c, event, r));
-      } catch (Exception e) {
-        c.exception(e);
-      }
-    }
 
-    LoadFeaturesEvent toLoadFeaturesEvent() {
-      if (loadFeaturesEvent != null) {
-        return loadFeaturesEvent;
+      final AtomicInteger pendingEvents = new AtomicInteger(events.size());
+      final AtomicBoolean failed = new AtomicBoolean();
+      final Callback<ConditionalOperation> chunkCallback = new Callback<ConditionalOperation>() {
+        @Override
+        public void call(ConditionalOperation task) {
+          if (pendingEvents.decrementAndGet() == 0 && !failed.get()) {
+            c.call(task);
+          }
+        }
+
+        @Override
+        public void exception(Exception e) {
+          if (failed.compareAndSet(false, true)) {
+            c.exception(e);
+          }
+        }
+      };
+
+      for (LoadFeaturesEvent event : events) {
+        FeatureTaskHandler.setAdditionalEventProps(this, storage, event);
+        try {
+          RpcClient.getInstanceFor(storage).execute(getMarker(), event, r -> processLoadEvent(chunkCallback, event, r));
+        } catch (Exception e) {
+          chunkCallback.exception(e);
+        }
       }
+    }
 
-      if (modifyOp.entries.size() == 0) {
-        return null;
+    /**
+     * Creates the events to load the head states of the input features. Head states, which are cached with the uuid the client has
+     * modified, are taken from the {@link HeadStateCache} instead.
+     */
+    List<LoadFeaturesEvent> toLoadFeaturesEvents() {
+      if (loadFeaturesEvents == null) {
+        loadFeaturesEvents = toLoadFeaturesEvents(modifyOp.entries, HeadStateCache.isEnabled(space, storage));
       }
+      return loadFeaturesEvents;
+    }
 
-      final HashMap<String, String> idsMap = new HashMap<>();
-      for (Entry<Feature, Feature, Feature> entry : modifyOp.entries) {
+    private List<LoadFeaturesEvent> toLoadFeaturesEvents(List<Entry<Feature, Feature, Feature>> entries, boolean headStateCacheEnabled) {
+      final int chunkSize = Service.configuration.LOAD_FEATURES_CHUNK_SIZE > 0 ? Service.configuration.LOAD_FEATURES_CHUNK_SIZE
+          : Integer.MAX_VALUE;
+      final List<LoadFeaturesEvent> events = new ArrayList<>();
+      HashMap<String, String> idsMap = new HashMap<>();
+      for (Entry<Feature, Feature, Feature> entry : entries) {
         if (entry.input.getId() != null) {
           String uuid = null;
           final Properties properties = entry.input.getProperties();
           if (properties != null && properties.getXyzNamespace() != null) {
             uuid = properties.getXyzNamespace().getUuid();
           }
+
+          // If the state modified by the client is still the cached head state, it doesn't need to be loaded
+          final Feature cachedHead = headStateCacheEnabled ? HeadStateCache.get(space.getId(), entry.input.getId(), uuid) : null;
+          if (cachedHead != null) {
+            entry.head = cachedHead;
+            entry.base = cachedHead;
+            cachedHeadStatesUsed = true;
+            continue;
+          }
+
           idsMap.put(entry.input.getId(), uuid);
+          if (idsMap.size() == chunkSize) {
+            events.add(toLoadFeaturesEvent(idsMap));
+            idsMap = new HashMap<>();
+          }
         }
       }
-      if (idsMap.size() == 0) {
-        return null;
+      if (idsMap.size() > 0) {
+        events.add(toLoadFeaturesEvent(idsMap));
       }
 
-      final LoadFeaturesEvent event = new LoadFeaturesEvent()
+      // Initialize the positions upfront, as the responses of the chunks may be processed concurrently
+      initPositions();
+      return events;
+    }
+
+    private LoadFeaturesEvent toLoadFeaturesEvent(HashMap<String, String> idsMap) {
+      return new LoadFeaturesEvent()
           .withStreamId(getMarker().getName())
           .withSpace(space.getId())
           .withParams(space.getStorage().getParams())
           .withIdsMap(idsMap);
-
-      loadFeaturesEvent = event;
-      return event;
     }
 
     void processLoadEvent(Callback<ConditionalOperation> callback, LoadFeaturesEvent event, AsyncResult<XyzResponse> r) {
@@ -633,11 +712,163 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
       }
     }
 
+    /**
+     * Removes the head states of all features of the space from the {@link HeadStateCache} of all nodes. This ensures that no outdated
+     * head state is used anymore, also if the modification fails with an unknown result.
+     *
+     * If cached head states were used, the storage is asked to reject updates, which are not based on the head state anymore.
+     */
+    private void removeHeadStates(ConditionalOperation task, Callback<ConditionalOperation> callback) {
+      if (HeadStateCache.isEnabled(space, storage)) {
+        HeadStateCache.invalidate(space.getId());
+        if (cachedHeadStatesUsed) {
+          getEvent().setConflictDetection(true);
+        }
+      }
+      callback.call(task);
+    }
+
+    /**
+     * Processes the modifications again, which the storage rejected because of a conflict. Their head states are loaded from the storage
+     * instead of being taken from the cache, so that they are merged like without the cache. A rejected transaction is processed again
+     * completely.
+     */
+    private void retryConflicts(ConditionalOperation task, Callback<ConditionalOperation> callback) {
+      final List<Entry<Feature, Feature, Feature>> conflicts = getConflicts();
+      if (conflicts.isEmpty()) {
+        callback.call(task);
+        return;
+      }
+
+      final XyzResponse rejectedResponse = getResponse();
+      for (Entry<Feature, Feature, Feature> entry : conflicts) {
+        entry.head = null;
+        entry.base = null;
+        entry.result = null;
+        entry.exception = null;
+      }
+      getEvent().setConflictDetection(false);
+      setResponse(null);
+
+      TaskPipeline.create(task)
+          .then((t, c) -> loadHeads(toLoadFeaturesEvents(conflicts, false), c))
+          .thenBlocking((t, c) -> {
+            FeatureTaskHandler.reprocessConditionalOp(t, conflicts);
+            c.call(t);
+          }, FeatureTaskHandler::isParallelProcessingRequired)
+          .then(FeatureAuthorization::authorize)
+          .then(FeatureTaskHandler::invoke)
+          .finish(t -> {
+            mergeResponse(rejectedResponse, conflicts);
+            callback.call(t);
+          }, (t, e) -> callback.exception(e))
+          .execute();
+    }
+
+    /**
+     * Returns the entries, which the storage rejected because of a conflict. These are all entries of a transaction, which failed with a
+     * conflict, or the failed updates otherwise.
+     */
+    private List<Entry<Feature, Feature, Feature>> getConflicts() {
+      if (getEvent().getConflictDetection() != Boolean.TRUE) {
+        return Collections.emptyList();
+      }
+      final XyzResponse response = getResponse();
+      if (response instanceof ErrorResponse) {
+        return XyzError.CONFLICT.equals(((ErrorResponse) response).getError()) ? modifyOp.entries : Collections.emptyList();
+      }
+      if (!(response instanceof FeatureCollection) || ((FeatureCollection) response).getFailed() == null) {
+        return Collections.emptyList();
+      }
+
+      final Set<String> failedIds = new HashSet<>();
+      for (ModificationFailure failure : ((FeatureCollection) response).getFailed()) {
+        failedIds.add(failure.getId());
+      }
+      final List<Entry<Feature, Feature, Feature>> conflicts = new ArrayList<>();
+      for (Entry<Feature, Feature, Feature> entry : modifyOp.entries) {
+        if (entry.head != null && entry.result != null && failedIds.contains(entry.input.getId())) {
+          conflicts.add(entry);
+        }
+      }
+      return conflicts;
+    }
+
+    /**
+     * Merges the response of the retried modifications into the response, which rejected them. If the whole transaction was retried, its
+     * response is kept as it is.
+     */
+    private void mergeResponse(XyzResponse rejectedResponse, List<Entry<Feature, Feature, Feature>> conflicts)
+        throws JsonProcessingException {
+      if (!(rejectedResponse instanceof FeatureCollection) || !(getResponse() instanceof FeatureCollection)) {
+        return;
+      }
+
+      final FeatureCollection merged = (FeatureCollection) rejectedResponse;
+      final FeatureCollection retried = (FeatureCollection) getResponse();
+      final Set<String> retriedIds = new HashSet<>();
+      for (Entry<Feature, Feature, Feature> entry : conflicts) {
+        retriedIds.add(entry.input.getId());
+      }
+      final List<ModificationFailure> failed = new ArrayList<>(merged.getFailed());
+      failed.removeIf(failure -> retriedIds.contains(failure.getId()));
+
+      merged.setFeatures(concat(merged.getFeatures(), retried.getFeatures()));
+      merged.setOldFeatures(concat(merged.getOldFeatures(), retried.getOldFeatures()));
+      merged.setInserted(concat(merged.getInserted(), retried.getInserted()));
+      merged.setUpdated(concat(merged.getUpdated(), retried.getUpdated()));
+      merged.setDeleted(concat(merged.getDeleted(), retried.getDeleted()));
+      merged.setFailed(concat(failed, retried.getFailed()));
+      setResponse(merged);
+    }
+
+    private static <E> List<E> concat(List<E> first, List<E> second) {
+      if (second == null || second.isEmpty()) {
+        return first;
+      }
+      if (first == null) {
+        return second;
+      }
+      final List<E> result = new ArrayList<>(first);
+      result.addAll(second);
+      return result;
+    }
+
+    /**
+     * Returns true, if the new head states returned by the storage are cached. If processors are registered for the space, the response
+     * may not reflect the stored state, so nothing is cached.
+     */
+    private boolean isHeadStateCachingRequired() {
+      return HeadStateCache.isEnabled(space, storage) && getResponse() instanceof FeatureCollection
+          && (space.getProcessors() == null || space.getProcessors().isEmpty());
+    }
+
+    /**
+     * Caches the new head states returned by the storage. As the response gets parsed and each head state is copied, this is done in the
+     * task worker pool.
+     */
+    private void cacheHeadStates(ConditionalOperation task, Callback<ConditionalOperation> callback) throws JsonProcessingException {
+      if (isHeadStateCachingRequired()) {
+        final List<Feature> features = ((FeatureCollection) task.getResponse()).getFeatures();
+        if (features != null) {
+          for (final Feature feature : features) {
+            HeadStateCache.put(space.getId(), feature);
+          }
+        }
+      }
+      callback.call(task);
+    }
+
     int getPositionForId(Object id) {
       if (id == null) {
         return -1;
       }
 
+      initPositions();
+      return positionById.get(id) == null ? -1 : positionById.get(id);
+    }
+
+    private void initPositions() {
       if (positionById == null) {
         positionById = new HashMap<>();
         for (int i = 0; i < modifyOp.entries.size(); i++) {
@@ -647,8 +878,6 @@ public abstract class FeatureTask<T extends Event, X extends FeatureTask<T, ?>>
           }
         }
       }
-
-      return positionById.get(id) == null ? -1 : positionById.get(id);
     }
   }
 }
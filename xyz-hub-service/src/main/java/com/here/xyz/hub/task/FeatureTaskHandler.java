@@ -38,6 +38,7 @@ import com.here.xyz.hub.Service;
 import com.here.xyz.hub.connectors.RpcClient;
 import com.here.xyz.hub.connectors.models.BinaryResponse;
 import com.here.xyz.hub.connectors.models.Connector;
+import com.here.xyz.hub.connectors.models.RawJsonResponse;
 import com.here.xyz.hub.connectors.models.Space;
 import com.here.xyz.hub.connectors.models.Space.CacheProfile;
 import com.here.xyz.hub.connectors.models.Space.ConnectorType;
@@ -71,18 +72,25 @@ import com.here.xyz.responses.StatisticsResponse;
 import com.here.xyz.responses.StatisticsResponse.PropertiesStatistics.Searchable;
 import com.here.xyz.responses.XyzResponse;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.buffer.Buffer;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import net.jodah.expiringmap.ExpirationPolicy;
 import net.jodah.expiringmap.ExpiringMap;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -96,8 +104,27 @@ public class FeatureTaskHandler implements Logging {
       .variableExpiration()
       .expirationPolicy(ExpirationPolicy.CREATED)
       .build();
+
+  /**
+   * The number of parsed features, from which on a response is serialized in the task worker pool.
+   */
+  private static final int SERIALIZATION_OFFLOAD_FEATURES = 1000;
+
+  /**
+   * The length of the unparsed features JSON, from which on a response is serialized in the task worker pool.
+   */
+  private static final int SERIALIZATION_OFFLOAD_LENGTH = 1024 * 1024;
+
   private static final byte JSON_VALUE = 1;
   private static final byte BINARY_VALUE = 2;
+  private static final byte ETAG_JSON_VALUE = 3;
+  private static final byte ETAG_BINARY_VALUE = 4;
+
+  /**
+   * The storage calls of read queries, which are currently in flight. Tasks, which request the same data while such a call is in flight,
+   * receive a copy of its response instead of calling the storage again.
+   */
+  private static final CoalescedCalls inFlightCalls = new CoalescedCalls();
 
   /**
    * Sends the event to the connector client and write the response as the responseCollection of the task.
@@ -144,8 +171,9 @@ public class FeatureTaskHandler implements Logging {
       //Do the actual storage call
       setAdditionalEventProps(task, task.storage, eventToExecute);
 
+      final boolean acceptRaw = acceptsRawResponse(task, eventType);
       try {
-        RpcClient.getInstanceFor(task.storage).execute(task.getMarker(), eventToExecute, storageResult -> {
+        RpcClient.getInstanceFor(task.storage).execute(task.getMarker(), eventToExecute, acceptRaw, storageResult -> {
           if (storageResult.failed()) {
             handleFailure(task.getMarker(), storageResult.cause(), callback);
             return;
@@ -187,33 +215,173 @@ public class FeatureTaskHandler implements Logging {
     });
   }
 
-  private static XyzResponse transform(byte[] value) throws JsonProcessingException {
+  /**
+   * Sends the event to the connector client like {@link #invoke(FeatureTask, Callback)}, but lets concurrent tasks, which request exactly
+   * the same data, share one storage call. This should be used only for read queries.
+   *
+   * @param task the FeatureTask instance
+   * @param callback the callback handler
+   * @param <T> the type of the FeatureTask
+   */
+  public static <T extends FeatureTask> void invokeCoalesced(T task, Callback<T> callback) {
+    final String cacheKey = task.getResponse() != null || task.skipCache ? null : task.getCacheKey();
+    if (cacheKey == null) {
+      invoke(task, callback);
+      return;
+    }
+
+    final String key = CoalescedCalls.key(task.getEvent(), cacheKey);
+    final Context context = Vertx.currentContext();
+    if (!inFlightCalls.join(key, (value, exception) -> runOnContext(context, v -> completeCoalesced(task, callback, value, exception)))) {
+      Logging.getLogger().info(task.getMarker(), "Waiting for the in-flight storage call with cache key {}", cacheKey);
+      return;
+    }
+
+    try {
+      invoke(task, new Callback<T>() {
+        @Override
+        public void exception(Exception e) {
+          inFlightCalls.complete(key, null, e);
+          callback.exception(e);
+        }
+
+        @Override
+        public void call(T value) {
+          if (!(value instanceof ReadQuery) || !isSerializationRequired(value.responseType, value.getResponse())
+              || !inFlightCalls.hasWaiting(key)) {
+            inFlightCalls.complete(key, () -> transform(value.getResponse()), null);
+            callback.call(value);
+            return;
+          }
+
+          //The response is serialized once for this task and all waiting tasks, large responses in the task worker pool
+          final Callback<T> serialized = new Callback<T>() {
+            @Override
+            public void exception(Exception e) {
+              inFlightCalls.complete(key, null, e);
+              callback.exception(e);
+            }
+
+            @Override
+            public void call(T serializedValue) {
+              inFlightCalls.complete(key, () -> transform(serializedValue.getResponse()), null);
+              callback.call(serializedValue);
+            }
+          };
+          if (isSerializationOffloadRequired((FeatureCollection) value.getResponse())) {
+            TaskWorkerPool.execute(value, (t, c) -> {
+              t.setResponse(serialize((FeatureCollection) t.getResponse()));
+              c.call(t);
+            }, serialized);
+            return;
+          }
+          try {
+            value.setResponse(serialize((FeatureCollection) value.getResponse()));
+          } catch (JsonProcessingException e) {
+            serialized.exception(e);
+            return;
+          }
+          serialized.call(value);
+        }
+      });
+    } catch (Exception e) {
+      inFlightCalls.complete(key, null, e);
+      throw e;
+    }
+  }
+
+  private static <T extends FeatureTask> void completeCoalesced(T task, Callback<T> callback, byte[] value, Exception exception) {
+    if (exception != null) {
+      callback.exception(exception);
+      return;
+    }
+    try {
+      if (value != null) {
+        task.setResponse(transform(value, task.responseType));
+        //The response will be written to the cache by the task which executed the storage call
+        task.setCacheHit(true);
+      }
+      callback.call(task);
+    } catch (JsonProcessingException e) {
+      invoke(task, callback);
+    }
+  }
+
+  private static void runOnContext(Context context, Handler<Void> action) {
+    if (context != null) {
+      context.runOnContext(action);
+    } else {
+      action.handle(null);
+    }
+  }
+
+  /**
+   * Reads a cache entry. JSON values, which are sent to the client as they are, are not parsed, but returned as {@link RawJsonResponse}.
+   *
+   * @param value the cache entry
+   * @param responseType the response type of the task, which will get the response
+   * @return the response
+   */
+  private static XyzResponse transform(byte[] value, ApiResponseType responseType) throws JsonProcessingException {
     byte type = value[0];
-    byte[] byteValue = Buffer.buffer(value).getBytes(1, value.length);
     switch (type) {
       case JSON_VALUE: {
-        return XyzSerializable.deserialize(new String(byteValue));
+        return XyzSerializable.deserialize(new String(value, 1, value.length - 1));
       }
       case BINARY_VALUE: {
-        return new BinaryResponse().withBytes(byteValue);
+        return new BinaryResponse().withBytes(Arrays.copyOfRange(value, 1, value.length));
+      }
+      case ETAG_JSON_VALUE:
+      case ETAG_BINARY_VALUE: {
+        final int etagLength = value[1] & 0xFF;
+        final String etag = etagLength == 0 ? null : new String(value, 2, etagLength, StandardCharsets.UTF_8);
+        final int offset = 2 + etagLength;
+        if (type == ETAG_BINARY_VALUE) {
+          return new BinaryResponse().withBytes(Arrays.copyOfRange(value, offset, value.length)).withEtag(etag);
+        }
+        if (responseType == ApiResponseType.FEATURE_COLLECTION) {
+          return new RawJsonResponse().withBytes(Arrays.copyOfRange(value, offset, value.length)).withEtag(etag);
+        }
+        return XyzSerializable.deserialize(new String(value, offset, value.length - offset, StandardCharsets.UTF_8));
       }
     }
     return null;
   }
 
+  /**
+   * Creates a cache entry, which consists of the type, the length of the e-tag, the e-tag and the payload.
+   *
+   * @param value the response
+   * @return the cache entry
+   */
   private static byte[] transform(XyzResponse value) {
-    byte[] byteValue;
-    byte[] type = new byte[1];
+    final byte type;
+    final byte[] payload;
     if (value instanceof BinaryResponse) {
-      byteValue = ((BinaryResponse) value).getBytes();
-      type[0] = BINARY_VALUE;
+      type = ETAG_BINARY_VALUE;
+      payload = ((BinaryResponse) value).getBytes();
+    } else if (value instanceof RawJsonResponse) {
+      type = ETAG_JSON_VALUE;
+      payload = ((RawJsonResponse) value).getBytes();
+    } else {
+      type = ETAG_JSON_VALUE;
+      try {
+        payload = XyzSerializable.DEFAULT_MAPPER.get().writeValueAsBytes(value);
+      } catch (JsonProcessingException e) {
+        throw new RuntimeException(e);
+      }
     }
-    else {
-      byteValue = value.serialize().getBytes();
-      type[0] = JSON_VALUE;
+
+    byte[] etag = value.getEtag() == null ? new byte[0] : value.getEtag().getBytes(StandardCharsets.UTF_8);
+    if (etag.length > 255) {
+      etag = new byte[0];
     }
-    Buffer b = Buffer.buffer(type).appendBytes(byteValue);
-    return b.getBytes();
+    final byte[] entry = new byte[2 + etag.length + payload.length];
+    entry[0] = type;
+    entry[1] = (byte) etag.length;
+    System.arraycopy(etag, 0, entry, 2, etag.length);
+    System.arraycopy(payload, 0, entry, 2 + etag.length, payload.length);
+    return entry;
   }
 
   public static <T extends FeatureTask> void readCache(T task, Callback<T> callback) {
@@ -232,7 +400,7 @@ public class FeatureTaskHandler implements Logging {
           task.setCacheHit(true);
           logger.info(task.getMarker(), "Cache HIT for cache key {}", cacheKey);
           try {
-            task.setResponse(transform(cacheResult));
+            task.setResponse(transform(cacheResult, task.responseType));
           } catch (JsonProcessingException e) {
             //Actually, this should never happen as we're controlling how the data is written to the cache, but you never know ;-)
             //Treating an error as a Cache MISS
@@ -295,6 +463,21 @@ public class FeatureTaskHandler implements Logging {
     }
   }
 
+  /**
+   * Returns true, if the feature collection returned by the storage is sent to the client as it is. That's the case for read queries,
+   * when no response processors or listeners are registered, which need the parsed response.
+   */
+  private static <T extends FeatureTask> boolean acceptsRawResponse(T task, String eventType) {
+    return task instanceof FeatureTask.ReadQuery && task.responseType == ApiResponseType.FEATURE_COLLECTION
+        && !hasConnectors(task, ConnectorType.PROCESSOR, eventType + ".response")
+        && !hasConnectors(task, ConnectorType.LISTENER, eventType + ".response");
+  }
+
+  private static <T extends FeatureTask> boolean hasConnectors(T task, ConnectorType connectorType, String notificationEventType) {
+    Map<String, List<ResolvableListenerConnectorRef>> connectorMap = task.space.getEventTypeConnectorRefsMap(connectorType);
+    return connectorMap != null && connectorMap.containsKey(notificationEventType);
+  }
+
   private static <T extends FeatureTask> void handleFailure(Marker marker, Throwable cause, Callback<T> callback) {
     if (cause instanceof Exception) {
       callback.exception((Exception) cause);
@@ -652,48 +835,78 @@ public class FeatureTaskHandler implements Logging {
   static void processConditionalOp(ConditionalOperation task, Callback<ConditionalOperation> callback) throws Exception {
     try {
       task.modifyOp.process();
+      setModifications(task, entry -> true);
+      callback.call(task);
+    } catch (ModifyOpError e) {
+      Logging.getLogger().info(task.getMarker(), "ConditionalOperationError: {}", e.getMessage(), e);
+      throw new HttpException(CONFLICT, e.getMessage());
+    }
+  }
 
-      final List<Feature> insert = new ArrayList<>();
-      final List<Feature> update = new ArrayList<>();
-      final Map<String, String> delete = new HashMap<>();
+  /**
+   * Processes the given entries of the conditional operation again and sets only their modifications at the event.
+   */
+  static void reprocessConditionalOp(ConditionalOperation task, List<Entry<Feature, Feature, Feature>> entries) throws Exception {
+    try {
+      task.modifyOp.process(entries);
+      final Set<Entry<Feature, Feature, Feature>> reprocessed = Collections.newSetFromMap(new IdentityHashMap<>());
+      reprocessed.addAll(entries);
+      setModifications(task, reprocessed::contains);
+    } catch (ModifyOpError e) {
+      Logging.getLogger().info(task.getMarker(), "ConditionalOperationError: {}", e.getMessage(), e);
+      throw new HttpException(CONFLICT, e.getMessage());
+    }
+  }
 
-      for (int i = 0; i < task.modifyOp.entries.size(); i++) {
-        final Entry<Feature, Feature, Feature> entry = task.modifyOp.entries.get(i);
-        if (entry.result != null) {
-          final Properties properties = entry.result.getProperties();
-          XyzNamespace nsXyz = properties.getXyzNamespace() != null ? properties.getXyzNamespace() : new XyzNamespace();
-          properties.setXyzNamespace(nsXyz.withInputPosition((long) i));
-        }
+  /**
+   * Sets the inserts, updates and deletes resulting from the processed entries, which match the filter, at the event.
+   */
+  private static void setModifications(ConditionalOperation task, Predicate<Entry<Feature, Feature, Feature>> filter) {
+    final List<Feature> insert = new ArrayList<>();
+    final List<Feature> update = new ArrayList<>();
+    final Map<String, String> delete = new HashMap<>();
+
+    for (int i = 0; i < task.modifyOp.entries.size(); i++) {
+      final Entry<Feature, Feature, Feature> entry = task.modifyOp.entries.get(i);
+      if (!filter.test(entry)) {
+        continue;
+      }
+      if (entry.result != null) {
+        final Properties properties = entry.result.getProperties();
+        XyzNamespace nsXyz = properties.getXyzNamespace() != null ? properties.getXyzNamespace() : new XyzNamespace();
+        properties.setXyzNamespace(nsXyz.withInputPosition((long) i));
+      }
 
-        // INSERT
-        if (entry.head == null && entry.result != null) {
-          insert.add(entry.result);
-        }
-        // DELETE
-        else if (entry.head != null && entry.result == null) {
-          final String id = entry.head.getId();
-          String uuid = null;
-          final XyzNamespace nsXyz = entry.input.getProperties().getXyzNamespace();
-          if (nsXyz != null) {
-            uuid = nsXyz.getUuid();
-          }
-          delete.put(id, uuid);
-        }
-        // UPDATE
-        else if (entry.head != null) {
-          update.add(entry.result);
+      // INSERT
+      if (entry.head == null && entry.result != null) {
+        insert.add(entry.result);
+      }
+      // DELETE
+      else if (entry.head != null && entry.result == null) {
+        final String id = entry.head.getId();
+        String uuid = null;
+        final XyzNamespace nsXyz = entry.input.getProperties().getXyzNamespace();
+        if (nsXyz != null) {
+          uuid = nsXyz.getUuid();
         }
+        delete.put(id, uuid);
       }
+      // UPDATE
+      else if (entry.head != null) {
+        update.add(entry.result);
+      }
+    }
 
-      task.getEvent().setInsertFeatures(insert);
-      task.getEvent().setUpdateFeatures(update);
-      task.getEvent().setDeleteFeatures(delete);
+    task.getEvent().setInsertFeatures(insert);
+    task.getEvent().setUpdateFeatures(update);
+    task.getEvent().setDeleteFeatures(delete);
+  }
 
-      callback.call(task);
-    } catch (ModifyOpError e) {
-      Logging.getLogger().info(task.getMarker(), "ConditionalOperationError: {}", e.getMessage(), e);
-      throw new HttpException(CONFLICT, e.getMessage());
-    }
+  /**
+   * Returns true, if the modify operation is processed in parallel, so that it must be processed in the task worker pool.
+   */
+  static boolean isParallelProcessingRequired(ConditionalOperation task) {
+    return task.modifyOp.isParallel();
   }
 
   static void updateTags(FeatureTask.ConditionalOperation task, Callback<FeatureTask.ConditionalOperation> callback) {
@@ -800,10 +1013,23 @@ public class FeatureTaskHandler implements Logging {
     }
   }
 
+  /**
+   * Returns true, if the response of the tile query needs to be transformed into a vector tile or serialized.
+   */
+  static boolean isTransformationRequired(TileQuery task) {
+    return isMvtTransformationRequired(task) || isSerializationOffloadRequired(task);
+  }
+
+  private static boolean isMvtTransformationRequired(TileQuery task) {
+    return (ApiResponseType.MVT == task.responseType || ApiResponseType.MVT_FLATTENED == task.responseType)
+        && task.getResponse() instanceof FeatureCollection
+        && (task.getEvent().getIfNoneMatch() == null || !task.getEvent().getIfNoneMatch().equals(task.getResponse().getEtag()));
+  }
+
   static void transformResponse(TileQuery task, Callback<TileQuery> callback) {
     if ((ApiResponseType.MVT != task.responseType && ApiResponseType.MVT_FLATTENED != task.responseType)
         || !(task.getResponse() instanceof FeatureCollection)) {
-      callback.call(task);
+      serializeResponse(task, callback);
       return;
     }
 
@@ -855,6 +1081,55 @@ public class FeatureTaskHandler implements Logging {
     callback.call(task);
   }
 
+  /**
+   * Returns true, if the response of the task is a feature collection, which needs to be serialized to be sent to the client.
+   */
+  static <X extends FeatureTask<?, X>> boolean isSerializationRequired(X task) {
+    return isSerializationRequired(task.responseType, task.getResponse());
+  }
+
+  private static boolean isSerializationRequired(ApiResponseType responseType, XyzResponse response) {
+    return ApiResponseType.FEATURE_COLLECTION == responseType && response instanceof FeatureCollection;
+  }
+
+  /**
+   * Returns true, if the response of the task needs to be serialized and is large enough to serialize it in the task worker pool. Smaller
+   * responses are serialized directly.
+   */
+  static <X extends FeatureTask<?, X>> boolean isSerializationOffloadRequired(X task) {
+    return isSerializationRequired(task) && isSerializationOffloadRequired((FeatureCollection) task.getResponse());
+  }
+
+  private static boolean isSerializationOffloadRequired(FeatureCollection response) {
+    final int rawLength = response.getRawFeaturesLength();
+    if (rawLength >= 0) {
+      return rawLength >= SERIALIZATION_OFFLOAD_LENGTH;
+    }
+    try {
+      final List<Feature> features = response.getFeatures();
+      return features != null && features.size() >= SERIALIZATION_OFFLOAD_FEATURES;
+    } catch (JsonProcessingException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Serializes a feature collection response into a {@link RawJsonResponse}, which is sent to the client and written to the cache as it
+   * is.
+   */
+  static <X extends FeatureTask<?, X>> void serializeResponse(X task, Callback<X> callback) throws JsonProcessingException {
+    if (isSerializationRequired(task)) {
+      task.setResponse(serialize((FeatureCollection) task.getResponse()));
+    }
+    callback.call(task);
+  }
+
+  private static RawJsonResponse serialize(FeatureCollection response) throws JsonProcessingException {
+    return new RawJsonResponse()
+        .withBytes(XyzSerializable.DEFAULT_MAPPER.get().writeValueAsBytes(response))
+        .withEtag(response.getEtag());
+  }
+
   static <X extends FeatureTask<?, X>> void convertResponse(X task, Callback<X> callback) throws JsonProcessingException {
     if (task instanceof FeatureTask.GetStatistics) {
       if (task.getResponse() instanceof StatisticsResponse) {
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.connectors.models.Connector;
+import com.here.xyz.hub.connectors.models.Space;
+import com.here.xyz.hub.rest.admin.AdminMessage;
+import com.here.xyz.models.geojson.implementation.Feature;
+import java.util.concurrent.TimeUnit;
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+
+/**
+ * A short-lived cache of the head states of features, which were recently loaded or written. Conditional operations use it to skip
+ * loading the head state from the storage, when the client modifies the state, which is still the cached head. The cache is disabled by
+ * default and enabled by setting FEATURE_HEAD_STATE_CACHE_TTL.
+ *
+ * A cached head state may be outdated, e.g. if the feature was modified through another node right before. Therefore the cache is only
+ * used for spaces with uuids, which are stored by a connector supporting the conflict detection. The connector then rejects an update,
+ * which is based on an outdated head state, instead of overwriting the newer state, and the operation is processed again with the head
+ * states loaded from the storage. Each modification of a space invalidates the cached head states of the space on all nodes, so that such
+ * conflicts are rare.
+ */
+class HeadStateCache {
+
+  private static final long TTL = Service.configuration != null ? Service.configuration.FEATURE_HEAD_STATE_CACHE_TTL : 0;
+
+  private static final ExpiringMap<String, Feature> cache = ExpiringMap.builder()
+      .maxSize(16 * 1024)
+      .expirationPolicy(ExpirationPolicy.CREATED)
+      .expiration(Math.max(1, TTL), TimeUnit.SECONDS)
+      .build();
+
+  /**
+   * A generation counter per space, which is part of the keys. Incrementing it invalidates all entries of the space at once.
+   *
+   * A counter expires, when it wasn't used for twice the TTL of the entries. Then all entries of its generations are expired already, so
+   * that the generation of the space can start from the beginning again.
+   */
+  private static final ExpiringMap<String, Long> generations = ExpiringMap.builder()
+      .expirationPolicy(ExpirationPolicy.ACCESSED)
+      .expiration(2 * Math.max(1, TTL), TimeUnit.SECONDS)
+      .build();
+
+  /**
+   * Returns true, if head states of the space may be taken from the cache.
+   */
+  static boolean isEnabled(Space space, Connector storage) {
+    return TTL > 0 && space.isEnableUUID() && storage.capabilities.conflictDetection;
+  }
+
+  /**
+   * Returns a copy of the cached head state of the feature, if the head state has the given uuid.
+   *
+   * @param spaceId the space ID.
+   * @param id the feature ID.
+   * @param uuid the uuid of the state, which the client has modified.
+   * @return a copy of the head state or null, if no head state with that uuid is cached.
+   */
+  static Feature get(String spaceId, String id, String uuid) {
+    if (id == null || uuid == null) {
+      return null;
+    }
+    final Feature head = cache.get(key(spaceId, id));
+    if (head == null || !uuid.equals(uuidOf(head))) {
+      return null;
+    }
+    return head.copy();
+  }
+
+  /**
+   * Caches a copy of the given head state of a feature.
+   */
+  static void put(String spaceId, Feature head) {
+    if (head == null || head.getId() == null || uuidOf(head) == null) {
+      return;
+    }
+    cache.put(key(spaceId, head.getId()), head.copy());
+  }
+
+  /**
+   * Removes the head states of all features of a space on this node and on all other nodes.
+   */
+  static void invalidate(String spaceId) {
+    removeAll(spaceId);
+    new InvalidateHeadStatesMessage().withSpaceId(spaceId).broadcast();
+  }
+
+  private static void removeAll(String spaceId) {
+    generations.merge(spaceId, 1L, Long::sum);
+  }
+
+  private static String key(String spaceId, String id) {
+    return spaceId + ":" + generations.getOrDefault(spaceId, 0L) + ":" + id;
+  }
+
+  private static String uuidOf(Feature feature) {
+    if (feature.getProperties() == null || feature.getProperties().getXyzNamespace() == null) {
+      return null;
+    }
+    return feature.getProperties().getXyzNamespace().getUuid();
+  }
+
+  /**
+   * Removes the head states of all features of the space.
+   */
+  public static class InvalidateHeadStatesMessage extends AdminMessage {
+
+    private String spaceId;
+
+    public String getSpaceId() {
+      return spaceId;
+    }
+
+    public void setSpaceId(String spaceId) {
+      this.spaceId = spaceId;
+    }
+
+    public InvalidateHeadStatesMessage withSpaceId(String spaceId) {
+      this.spaceId = spaceId;
+      return this;
+    }
+
+    @Override
+    protected void handle() {
+      removeAll(spaceId);
+    }
+  }
+}
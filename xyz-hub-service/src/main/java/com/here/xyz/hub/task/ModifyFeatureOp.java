@@ -96,7 +96,6 @@ public class ModifyFeatureOp extends ModifyOp<Feature, Feature, Feature> {
     }
 
     // TODO: Move to Feature#equals()
-    Difference diff = Patcher.getDifference(Json.mapper.convertValue(state1, Map.class), Json.mapper.convertValue(state2, Map.class));
-    return diff == null;
+    return Patcher.isEqual(Json.mapper.convertValue(state1, Map.class), Json.mapper.convertValue(state2, Map.class));
   }
 }
@@ -19,9 +19,13 @@
 
 package com.here.xyz.hub.task;
 
+import com.here.xyz.hub.Service;
 import com.here.xyz.hub.rest.HttpException;
+import com.here.xyz.hub.util.ComputePool;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -34,6 +38,11 @@ import java.util.stream.Collectors;
  */
 public abstract class ModifyOp<INPUT, SOURCE, TARGET> {
 
+  /**
+   * The maximal number of entries, which are processed by one task of the compute pool.
+   */
+  private static final int CHUNK_SIZE = 256;
+
   public final List<Entry<INPUT, SOURCE, TARGET>> entries;
   public final IfExists ifExists;
   public final IfNotExists ifNotExists;
@@ -49,50 +58,75 @@ public abstract class ModifyOp<INPUT, SOURCE, TARGET> {
 
   /**
    * Applies the modifications provided by the input to the source state, both provided with the input, and produces the target state as
-   * output.
+   * output. Operations with at least MODIFY_OP_PARALLEL_BATCH_SIZE entries are processed in parallel.
    *
    * @throws ModifyOpError when a processing error occurs.
    */
   public void process() throws ModifyOpError, HttpException {
+    process(parallelBatchSize());
+  }
+
+  /**
+   * Returns true, if {@link #process()} processes the entries in parallel. In that case the calling thread is blocked until all entries
+   * are processed, so the operation should not be processed on an event loop.
+   */
+  public boolean isParallel() {
+    return isParallel(parallelBatchSize());
+  }
+
+  private boolean isParallel(int parallelBatchSize) {
+    return parallelBatchSize > 0 && entries.size() >= parallelBatchSize && entries.size() > CHUNK_SIZE;
+  }
+
+  private static int parallelBatchSize() {
+    return Service.configuration != null ? Service.configuration.MODIFY_OP_PARALLEL_BATCH_SIZE : 0;
+  }
+
+  /**
+   * Applies the modifications provided by the input to the source state, both provided with the input, and produces the target state as
+   * output.
+   *
+   * When the number of entries reaches the given batch size, the entries are split into chunks, which are processed in parallel. In that
+   * case the implementations of the abstract methods must be thread-safe. The outcome is the same as when processing all entries
+   * sequentially: If the processing of several entries fails with an error, which aborts the operation, the error of the entry with the
+   * lowest index is thrown. This includes unchecked exceptions.
+   *
+   * @param parallelBatchSize the minimal number of entries to process them in parallel; 0 to always process them sequentially.
+   * @throws ModifyOpError when a processing error occurs.
+   */
+  public void process(int parallelBatchSize) throws ModifyOpError, HttpException {
+    if (!isParallel(parallelBatchSize)) {
+      process(entries);
+      return;
+    }
+
+    final Exception[] errors = new Exception[entries.size()];
+    final AtomicInteger firstError = new AtomicInteger(Integer.MAX_VALUE);
+    ComputePool.invoke(new ProcessTask(errors, firstError, 0, entries.size()));
+
+    if (firstError.get() != Integer.MAX_VALUE) {
+      final Exception e = errors[firstError.get()];
+      if (e instanceof HttpException) {
+        throw (HttpException) e;
+      }
+      if (e instanceof RuntimeException) {
+        throw (RuntimeException) e;
+      }
+      throw (ModifyOpError) e;
+    }
+  }
+
+  /**
+   * Applies the modifications like {@link #process()}, but only for the given entries of this operation. The entries are processed
+   * sequentially.
+   *
+   * @param entries the entries to process.
+   * @throws ModifyOpError when a processing error occurs.
+   */
+  void process(List<Entry<INPUT, SOURCE, TARGET>> entries) throws ModifyOpError, HttpException {
     for (Entry<INPUT, SOURCE, TARGET> entry : entries) {
       try {
-        // IF NOT EXISTS
-        if (entry.head == null) {
-          switch (ifNotExists) {
-            case RETAIN:
-              entry.result = null;
-              break;
-            case CREATE:
-              entry.result = create(entry.input);
-              break;
-            case ERROR:
-              throw new ModifyOpError("The record does not exist.");
-          }
-        }
-        // IF EXISTS
-        else {
-          switch (ifExists) {
-            case RETAIN:
-              entry.result = transform(entry.head);
-              break;
-            case MERGE:
-              entry.result = merge(entry.head, entry.base, entry.input);
-              break;
-            case PATCH:
-              entry.result = patch(entry.head, entry.base, entry.input);
-              break;
-            case REPLACE:
-              entry.result = replace(entry.head, entry.input);
-              break;
-            case DELETE:
-              entry.result = null;
-              break;
-            case ERROR:
-              throw new ModifyOpError("The record exists.");
-          }
-        }
-
-        entry.isModified = !equalStates(entry.head, entry.result);
+        process(entry);
       } catch (ModifyOpError e) {
         if (isTransactional) {
           throw e;
@@ -103,6 +137,96 @@ public abstract class ModifyOp<INPUT, SOURCE, TARGET> {
     }
   }
 
+  private void process(Entry<INPUT, SOURCE, TARGET> entry) throws ModifyOpError, HttpException {
+    // IF NOT EXISTS
+    if (entry.head == null) {
+      switch (ifNotExists) {
+        case RETAIN:
+          entry.result = null;
+          break;
+        case CREATE:
+          entry.result = create(entry.input);
+          break;
+        case ERROR:
+          throw new ModifyOpError("The record does not exist.");
+      }
+    }
+    // IF EXISTS
+    else {
+      switch (ifExists) {
+        case RETAIN:
+          entry.result = transform(entry.head);
+          break;
+        case MERGE:
+          entry.result = merge(entry.head, entry.base, entry.input);
+          break;
+        case PATCH:
+          entry.result = patch(entry.head, entry.base, entry.input);
+          break;
+        case REPLACE:
+          entry.result = replace(entry.head, entry.input);
+          break;
+        case DELETE:
+          entry.result = null;
+          break;
+        case ERROR:
+          throw new ModifyOpError("The record exists.");
+      }
+    }
+
+    entry.isModified = !equalStates(entry.head, entry.result);
+  }
+
+  /**
+   * Processes the entries in the range [from, to). Errors, which abort the whole operation, are collected by the index of the entry. Once
+   * such an error occurred, entries with a higher index are skipped, because their results are not used anymore.
+   */
+  private class ProcessTask extends RecursiveAction {
+
+    private final Exception[] errors;
+    private final AtomicInteger firstError;
+    private final int from;
+    private final int to;
+
+    ProcessTask(Exception[] errors, AtomicInteger firstError, int from, int to) {
+      this.errors = errors;
+      this.firstError = firstError;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > CHUNK_SIZE) {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new ProcessTask(errors, firstError, from, middle), new ProcessTask(errors, firstError, middle, to));
+        return;
+      }
+
+      for (int i = from; i < to && i < firstError.get(); i++) {
+        final Entry<INPUT, SOURCE, TARGET> entry = entries.get(i);
+        try {
+          process(entry);
+        } catch (ModifyOpError e) {
+          if (!isTransactional) {
+            entry.exception = e;
+            continue;
+          }
+          fail(i, e);
+          return;
+        } catch (HttpException | RuntimeException e) {
+          fail(i, e);
+          return;
+        }
+      }
+    }
+
+    private void fail(int index, Exception e) {
+      errors[index] = e;
+      firstError.accumulateAndGet(index, Math::min);
+    }
+  }
+
   public abstract TARGET patch(SOURCE headState, SOURCE editedState, INPUT inputState) throws ModifyOpError, HttpException;
 
   public abstract TARGET merge(SOURCE headState, SOURCE editedState, INPUT inputState) throws ModifyOpError, HttpException;
@@ -104,7 +104,6 @@ public class ModifySpaceOp extends ModifyOp<JsonObject, Space, Space> {
       return false;
     }
 
-    Difference diff = Patcher.getDifference(Json.mapper.convertValue(state1, Map.class), Json.mapper.convertValue(state2, Map.class));
-    return diff == null;
+    return Patcher.isEqual(Json.mapper.convertValue(state1, Map.class), Json.mapper.convertValue(state2, Map.class));
   }
 }
@@ -20,6 +20,7 @@
 package com.here.xyz.hub.task;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 /**
  * A pipeline with functions to process a a task.
@@ -83,6 +84,34 @@ public class TaskPipeline<V> {
     return next;
   }
 
+  /**
+   * Invokes the method like {@link #then(C2)}, but in the {@link TaskWorkerPool}, if the given condition is true for the chain value. This
+   * should be used for CPU heavy methods, which would otherwise block the thread of the calling context. If the condition is false, the
+   * method is invoked directly.
+   *
+   * @param nextFunction the method to be invoked.
+   * @param condition the condition, which decides whether the method needs to be executed in the worker pool.
+   * @return the next stage.
+   * @throws NullPointerException if the given method or condition is null.
+   * @throws IllegalStateException if this chain stage has already been initialized.
+   */
+  public TaskPipeline<V> thenBlocking(C2<V, Callback<V>> nextFunction, Predicate<V> condition)
+      throws NullPointerException, IllegalStateException {
+    if (nextFunction == null) {
+      throw new NullPointerException("nextFunction");
+    }
+    if (condition == null) {
+      throw new NullPointerException("condition");
+    }
+    return then((task, callback) -> {
+      if (condition.test(task)) {
+        TaskWorkerPool.execute(task, nextFunction, callback);
+      } else {
+        nextFunction.call(task, callback);
+      }
+    });
+  }
+
   /**
    * Registers a finishing state that will have the on-success method being invoked when the chain did not produce any exception. If the
    * chain produced an exception or the success handler produced an exception, then the provided exception handler is invoked.
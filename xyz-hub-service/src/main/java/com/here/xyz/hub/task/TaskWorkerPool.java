@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.task;
+
+import static io.netty.handler.codec.http.HttpResponseStatus.SERVICE_UNAVAILABLE;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.rest.HttpException;
+import com.here.xyz.hub.task.TaskPipeline.C2;
+import com.here.xyz.hub.task.TaskPipeline.Callback;
+import io.vertx.core.WorkerExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded pool of worker threads for CPU heavy pipeline steps, like the creation of vector tiles or the serialization of large
+ * responses. Executing such steps in this pool decouples the latency of light requests from the heavy ones. The number of waiting steps is
+ * limited; when the limit is reached, further steps are rejected.
+ */
+public class TaskWorkerPool {
+
+  private static final String POOL_NAME = "xyz-hub-task-worker";
+  private static final int POOL_SIZE = Service.configuration != null && Service.configuration.TASK_WORKER_POOL_SIZE > 0
+      ? Service.configuration.TASK_WORKER_POOL_SIZE : Runtime.getRuntime().availableProcessors();
+  private static final int MAX_QUEUE_SIZE = Service.configuration != null && Service.configuration.TASK_WORKER_MAX_QUEUE_SIZE > 0
+      ? Service.configuration.TASK_WORKER_MAX_QUEUE_SIZE : 1024;
+
+  private static volatile WorkerExecutor executor;
+
+  private static final AtomicInteger queueSize = new AtomicInteger();
+  private static final LongAdder executed = new LongAdder();
+  private static final LongAdder rejected = new LongAdder();
+  private static final LongAdder started = new LongAdder();
+  private static final LongAdder totalQueueTime = new LongAdder();
+  private static final AtomicLong maxQueueTime = new AtomicLong();
+
+  /**
+   * Executes the function in the worker pool. The callback is invoked on the context of the caller.
+   *
+   * @param task the task to be processed.
+   * @param function the function to be executed.
+   * @param callback the callback of the pipeline.
+   */
+  static <V> void execute(final V task, final C2<V, Callback<V>> function, final Callback<V> callback) {
+    if (queueSize.incrementAndGet() > MAX_QUEUE_SIZE) {
+      queueSize.decrementAndGet();
+      rejected.increment();
+      callback.exception(new HttpException(SERVICE_UNAVAILABLE, "The service is too busy, please try again later."));
+      return;
+    }
+
+    final long enqueued = System.nanoTime();
+    boolean submitted = false;
+    try {
+      getExecutor().<V>executeBlocking(future -> {
+        queueSize.decrementAndGet();
+        recordQueueTime(System.nanoTime() - enqueued);
+        try {
+          function.call(task, new Callback<V>() {
+            @Override
+            public void exception(Exception e) {
+              future.tryFail(e);
+            }
+
+            @Override
+            public void call(V value) {
+              future.tryComplete(value);
+            }
+          });
+        } catch (Exception e) {
+          future.tryFail(e);
+        }
+      }, false, ar -> {
+        executed.increment();
+        if (ar.failed()) {
+          callback.exception(ar.cause() instanceof Exception ? (Exception) ar.cause() : new Exception(ar.cause()));
+        } else {
+          callback.call(ar.result());
+        }
+      });
+      submitted = true;
+    } finally {
+      if (!submitted) {
+        queueSize.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Returns the worker executor. It's created lazily, as Vert.x may not be available, when this class is loaded. Only the creation is
+   * synchronized, so that the frequent calls don't contend for a lock.
+   */
+  private static WorkerExecutor getExecutor() {
+    WorkerExecutor result = executor;
+    if (result == null) {
+      synchronized (TaskWorkerPool.class) {
+        result = executor;
+        if (result == null) {
+          executor = result = Service.vertx.createSharedWorkerExecutor(POOL_NAME, POOL_SIZE);
+        }
+      }
+    }
+    return result;
+  }
+
+  private static void recordQueueTime(long nanos) {
+    started.increment();
+    totalQueueTime.add(nanos);
+    long max = maxQueueTime.get();
+    while (nanos > max && !maxQueueTime.compareAndSet(max, nanos)) {
+      max = maxQueueTime.get();
+    }
+  }
+
+  public static int getPoolSize() {
+    return POOL_SIZE;
+  }
+
+  public static int getMaxQueueSize() {
+    return MAX_QUEUE_SIZE;
+  }
+
+  public static int getQueueSize() {
+    return queueSize.get();
+  }
+
+  public static long getExecuted() {
+    return executed.sum();
+  }
+
+  public static long getRejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * Returns the average time in milliseconds, which the executed steps waited for a worker thread.
+   */
+  public static double getAverageQueueTime() {
+    final long count = started.sum();
+    return count == 0 ? 0d : (double) TimeUnit.NANOSECONDS.toMicros(totalQueueTime.sum()) / count / 1000d;
+  }
+
+  /**
+   * Returns the maximal time in milliseconds, which a step waited for a worker thread.
+   */
+  public static double getMaxQueueTime() {
+    return TimeUnit.NANOSECONDS.toMicros(maxQueueTime.get()) / 1000d;
+  }
+}
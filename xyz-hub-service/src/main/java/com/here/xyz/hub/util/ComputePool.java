@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.hub.util;
+
+import com.here.xyz.hub.Service;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The fork-join pool, which is shared by all CPU heavy computations that split their work into parallel chunks, like the processing of
+ * large modify operations or the encoding of large vector tiles. Sharing one bounded pool keeps the number of computing threads
+ * independent of the number of such computations.
+ *
+ * The callers are expected to run in the task worker pool and not on an event loop, because {@link #invoke(ForkJoinTask)} blocks until
+ * the computation is done.
+ */
+public class ComputePool {
+
+  private static final int POOL_SIZE = Service.configuration != null && Service.configuration.COMPUTE_POOL_SIZE > 0
+      ? Service.configuration.COMPUTE_POOL_SIZE : Runtime.getRuntime().availableProcessors();
+
+  private static final ForkJoinPool pool = new ForkJoinPool(POOL_SIZE);
+
+  /**
+   * Executes the given task in the pool and waits for its result.
+   */
+  public static <T> T invoke(ForkJoinTask<T> task) {
+    return pool.invoke(task);
+  }
+
+  public static int getPoolSize() {
+    return POOL_SIZE;
+  }
+}
@@ -26,17 +26,30 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.LongAdder;
 
 /**
- * A queue with limits on the number of elements and the their size.
+ * A queue with limits on the number of elements and the their size. Optionally the queue supports multiple priority levels for elements,
+ * which implement {@link Prioritized}. Elements with a higher priority are removed first, elements with the lowest priority are discarded
+ * first. Within the same priority level the queue is FIFO.
  */
 public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
 
     public LimitedQueue(long maxSize, long maxByteSize) {
+        this(maxSize, maxByteSize, 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LimitedQueue(long maxSize, long maxByteSize, int priorityLevels) {
+        if (priorityLevels < 1) throw new IllegalArgumentException("A queue needs at least one priority level.");
         this.maxSize = maxSize;
         this.maxByteSize = maxByteSize;
+        _queues = new ConcurrentLinkedQueue[priorityLevels];
+        for (int i = 0; i < priorityLevels; i++) {
+            _queues[i] = new ConcurrentLinkedQueue<>();
+        }
     }
 
-    private ConcurrentLinkedQueue<E> _queue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<E>[] _queues;
     private LongAdder byteSize = new LongAdder();
+    private LongAdder size = new LongAdder();
     private long maxByteSize;
     private long maxSize;
 
@@ -53,31 +66,52 @@ public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
 
         // Add the element and update the size
         byteSize.add(element.getByteSize());
-        _queue.add(element);
+        size.increment();
+        _queues[priorityLevel(element)].add(element);
 
         return discard();
     }
 
     /**
-     * Removes the head of the queue and returns it.
+     * Removes the head of the queue with the highest priority and returns it.
      *
      * @return The head of the queue or null if the queue is empty
      */
     public E remove() {
-        E removed = _queue.poll();
-        if (removed != null)
+        for (int i = 0; i < _queues.length; i++) {
+            E removed = poll(_queues[i]);
+            if (removed != null)
+                return removed;
+        }
+        return null;
+    }
+
+    private E poll(ConcurrentLinkedQueue<E> queue) {
+        E removed = queue.poll();
+        if (removed != null) {
             byteSize.add(-removed.getByteSize());
+            size.decrement();
+        }
         return removed;
     }
 
+    private int priorityLevel(E element) {
+        if (!(element instanceof Prioritized))
+            return 0;
+        return Math.max(0, Math.min(_queues.length - 1, ((Prioritized) element).getPriority()));
+    }
+
     private List<E> discard() {
         List<E> discardedElements = new ArrayList<>();
 
-        // Check if older elements need to be discarded to make space for the new one.
-        while (byteSize.longValue() > maxByteSize || _queue.size() > maxSize) {
-            E discarded = remove();
+        // Check if older elements of the lowest priority need to be discarded to make space for the new one.
+        int level = _queues.length - 1;
+        while ((byteSize.longValue() > maxByteSize || size.longValue() > maxSize) && level >= 0) {
+            E discarded = poll(_queues[level]);
             if (discarded != null)
                 discardedElements.add(discarded);
+            else
+                level--;
         }
 
         return discardedElements;
@@ -104,7 +138,7 @@ public class LimitedQueue<E extends ByteSizeAware> implements ByteSizeAware {
     }
 
     public long getSize() {
-        return _queue.size();
+        return size.longValue();
     }
 
     @Override
@@ -94,24 +94,10 @@ public class Patcher {
     }
 
     // if both objects are equal, there is no difference
-    if (sourceState.equals(targetState)) {
+    if (equalValues(sourceState, targetState)) {
       return null;
     }
 
-    // if source and target are numbers
-    if ((sourceState instanceof Number) && (targetState instanceof Number)) {
-      if ((sourceState instanceof Float) || (sourceState instanceof Double) || (targetState instanceof Float)
-          || (targetState instanceof Double)) {
-        if (((Number) sourceState).doubleValue() == ((Number) targetState).doubleValue()) {
-          return null;
-        }
-      }
-      // We are sure we do not have a floating point number, so compare the long values of the numbers.
-      else if ((((Number) sourceState).longValue() == ((Number) targetState).longValue())) {
-        return null;
-      }
-    }
-
     // otherwise the source state was updated to the target state
     return new Update(sourceState, targetState);
   }
@@ -127,39 +113,54 @@ public class Patcher {
    */
   private static DiffMap getMapDifference(final Map sourceState, final Map targetState, Map<Object, Object> ignoreKeys)
       throws NullPointerException {
-    final DiffMap diff = new DiffMap();
     if (ignoreKeys == null) {
       ignoreKeys = EMPTY_IGNORE_KEYS;
     }
+    final boolean ignore = ignoreKeys.size() > 0;
 
-    final Set keysA = sourceState.keySet();
-    final Set keysB = targetState.keySet();
+    // The difference is only created, when the first modification is found
+    DiffMap diff = null;
+    int sharedKeys = 0;
 
-    for (Object key : keysA) {
-      if (ignoreKeys.containsKey(key)) {
+    for (final Object o : sourceState.entrySet()) {
+      final Map.Entry entry = (Map.Entry) o;
+      final Object key = entry.getKey();
+      if (ignore && ignoreKeys.containsKey(key)) {
         continue;
       }
 
-      if (!targetState.containsKey(key)) {
-        diff.put(key, new Remove(sourceState.get(key)));
+      final Object targetValue = targetState.get(key);
+      if (targetValue == null && !targetState.containsKey(key)) {
+        if (diff == null) {
+          diff = new DiffMap();
+        }
+        diff.put(key, new Remove(entry.getValue()));
       } else {
-        Difference tDiff = getDifference(sourceState.get(key), targetState.get(key), ignoreKeys);
+        sharedKeys++;
+        Difference tDiff = getDifference(entry.getValue(), targetValue, ignoreKeys);
         if (tDiff != null) {
+          if (diff == null) {
+            diff = new DiffMap();
+          }
           diff.put(key, tDiff);
         }
       }
     }
 
-    for (Object key : keysB) {
-      if (ignoreKeys.containsKey(key) || sourceState.containsKey(key)) {
-        continue;
-      }
-
-      diff.put(key, new Insert(targetState.get(key)));
-    }
+    // If all keys of the target state were found in the source state, nothing was inserted
+    if (ignore || sharedKeys != targetState.size()) {
+      for (final Object o : targetState.entrySet()) {
+        final Map.Entry entry = (Map.Entry) o;
+        final Object key = entry.getKey();
+        if ((ignore && ignoreKeys.containsKey(key)) || sourceState.containsKey(key)) {
+          continue;
+        }
 
-    if (diff.size() == 0) {
-      return null;
+        if (diff == null) {
+          diff = new DiffMap();
+        }
+        diff.put(key, new Insert(entry.getValue()));
+      }
     }
 
     return diff;
@@ -180,42 +181,125 @@ public class Patcher {
         targetLength = targetList.size(),
         minLen = Math.min(sourceLength, targetLength),
         maxLen = Math.max(sourceLength, targetLength), i;
+
+    // Skip the unchanged head of the lists without creating a difference
+    Difference diff = null;
+    for (i = 0; i < minLen; i++) {
+      diff = getDifference(sourceList.get(i), targetList.get(i), ignoreKeys);
+      if (diff != null) {
+        break;
+      }
+    }
+
+    // If nothing changed, there is no difference.
+    if (i == minLen && sourceLength == targetLength) {
+      return null;
+    }
+
     final DiffList listDiff = new DiffList(maxLen);
     listDiff.originalLength = sourceLength;
     listDiff.newLength = targetLength;
-
-    boolean isModified = false;
+    for (int j = 0; j < i; j++) {
+      listDiff.add(null);
+    }
 
     // The items that we will find in both lists.
-    for (i = 0; i < minLen; i++) {
-      final Difference diff = getDifference(sourceList.get(i), targetList.get(i), ignoreKeys);
-      if (diff != null) {
-        isModified = true;
-      }
+    if (i < minLen) {
       listDiff.add(diff);
+      for (i++; i < minLen; i++) {
+        listDiff.add(getDifference(sourceList.get(i), targetList.get(i), ignoreKeys));
+      }
     }
 
     // If the source (original) list was longer than the target one.
     if (sourceLength > targetLength) {
-      isModified = true;
       for (; i < maxLen; i++) {
         listDiff.add(new Remove(sourceList.get(i)));
       }
     }
     // If the target (new) list is longer than the source (original) one.
     else if (targetLength > sourceLength) {
-      isModified = true;
       for (; i < maxLen; i++) {
         listDiff.add(new Insert(targetList.get(i)));
       }
     }
 
-    // If nothing changed, so we have an array full of null, there is no change.
-    if (!isModified) {
-      return null;
+    return listDiff;
+  }
+
+  /**
+   * Returns true, if both states are equal. Two states are equal, if {@link #getDifference(Object, Object)} would return null for them.
+   * Unlike calculating the difference, this method doesn't allocate any objects and stops at the first difference found.
+   *
+   * @param sourceState the source state.
+   * @param targetState the target state.
+   * @return true, if both states are equal; false otherwise.
+   */
+  public static boolean isEqual(final Object sourceState, final Object targetState) {
+    if (sourceState == targetState) {
+      return true;
     }
 
-    return listDiff;
+    if (sourceState == null || targetState == null) {
+      return false;
+    }
+
+    if (sourceState instanceof Map && targetState instanceof Map) {
+      final Map sourceMap = (Map) sourceState;
+      final Map targetMap = (Map) targetState;
+      if (sourceMap.size() != targetMap.size()) {
+        return false;
+      }
+      for (final Object o : sourceMap.entrySet()) {
+        final Map.Entry entry = (Map.Entry) o;
+        final Object targetValue = targetMap.get(entry.getKey());
+        if (targetValue == null && !targetMap.containsKey(entry.getKey())) {
+          return false;
+        }
+        if (!isEqual(entry.getValue(), targetValue)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    if (sourceState instanceof List && targetState instanceof List) {
+      final List sourceList = (List) sourceState;
+      final List targetList = (List) targetState;
+      final int size = sourceList.size();
+      if (size != targetList.size()) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (!isEqual(sourceList.get(i), targetList.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    return equalValues(sourceState, targetState);
+  }
+
+  /**
+   * Returns true, if the two primitive values are equal. Numbers are compared by their value, independent of their type.
+   */
+  private static boolean equalValues(final Object sourceState, final Object targetState) {
+    if (sourceState.equals(targetState)) {
+      return true;
+    }
+
+    // if source and target are numbers
+    if ((sourceState instanceof Number) && (targetState instanceof Number)) {
+      if ((sourceState instanceof Float) || (sourceState instanceof Double) || (targetState instanceof Float)
+          || (targetState instanceof Double)) {
+        return ((Number) sourceState).doubleValue() == ((Number) targetState).doubleValue();
+      }
+      // We are sure we do not have a floating point number, so compare the long values of the numbers.
+      return ((Number) sourceState).longValue() == ((Number) targetState).longValue();
+    }
+
+    return false;
   }
 
   /**
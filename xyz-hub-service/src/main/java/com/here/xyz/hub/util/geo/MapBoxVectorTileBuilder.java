@@ -19,17 +19,8 @@
 
 package com.here.xyz.hub.util.geo;
 
-
-import static com.here.xyz.hub.util.geo.GeoTools.WEB_MERCATOR_EPSG;
-import static com.here.xyz.hub.util.geo.GeoTools.WGS84_EPSG;
-
 import com.here.xyz.models.geojson.WebMercatorTile;
-import com.here.xyz.models.geojson.coordinates.BBox;
 import com.here.xyz.models.geojson.implementation.Feature;
-import com.here.xyz.models.geojson.implementation.Geometry;
-import com.vividsolutions.jts.geom.Envelope;
-import com.vividsolutions.jts.geom.GeometryFactory;
-import com.vividsolutions.jts.geom.PrecisionModel;
 import com.wdtinc.mapbox_vector_tile.VectorTile;
 import com.wdtinc.mapbox_vector_tile.VectorTile.Tile;
 import com.wdtinc.mapbox_vector_tile.adapt.jts.IGeometryFilter;
@@ -42,10 +33,6 @@ import com.wdtinc.mapbox_vector_tile.build.MvtLayerProps;
 import io.vertx.core.json.Json;
 import java.util.List;
 import java.util.Map;
-import org.geotools.geometry.jts.JTS;
-import org.opengis.geometry.MismatchedDimensionException;
-import org.opengis.referencing.operation.MathTransform;
-import org.opengis.referencing.operation.TransformException;
 
 /**
  * A helper class to build a pixel based MapBox Vector Tiles.
@@ -66,14 +53,10 @@ public class MapBoxVectorTileBuilder implements IUserDataConverter, IGeometryFil
    * Create a new tile with only one layer that contains the given features.
    */
   public byte[] build(WebMercatorTile wmTile, int margin, String layerName, List<Feature> featureList) throws Exception {
+    return build(wmTile, margin, layerName, featureList, MvtGeometryEncoder.CHUNK_SIZE);
+  }
 
-    final MathTransform mathTransform = GeoTools.mathTransform(WGS84_EPSG, WEB_MERCATOR_EPSG);
-    final GeometryFactory geomFactory = new GeometryFactory(new PrecisionModel());
-
-    BBox bbox = wmTile.getBBox(false);
-    Envelope tileEnvelope = new Envelope(wmTile.left, wmTile.right, wmTile.bottom, wmTile.top);
-    Envelope clipEnvelope = new Envelope(tileEnvelope);
-    clipEnvelope.expandBy(margin * wmTile.level);
+  byte[] build(WebMercatorTile wmTile, int margin, String layerName, List<Feature> featureList, int chunkSize) throws Exception {
 
     // Prepare a layer (we will for now only have one layer per tile).
     final MvtLayerParams layerParams = new MvtLayerParams();
@@ -81,43 +64,22 @@ public class MapBoxVectorTileBuilder implements IUserDataConverter, IGeometryFil
     final MvtLayerProps layerProperties = new MvtLayerProps();
     final VectorTile.Tile.Builder tileBuilder = VectorTile.Tile.newBuilder();
 
-    // Add all features with their geometry and properties.
+    // Add all features with their geometry and properties. The geometries are encoded in parallel, the properties are added in order.
     if (featureList != null) {
+      final MvtGeometryEncoder encoder = new MvtGeometryEncoder(wmTile, margin, layerParams, this, chunkSize);
+      final TileGeomResult[] tileGeoms = encoder.encode(featureList);
       for (int f = 0; f < featureList.size(); f++) {
-        final Feature feature = featureList.get(f);
-        if (feature == null) {
-          continue;
-        }
-
-        final Geometry featureGeometry = feature.getGeometry();
-        if (featureGeometry == null) {
-          continue;
-        }
-        final com.vividsolutions.jts.geom.Geometry wgs84Geometry = featureGeometry.getJTSGeometry();
-        if (wgs84Geometry == null) {
-          continue;
-        }
-
-        com.vividsolutions.jts.geom.Geometry targetGeometry;
-        try {
-          targetGeometry = JTS.transform(wgs84Geometry, mathTransform);
-        } catch (MismatchedDimensionException | TransformException e) {
-          onTransformException(e);
+        if (encoder.transformException(f) != null) {
+          onTransformException(encoder.transformException(f));
           continue;
         }
 
-        try {
-          targetGeometry = GeoTools.validate(targetGeometry);
-          if (targetGeometry == null) {
-            continue;
-          }
-        } catch (Exception e) {
+        final TileGeomResult tileGeom = tileGeoms[f];
+        if (tileGeom == null) {
           continue;
         }
 
-        final TileGeomResult tileGeom = JtsAdapter
-            .createTileGeom(JtsAdapter.flatFeatureList(targetGeometry), tileEnvelope, clipEnvelope, geomFactory, layerParams, this);
-        final List<Tile.Feature> features = JtsAdapter.toFeatures(tileGeom.mvtGeoms, layerProperties, process(feature));
+        final List<Tile.Feature> features = JtsAdapter.toFeatures(tileGeom.mvtGeoms, layerProperties, process(featureList.get(f)));
         for (int j = 0; j < features.size(); j++) {
           layerBuilder.addFeatures(features.get(j));
         }
@@ -143,9 +105,6 @@ public class MapBoxVectorTileBuilder implements IUserDataConverter, IGeometryFil
    * only this feature should be ignored, then this method can be overridden and the exception can be suppressed and e.g. logged.
    */
   protected void onTransformException(Exception e) throws Exception {
-    // logger.info(tileQuery.http, e, "{}: Unexpected exception while transforming geometry, skip feature with id '{}'",
-    // Marshaller.class,
-    // feature.id());
     throw e;
   }
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.geo;
+
+import com.here.xyz.hub.util.ComputePool;
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.PrecisionModel;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.IGeometryFilter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.JtsAdapter;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TileGeomResult;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * Encodes the geometries of features into the pixel space of a vector tile. Each geometry is projected to Web Mercator, validated and
+ * clipped to the tile. Large feature lists are split into chunks, which are encoded in parallel. The result keeps the order of the
+ * features, so that the tile is the same as if all features were encoded sequentially. Exceptions raised while projecting a geometry are
+ * not handled by the encoder, but are returned to the builder, so that it can handle them in the order of the features.
+ */
+class MvtGeometryEncoder {
+
+  /**
+   * The default maximal number of features, which are encoded by one task of the compute pool.
+   */
+  static final int CHUNK_SIZE = 1024;
+
+  private final int chunkSize;
+  private final Envelope tileEnvelope;
+  private final Envelope clipEnvelope;
+  private final GeometryFactory geomFactory = new GeometryFactory(new PrecisionModel());
+  private final MvtLayerParams layerParams;
+  private final IGeometryFilter filter;
+  private TransformException[] transformExceptions;
+
+  MvtGeometryEncoder(WebMercatorTile wmTile, int margin, MvtLayerParams layerParams, IGeometryFilter filter) {
+    this(wmTile, margin, layerParams, filter, CHUNK_SIZE);
+  }
+
+  MvtGeometryEncoder(WebMercatorTile wmTile, int margin, MvtLayerParams layerParams, IGeometryFilter filter, int chunkSize) {
+    this.chunkSize = chunkSize;
+    this.tileEnvelope = new Envelope(wmTile.left, wmTile.right, wmTile.bottom, wmTile.top);
+    this.clipEnvelope = new Envelope(tileEnvelope);
+    this.clipEnvelope.expandBy(margin * wmTile.level);
+    this.layerParams = layerParams;
+    this.filter = filter;
+  }
+
+  /**
+   * Encodes the geometries of all given features. The returned array has the same size as the feature list. It contains null for each
+   * feature, which has no valid geometry.
+   */
+  TileGeomResult[] encode(List<Feature> featureList) {
+    final TileGeomResult[] result = new TileGeomResult[featureList.size()];
+    transformExceptions = new TransformException[result.length];
+    final EncodeTask task = new EncodeTask(featureList, result, 0, result.length);
+    if (result.length <= chunkSize) {
+      task.compute();
+    } else {
+      ComputePool.invoke(task);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the exception, which was raised while the geometry of the feature at the given index of the last encoded feature list was
+   * projected to Web Mercator, or null, if the projection succeeded.
+   */
+  TransformException transformException(int index) {
+    return transformExceptions[index];
+  }
+
+  private TileGeomResult encode(Feature feature, int index) {
+    if (feature == null || feature.getGeometry() == null) {
+      return null;
+    }
+    final Geometry wgs84Geometry = feature.getGeometry().getJTSGeometry();
+    if (wgs84Geometry == null) {
+      return null;
+    }
+
+    Geometry targetGeometry;
+    try {
+      targetGeometry = WebMercatorProjection.project(wgs84Geometry);
+    } catch (TransformException e) {
+      transformExceptions[index] = e;
+      return null;
+    }
+
+    try {
+      targetGeometry = GeoTools.validate(targetGeometry);
+      if (targetGeometry == null) {
+        return null;
+      }
+    } catch (Exception e) {
+      return null;
+    }
+
+    return JtsAdapter.createTileGeom(JtsAdapter.flatFeatureList(targetGeometry), tileEnvelope, clipEnvelope, geomFactory, layerParams,
+        filter);
+  }
+
+  private class EncodeTask extends RecursiveAction {
+
+    private final List<Feature> featureList;
+    private final TileGeomResult[] result;
+    private final int from;
+    private final int to;
+
+    EncodeTask(List<Feature> featureList, TileGeomResult[] result, int from, int to) {
+      this.featureList = featureList;
+      this.result = result;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > chunkSize) {
+        final int middle = (from + to) >>> 1;
+        invokeAll(new EncodeTask(featureList, result, from, middle), new EncodeTask(featureList, result, middle, to));
+        return;
+      }
+      for (int i = from; i < to; i++) {
+        result[i] = encode(featureList.get(i), i);
+      }
+    }
+  }
+}
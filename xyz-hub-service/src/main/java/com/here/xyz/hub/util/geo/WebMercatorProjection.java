@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.geo;
+
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.vividsolutions.jts.geom.CoordinateSequence;
+import com.vividsolutions.jts.geom.CoordinateSequenceFilter;
+import com.vividsolutions.jts.geom.Geometry;
+import org.opengis.referencing.operation.TransformException;
+
+/**
+ * A closed-form projection from WGS'84 ({@link GeoTools#WGS84_EPSG}) to Web Mercator ({@link GeoTools#WEB_MERCATOR_EPSG}). The projection
+ * is applied directly to the coordinate sequences of a geometry and therefore avoids the generic GeoTools transformation pipeline.
+ */
+public final class WebMercatorProjection implements CoordinateSequenceFilter {
+
+  /**
+   * The radius of the sphere used by Web Mercator in meter.
+   */
+  public static final double EARTH_RADIUS = 6378137d;
+
+  private static final WebMercatorProjection INSTANCE = new WebMercatorProjection();
+
+  private WebMercatorProjection() {
+  }
+
+  /**
+   * Returns the Web Mercator x coordinate in meter for the given longitude.
+   */
+  public static double x(double longitude) {
+    return Math.toRadians(longitude) * EARTH_RADIUS;
+  }
+
+  /**
+   * Returns the Web Mercator y coordinate in meter for the given latitude. Latitudes beyond the limits of Web Mercator are clamped to
+   * {@link WebMercatorTile#MinLatitude} and {@link WebMercatorTile#MaxLatitude}.
+   */
+  public static double y(double latitude) {
+    latitude = WebMercatorTile.clip(latitude, WebMercatorTile.MinLatitude, WebMercatorTile.MaxLatitude);
+    return Math.log(Math.tan(Math.PI / 4 + Math.toRadians(latitude) / 2)) * EARTH_RADIUS;
+  }
+
+  /**
+   * Returns a copy of the given WGS'84 geometry projected to Web Mercator. The given geometry is not modified.
+   *
+   * @param wgs84Geometry the geometry with WGS'84 coordinates.
+   * @return the projected geometry.
+   * @throws TransformException if a coordinate can't be projected, because it is not a finite number.
+   */
+  public static Geometry project(Geometry wgs84Geometry) throws TransformException {
+    final Geometry geometry = (Geometry) wgs84Geometry.clone();
+    try {
+      geometry.apply(INSTANCE);
+    } catch (IllegalArgumentException e) {
+      final TransformException transformException = new TransformException(e.getMessage());
+      transformException.initCause(e);
+      throw transformException;
+    }
+    return geometry;
+  }
+
+  @Override
+  public void filter(CoordinateSequence seq, int i) {
+    final double x = x(seq.getOrdinate(i, CoordinateSequence.X));
+    final double y = y(seq.getOrdinate(i, CoordinateSequence.Y));
+    if (!Double.isFinite(x) || !Double.isFinite(y)) {
+      throw new IllegalArgumentException("Unable to project the coordinate " + seq.getCoordinate(i) + " to Web Mercator.");
+    }
+    seq.setOrdinate(i, CoordinateSequence.X, x);
+    seq.setOrdinate(i, CoordinateSequence.Y, y);
+  }
+
+  @Override
+  public boolean isDone() {
+    return false;
+  }
+
+  @Override
+  public boolean isGeometryChanged() {
+    return true;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.health.checks;
+
+import static com.here.xyz.hub.util.health.schema.Status.Result.ERROR;
+import static com.here.xyz.hub.util.health.schema.Status.Result.OK;
+
+import com.here.xyz.hub.Service;
+import com.here.xyz.hub.cache.InMemoryCacheClient;
+import com.here.xyz.hub.cache.TieredCacheClient;
+import com.here.xyz.hub.util.health.schema.Response;
+import com.here.xyz.hub.util.health.schema.Status;
+
+public class CacheHealthCheck extends ExecutableCheck {
+
+  public CacheHealthCheck() {
+    setName("Cache");
+    setRole(Role.CUSTOM);
+    setTarget(Target.LOCAL);
+  }
+
+  @Override
+  public Status execute() {
+    Status s = new Status();
+    Response r = new Response();
+
+    try {
+      if (Service.cacheClient instanceof TieredCacheClient) {
+        InMemoryCacheClient l1 = ((TieredCacheClient) Service.cacheClient).getL1();
+        r.setAdditionalProperty("l1Hits", l1.getHits());
+        r.setAdditionalProperty("l1Misses", l1.getMisses());
+        r.setAdditionalProperty("l1ByteSize", l1.getByteSize());
+      }
+      setResponse(r);
+      return s.withResult(OK);
+    } catch (Exception e) {
+      setResponse(r.withMessage("Error when trying to gather cache info: " + e.getMessage()));
+      return s.withResult(ERROR);
+    }
+  }
+}
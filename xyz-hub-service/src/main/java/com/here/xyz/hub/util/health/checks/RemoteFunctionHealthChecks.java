@@ -79,9 +79,13 @@ public class RemoteFunctionHealthChecks extends ExecutableCheck {
       d.put("queueSize", rfc.getQueueSize());
       d.put("maxQueueByteSize", rfc.getMaxQueueByteSize());
       d.put("queueByteSize", rfc.getQueueByteSize());
+      d.put("expiredCalls", rfc.getExpiredCalls());
       d.put("minConnections", rfc.getMinConnections());
       d.put("maxConnections", rfc.getMaxConnections());
       d.put("usedConnections", rfc.getUsedConnections());
+      d.put("concurrencyLimit", rfc.getConcurrencyLimit());
+      d.put("minRoundTripTime", rfc.getMinRoundTripTime());
+      d.put("recentRoundTripTime", rfc.getRecentRoundTripTime());
       d.put("rateOfService", rfc.getRateOfService());
       d.put("arrivalRate", rfc.getArrivalRate());
       d.put("throughput", rfc.getThroughput());
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.health.checks;
+
+import static com.here.xyz.hub.util.health.schema.Status.Result.ERROR;
+import static com.here.xyz.hub.util.health.schema.Status.Result.OK;
+
+import com.here.xyz.hub.task.TaskWorkerPool;
+import com.here.xyz.hub.util.health.schema.Response;
+import com.here.xyz.hub.util.health.schema.Status;
+
+public class TaskWorkerPoolHealthCheck extends ExecutableCheck {
+
+  public TaskWorkerPoolHealthCheck() {
+    setName("TaskWorkerPool");
+    setRole(Role.CUSTOM);
+    setTarget(Target.LOCAL);
+  }
+
+  @Override
+  public Status execute() {
+    Status s = new Status();
+    Response r = new Response();
+
+    try {
+      r.setAdditionalProperty("poolSize", TaskWorkerPool.getPoolSize());
+      r.setAdditionalProperty("maxQueueSize", TaskWorkerPool.getMaxQueueSize());
+      r.setAdditionalProperty("queueSize", TaskWorkerPool.getQueueSize());
+      r.setAdditionalProperty("executed", TaskWorkerPool.getExecuted());
+      r.setAdditionalProperty("rejected", TaskWorkerPool.getRejected());
+      r.setAdditionalProperty("averageQueueTime", TaskWorkerPool.getAverageQueueTime());
+      r.setAdditionalProperty("maxQueueTime", TaskWorkerPool.getMaxQueueTime());
+      setResponse(r);
+      return s.withResult(OK);
+    } catch (Exception e) {
+      setResponse(r.withMessage("Error when trying to gather task worker pool info: " + e.getMessage()));
+      return s.withResult(ERROR);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.auth;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.auth.PubSecKeyOptions;
+import io.vertx.ext.auth.User;
+import io.vertx.ext.auth.jwt.JWTAuthOptions;
+import io.vertx.ext.jwt.JWTOptions;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the cache of verified tokens. Each verification creates a new user, so a user, which is returned again, was taken from the cache.
+ */
+public class CompressedJWTAuthProviderTest {
+
+  private Vertx vertx;
+  private CompressedJWTAuthProvider authProvider;
+
+  @Before
+  public void setup() {
+    vertx = Vertx.vertx();
+    authProvider = new CompressedJWTAuthProvider(vertx, new JWTAuthOptions().addPubSecKey(
+        new PubSecKeyOptions().setAlgorithm("HS256").setPublicKey("test-secret").setSymmetric(true)));
+  }
+
+  @After
+  public void tearDown() {
+    vertx.close();
+  }
+
+  private String token(int expiresInSeconds) {
+    return authProvider.generateToken(new JsonObject().put("aid", "app"),
+        new JWTOptions().setAlgorithm("HS256").setExpiresInSeconds(expiresInSeconds));
+  }
+
+  private AsyncResult<User> authenticate(String jwt, JsonObject options) throws Exception {
+    final JsonObject authInfo = new JsonObject().put("jwt", jwt);
+    if (options != null) {
+      authInfo.put("options", options);
+    }
+    final CompletableFuture<AsyncResult<User>> result = new CompletableFuture<>();
+    authProvider.authenticate(authInfo, result::complete);
+    return result.get(10, TimeUnit.SECONDS);
+  }
+
+  private User user(String jwt, JsonObject options) throws Exception {
+    final AsyncResult<User> result = authenticate(jwt, options);
+    assertTrue("The token must be verified.", result.succeeded());
+    return result.result();
+  }
+
+  @Test
+  public void cacheHitSkipsVerification() throws Exception {
+    final String jwt = token(60);
+    final User user = user(jwt, null);
+
+    assertTrue(user instanceof VerifiedJWTUser);
+    assertSame("The user of a cached token must be returned without verifying the token again.", user, user(jwt, null));
+    assertNotSame("A different token must be verified.", user, user(token(120), null));
+  }
+
+  @Test
+  public void noCacheHitAfterExpiration() throws Exception {
+    final String jwt = token(2);
+    final long exp = user(jwt, null).principal().getLong("exp");
+
+    while (TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) <= exp) {
+      Thread.sleep(100);
+    }
+    assertTrue("An expired token must not be served from the cache.", authenticate(jwt, null).failed());
+  }
+
+  @Test
+  public void differentOptionsDontShareEntry() throws Exception {
+    final String jwt = token(60);
+    final User user = user(jwt, null);
+    final JsonObject options = new JsonObject().put("leeway", 5);
+    final User userWithOptions = user(jwt, options);
+
+    assertNotSame("A token verified with different options must not be taken from the cache.", user, userWithOptions);
+    assertSame(userWithOptions, user(jwt, options.copy()));
+    assertSame(user, user(jwt, null));
+  }
+}
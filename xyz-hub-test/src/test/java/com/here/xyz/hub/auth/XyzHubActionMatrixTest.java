@@ -19,6 +19,7 @@
 
 package com.here.xyz.hub.auth;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -220,4 +221,37 @@ public class XyzHubActionMatrixTest {
     ActionMatrix filterMatrix = Json.decodeValue(filter, ActionMatrix.class);
     assertTrue(rightsMatrix.matches(filterMatrix));
   }
+
+  @Test
+  public void compiledMatrix() {
+    String[][] cases = {
+        {"{'readFeatures': [{'owner': 'O1'}, {'owner': 'O2', 'space': 'S2'}], 'manageSpaces': [{}]}",
+            "{'readFeatures': [{'owner': 'O1', 'space': 'S1'}, {'owner': 'O2', 'space': 'S2'}], 'manageSpaces': [{'owner': 'O1'}]}"},
+        {"{'readFeatures': [{'space': 'S1'}, {'space': 'S2'}, {'space': 'S3'}]}", "{'readFeatures': [{'owner': 'O1', 'space': 'S2'}]}"},
+        {"{'readFeatures': [{'space': 'S1'}, {'space': 'S2'}, {'space': 'S3'}]}", "{'readFeatures': [{'owner': 'O1', 'space': 'S4'}]}"},
+        {"{'readFeatures': [{'space': 'S1'}]}", "{'readFeatures': [{'owner': 'O1'}]}"},
+        {"{'readFeatures': [{'packages': 'HERE'}]}", "{'readFeatures': [{'packages': ['OSM', 'HERE']}]}"},
+        {"{'readFeatures': [{'packages': 'HERE'}]}", "{'readFeatures': [{'packages': []}]}"},
+        {"{'readFeatures': [{'space': 'S*'}]}", "{'readFeatures': [{'space': 'S1'}]}"},
+        {"{'readFeatures': [{'space': 'S*'}]}", "{'readFeatures': [{'space': 'X1'}]}"},
+        {"{'readFeatures': [{'tags': ['map*', 'delta']}]}", "{'readFeatures': [{'tags': ['mapcreator', 'delta']}]}"},
+        {"{'readFeatures': [{'tags': ['map*', 'delta']}]}", "{'readFeatures': [{'tags': 'mapcreator'}]}"},
+        {"{'readFeatures': [{'tags': []}]}", "{'readFeatures': [{'tags': 'mapcreator'}]}"},
+        {"{'readFeatures': [{'owner': 'O1', 'space': 'S*'}]}", "{'readFeatures': [{'owner': 'O1', 'space': 'S1'}]}"},
+        {"{'readFeatures': [{'owner': 'O1'}]}", "{'readFeatures': [{'owner': 'O1'}], 'manageSpaces': [{'owner': 'O1'}]}"},
+        {"{}", "{}"},
+        {"{}", "{'readFeatures': [{'owner': 'O1'}]}"},
+        {"{'readFeatures': [{'color': 'blue'}, {'tags': ['restaurant, open24hrs']}]}", "{'readFeatures': [{'color': 'blue'}, {'tags': 'restaurant'}]}"}
+    };
+
+    for (String[] c : cases) {
+      String rights = c[0].replace('\'', '"');
+      String filter = c[1].replace('\'', '"');
+
+      ActionMatrix rightsMatrix = Json.decodeValue(rights, ActionMatrix.class);
+      ActionMatrix compiledMatrix = Json.decodeValue(rights, ActionMatrix.class).compile();
+      ActionMatrix filterMatrix = Json.decodeValue(filter, ActionMatrix.class);
+      assertEquals(rights + " vs " + filter, rightsMatrix.matches(filterMatrix), compiledMatrix.matches(filterMatrix));
+    }
+  }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.cache;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+public class InMemoryCacheClientTest {
+
+  private static byte[] getBinary(CacheClient client, String key) {
+    AtomicReference<byte[]> result = new AtomicReference<>();
+    client.getBinary(key, result::set);
+    return result.get();
+  }
+
+  @Test
+  public void hitAndMiss() {
+    InMemoryCacheClient cache = new InMemoryCacheClient(1024, 60);
+    byte[] value = new byte[]{1, 2, 3};
+    cache.setBinary("a", value, 60);
+
+    assertArrayEquals("Expected was the cached value.", value, getBinary(cache, "a"));
+    assertNull("Expected was a cache miss.", getBinary(cache, "b"));
+    assertEquals("Expected was 1 hit.", 1, cache.getHits());
+    assertEquals("Expected was 1 miss.", 1, cache.getMisses());
+  }
+
+  @Test
+  public void evictByByteSize() {
+    InMemoryCacheClient cache = new InMemoryCacheClient(100, 60);
+    cache.setBinary("a", new byte[60], 60);
+    cache.setBinary("b", new byte[60], 60);
+
+    assertNull("The first entry must be evicted.", getBinary(cache, "a"));
+    assertEquals("Expected were 60 bytes.", 60, cache.getByteSize());
+  }
+
+  @Test
+  public void remove() {
+    InMemoryCacheClient cache = new InMemoryCacheClient(1024, 60);
+    cache.setBinary("a", new byte[]{1}, 60);
+    cache.remove("a");
+
+    assertNull("The entry must be removed.", getBinary(cache, "a"));
+  }
+
+  @Test
+  public void zeroTtl() {
+    InMemoryCacheClient cache = new InMemoryCacheClient(1024, 60);
+    cache.setBinary("a", new byte[]{1}, 0);
+
+    assertNull("Entries without live time must not be cached.", getBinary(cache, "a"));
+  }
+
+  @Test
+  public void tieredReadThrough() {
+    InMemoryCacheClient l2 = new InMemoryCacheClient(1024, 60);
+    TieredCacheClient tiered = new TieredCacheClient(new InMemoryCacheClient(1024, 60), l2, 60);
+    byte[] value = new byte[]{1, 2, 3};
+    l2.setBinary("a", value, 60);
+
+    assertArrayEquals("Expected was the value of the L2 cache.", value, getBinary(tiered, "a"));
+    assertArrayEquals("The value must be copied into the L1 cache.", value, getBinary(tiered.getL1(), "a"));
+    assertEquals("Expected was 1 L1 miss.", 1, tiered.getL1().getMisses());
+  }
+
+  @Test
+  public void tieredLimitsL1Ttl() {
+    InMemoryCacheClient l2 = new InMemoryCacheClient(1024, 60);
+    TieredCacheClient tiered = new TieredCacheClient(new InMemoryCacheClient(1024, 60), l2, 1);
+    l2.setBinary("a", new byte[]{1}, 60);
+    getBinary(tiered, "a");
+
+    assertNotNull("The value must be copied into the L1 cache.", getBinary(tiered.getL1(), "a"));
+    await().atMost(5, TimeUnit.SECONDS).until(() -> getBinary(tiered.getL1(), "a") == null);
+    assertNotNull("The L2 entry must outlive the L1 copy.", getBinary(l2, "a"));
+  }
+
+  @Test
+  public void keepLargeEntries() {
+    InMemoryCacheClient cache = new InMemoryCacheClient(100, 60);
+    cache.setBinary("a", new byte[90], 60);
+
+    assertNotNull("An entry below the maximal size must be kept.", getBinary(cache, "a"));
+    assertEquals("Expected were 90 bytes.", 90, cache.getByteSize());
+  }
+
+  @Test
+  public void byteSizeOfReplacedAndRemovedEntries() {
+    InMemoryCacheClient cache = new InMemoryCacheClient(1024, 60);
+    cache.setBinary("a", new byte[10], 60);
+    cache.setBinary("a", new byte[20], 60);
+    assertEquals("Expected were 20 bytes.", 20, cache.getByteSize());
+
+    cache.remove("a");
+    assertEquals("Expected were 0 bytes.", 0, cache.getByteSize());
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.config;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.slf4j.Marker;
+
+public class ConfigCacheTest {
+
+  /**
+   * A loader, which completes the loads only when requested by the test.
+   */
+  private static class ManualLoader implements ConfigCache.Loader<String> {
+
+    final List<Handler<AsyncResult<String>>> pending = new ArrayList<>();
+    int loads;
+
+    @Override
+    public void load(Marker marker, String id, Handler<AsyncResult<String>> handler) {
+      loads++;
+      pending.add(handler);
+    }
+
+    void complete(String value) {
+      pending.remove(0).handle(Future.succeededFuture(value));
+    }
+  }
+
+  private static String get(ConfigCache<String> cache, String id, ConfigCache.Loader<String> loader) {
+    AtomicReference<String> result = new AtomicReference<>();
+    cache.get(null, id, loader, ar -> result.set(ar.result()));
+    return result.get();
+  }
+
+  @Test
+  public void singleFlight() {
+    ConfigCache<String> cache = new ConfigCache<>(100, 60, 30, 10, TimeUnit.SECONDS);
+    ManualLoader loader = new ManualLoader();
+    List<String> results = new ArrayList<>();
+    cache.get(null, "a", loader, ar -> results.add(ar.result()));
+    cache.get(null, "a", loader, ar -> results.add(ar.result()));
+    loader.complete("A");
+
+    assertEquals("Concurrent requests must share one load.", 1, loader.loads);
+    assertEquals("Both requests must get the loaded object.", 2, results.size());
+    assertEquals("A", results.get(0));
+    assertEquals("A", results.get(1));
+    assertEquals("The loaded object must be cached.", "A", get(cache, "a", loader));
+    assertEquals(1, loader.loads);
+  }
+
+  @Test
+  public void refreshAhead() throws InterruptedException {
+    ConfigCache<String> cache = new ConfigCache<>(100, 60_000, 1, 10_000, TimeUnit.MILLISECONDS);
+    ManualLoader loader = new ManualLoader();
+    cache.get(null, "a", loader, ar -> {});
+    loader.complete("A");
+    Thread.sleep(5);
+
+    assertEquals("An object after its refresh time must still be served from the cache.", "A", get(cache, "a", loader));
+    assertEquals("An object after its refresh time must be reloaded.", 2, loader.loads);
+    loader.complete("B");
+    assertEquals("The reloaded object must replace the cached one.", "B", cache.getIfPresent("a"));
+  }
+
+  @Test
+  public void negativeTtl() {
+    ConfigCache<String> cache = new ConfigCache<>(100, 60_000, 30_000, 50, TimeUnit.MILLISECONDS);
+    ManualLoader loader = new ManualLoader();
+    cache.get(null, "a", loader, ar -> {});
+    loader.complete(null);
+
+    assertNull("A missing object must be cached as missing.", get(cache, "a", loader));
+    assertEquals("A cached miss must not reach the storage.", 1, loader.loads);
+    await().atMost(5, TimeUnit.SECONDS).until(() -> {
+      cache.get(null, "a", loader, ar -> {});
+      return loader.loads == 2;
+    });
+  }
+
+  @Test
+  public void removeDuringLoad() {
+    ConfigCache<String> cache = new ConfigCache<>(100, 60, 30, 10, TimeUnit.SECONDS);
+    ManualLoader loader = new ManualLoader();
+    cache.get(null, "a", loader, ar -> {});
+    cache.get(null, "b", loader, ar -> {});
+    cache.remove("a");
+    cache.get(null, "a", loader, ar -> {});
+
+    assertEquals("A request after the removal must not join the outdated load.", 3, loader.loads);
+    loader.complete("outdated A");
+    assertNull("The outdated load must not be cached.", cache.getIfPresent("a"));
+    loader.complete("B");
+    assertEquals("A removal of another object must not affect the load.", "B", cache.getIfPresent("b"));
+    loader.complete("A");
+    assertEquals("A", cache.getIfPresent("a"));
+  }
+
+  @Test
+  public void maxSize() {
+    ConfigCache<String> cache = new ConfigCache<>(2, 60, 30, 10, TimeUnit.SECONDS);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.put("c", "C");
+
+    assertEquals("C", cache.getIfPresent("c"));
+    assertNull("The oldest entry must be evicted.", cache.getIfPresent("a"));
+  }
+}
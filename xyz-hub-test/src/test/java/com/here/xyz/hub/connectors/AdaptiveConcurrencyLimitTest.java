@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.hub.connectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimitTest {
+
+  private static final int MIN_LIMIT = 1;
+  private static final int MAX_LIMIT = 1000;
+
+  private long now;
+  private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, () -> now);
+
+  private void sample(long rttMillis, int count) {
+    for (int i = 0; i < count; i++) {
+      // All calls are in flight, so the limit is actually used
+      limit.onSample(TimeUnit.MILLISECONDS.toNanos(rttMillis), limit.getLimit(MIN_LIMIT, MAX_LIMIT), false, MIN_LIMIT, MAX_LIMIT);
+    }
+  }
+
+  private int getLimit() {
+    return limit.getLimit(MIN_LIMIT, MAX_LIMIT);
+  }
+
+  @Test
+  public void increaseWithConstantRtt() {
+    sample(10, 20);
+    assertTrue("Expected was an increased limit, but it is " + getLimit(), getLimit() > 100);
+  }
+
+  @Test
+  public void noIncreaseWhenUnused() {
+    for (int i = 0; i < 20; i++) {
+      limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 10, false, MIN_LIMIT, MAX_LIMIT);
+    }
+    assertEquals("An unused limit must not grow.", 100, getLimit());
+  }
+
+  @Test
+  public void decreaseWithIncreasedRtt() {
+    sample(10, 1);
+    final int before = getLimit();
+    sample(40, 50);
+    assertTrue("Expected was a decreased limit, but it is " + getLimit(), getLimit() < before);
+    assertEquals(10d, limit.getMinRtt(), 0d);
+  }
+
+  @Test
+  public void decreaseWhenDropped() {
+    limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), 100, true, MIN_LIMIT, MAX_LIMIT);
+    assertEquals(90, getLimit());
+  }
+
+  @Test
+  public void resetToWindowedMinimum() {
+    sample(10, 10);
+    now += TimeUnit.SECONDS.toNanos(30);
+    sample(40, 10);
+
+    // The first sample of a new window must not become the minimal RTT, while the remote function is saturated
+    now += TimeUnit.SECONDS.toNanos(31);
+    final int beforeProbe = getLimit();
+    sample(40, 1);
+    assertEquals("The minimal RTT of the previous window must be kept.", 10d, limit.getMinRtt(), 0d);
+    assertTrue("The limit must be lowered to probe for the minimal RTT.", getLimit() < beforeProbe);
+
+    now += TimeUnit.SECONDS.toNanos(30);
+    sample(40, 10);
+    assertEquals(10d, limit.getMinRtt(), 0d);
+
+    // A permanently increased RTT becomes the minimal RTT after two windows
+    now += TimeUnit.SECONDS.toNanos(31);
+    sample(40, 1);
+    assertEquals(40d, limit.getMinRtt(), 0d);
+  }
+}
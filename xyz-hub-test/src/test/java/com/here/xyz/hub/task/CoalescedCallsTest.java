@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.hub.task;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.events.Event;
+import com.here.xyz.events.IterateFeaturesEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class CoalescedCallsTest {
+
+  private static final String CACHE_KEY = "cacheKey";
+
+  private static Event event(String aid) {
+    return new IterateFeaturesEvent().withAid(aid);
+  }
+
+  @Test
+  public void identicalCallsShareOneCall() {
+    final CoalescedCalls calls = new CoalescedCalls();
+    final String key = CoalescedCalls.key(event("app"), CACHE_KEY);
+    final List<byte[]> responses = new ArrayList<>();
+    final AtomicInteger serializations = new AtomicInteger();
+
+    assertTrue("The first call must be executed.", calls.join(key, (value, e) -> responses.add(value)));
+    assertFalse("An identical call must wait for the first one.", calls.join(key, (value, e) -> responses.add(value)));
+    assertFalse(calls.join(key, (value, e) -> responses.add(value)));
+    assertTrue(calls.hasWaiting(key));
+
+    final byte[] response = {1, 2, 3};
+    calls.complete(key, () -> {
+      serializations.incrementAndGet();
+      return response;
+    }, null);
+
+    assertEquals("The response must be serialized once for all waiting calls.", 1, serializations.get());
+    assertEquals(2, responses.size());
+    assertArrayEquals(response, responses.get(0));
+    assertArrayEquals(response, responses.get(1));
+    assertTrue("A call after the completion must be executed again.", calls.join(key, (value, e) -> {}));
+  }
+
+  @Test
+  public void noSerializationWithoutWaiting() {
+    final CoalescedCalls calls = new CoalescedCalls();
+    final String key = CoalescedCalls.key(event("app"), CACHE_KEY);
+    final AtomicInteger serializations = new AtomicInteger();
+
+    assertTrue(calls.join(key, (value, e) -> {}));
+    assertFalse(calls.hasWaiting(key));
+    calls.complete(key, () -> {
+      serializations.incrementAndGet();
+      return new byte[0];
+    }, null);
+    assertEquals("The response must not be serialized, if no call is waiting.", 0, serializations.get());
+  }
+
+  @Test
+  public void failureReachesEveryWaiter() {
+    final CoalescedCalls calls = new CoalescedCalls();
+    final String key = CoalescedCalls.key(event("app"), CACHE_KEY);
+    final List<Exception> exceptions = new ArrayList<>();
+
+    assertTrue(calls.join(key, (value, e) -> exceptions.add(e)));
+    calls.join(key, (value, e) -> exceptions.add(e));
+    calls.join(key, (value, e) -> exceptions.add(e));
+
+    final Exception failure = new Exception("storage failure");
+    calls.complete(key, () -> new byte[0], failure);
+
+    assertEquals("The failure must reach every waiting call.", 2, exceptions.size());
+    assertSame(failure, exceptions.get(0));
+    assertSame(failure, exceptions.get(1));
+  }
+
+  @Test
+  public void differentCallsAreNotMerged() {
+    final String key = CoalescedCalls.key(event("app"), CACHE_KEY);
+
+    assertEquals(key, CoalescedCalls.key(event("app"), CACHE_KEY));
+    assertNotEquals("Calls of different apps must not be merged.", key, CoalescedCalls.key(event("otherApp"), CACHE_KEY));
+    assertNotEquals("Calls of different tokens must not be merged.", key, CoalescedCalls.key(event("app").withTid("token"), CACHE_KEY));
+    assertNotEquals("Calls with different parameters must not be merged.", key,
+        CoalescedCalls.key(event("app").withParams(Collections.singletonMap("p", "v")), CACHE_KEY));
+    assertNotEquals("Calls with different If-None-Match headers must not be merged.", key,
+        CoalescedCalls.key(event("app").withIfNoneMatch("etag"), CACHE_KEY));
+    assertNotEquals("Calls with different cache keys must not be merged.", key, CoalescedCalls.key(event("app"), "otherCacheKey"));
+
+    final CoalescedCalls calls = new CoalescedCalls();
+    assertTrue(calls.join(key, (value, e) -> {}));
+    assertTrue("A different call must be executed.", calls.join(CoalescedCalls.key(event("otherApp"), CACHE_KEY), (value, e) -> {}));
+  }
+
+  @Test
+  public void concurrentJoinsAreServed() throws Exception {
+    final CoalescedCalls calls = new CoalescedCalls();
+    final String key = CoalescedCalls.key(event("app"), CACHE_KEY);
+    final AtomicInteger served = new AtomicInteger();
+    final int waiters = 1000;
+
+    assertTrue(calls.join(key, (value, e) -> {}));
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final CountDownLatch joined = new CountDownLatch(waiters);
+    try {
+      for (int i = 0; i < waiters; i++) {
+        executor.execute(() -> {
+          calls.join(key, (value, e) -> served.incrementAndGet());
+          joined.countDown();
+        });
+        executor.execute(() -> calls.hasWaiting(key));
+      }
+      assertTrue(joined.await(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdown();
+    }
+
+    assertTrue(calls.hasWaiting(key));
+    calls.complete(key, () -> new byte[0], null);
+    assertEquals("Every concurrently joined call must be served.", waiters, served.get());
+  }
+}
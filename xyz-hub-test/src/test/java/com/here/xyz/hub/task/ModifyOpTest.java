@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.hub.task;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import com.here.xyz.hub.rest.HttpException;
+import com.here.xyz.hub.task.ModifyOp.Entry;
+import com.here.xyz.hub.task.ModifyOp.IfExists;
+import com.here.xyz.hub.task.ModifyOp.IfNotExists;
+import com.here.xyz.hub.task.ModifyOp.ModifyOpError;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class ModifyOpTest {
+
+  private static final int SIZE = 5000;
+
+  /**
+   * Creates the target states from the inputs. Inputs starting with "error" fail with a {@link ModifyOpError}, inputs starting with
+   * "exception" with an unchecked exception.
+   */
+  private static class TestOp extends ModifyOp<String, String, String> {
+
+    TestOp(List<String> inputs, boolean isTransactional) {
+      super(inputs, IfNotExists.CREATE, IfExists.REPLACE, isTransactional);
+    }
+
+    @Override
+    public String create(String input) throws ModifyOpError {
+      if (input.startsWith("error")) {
+        throw new ModifyOpError(input);
+      }
+      if (input.startsWith("exception")) {
+        throw new IllegalStateException(input);
+      }
+      return input.toUpperCase();
+    }
+
+    @Override
+    public String patch(String headState, String editedState, String inputState) {
+      return inputState;
+    }
+
+    @Override
+    public String merge(String headState, String editedState, String inputState) {
+      return inputState;
+    }
+
+    @Override
+    public String replace(String headState, String inputState) {
+      return inputState;
+    }
+
+    @Override
+    public String transform(String sourceState) {
+      return sourceState;
+    }
+
+    @Override
+    public boolean equalStates(String state1, String state2) {
+      return state1 == null ? state2 == null : state1.equals(state2);
+    }
+  }
+
+  /**
+   * Returns the inputs, in which the entries at the given indices fail with the given prefix.
+   */
+  private static List<String> inputs(String prefix, int... failing) {
+    final List<String> inputs = new ArrayList<>();
+    for (int i = 0; i < SIZE; i++) {
+      inputs.add("f" + i);
+    }
+    for (int i : failing) {
+      inputs.set(i, prefix + i);
+    }
+    return inputs;
+  }
+
+  @Test
+  public void parallelResultsInInputOrder() throws Exception {
+    final TestOp op = new TestOp(inputs("error"), true);
+    op.process(1);
+
+    for (int i = 0; i < SIZE; i++) {
+      final Entry<String, String, String> entry = op.entries.get(i);
+      assertEquals("F" + i, entry.result);
+      assertNull(entry.exception);
+    }
+  }
+
+  @Test
+  public void parallelFirstErrorInInputOrder() throws HttpException {
+    try {
+      new TestOp(inputs("error", 4711, 300, 4000, 1200), true).process(1);
+      fail("Expected was a ModifyOpError.");
+    } catch (ModifyOpError e) {
+      assertEquals("The error of the first failing input must be thrown.", "error300", e.getMessage());
+    }
+  }
+
+  @Test
+  public void parallelFirstUncheckedExceptionInInputOrder() throws Exception {
+    try {
+      new TestOp(inputs("exception", 4711, 300, 4000, 1200), true).process(1);
+      fail("Expected was an IllegalStateException.");
+    } catch (IllegalStateException e) {
+      assertEquals("The exception of the first failing input must be thrown.", "exception300", e.getMessage());
+    }
+  }
+
+  @Test
+  public void parallelFailuresOfNonTransactionalOperation() throws Exception {
+    final int[] failing = {4711, 300, 4000, 1200, 0, SIZE - 1};
+    final TestOp op = new TestOp(inputs("error", failing), false);
+    op.process(1);
+
+    final TestOp expected = new TestOp(inputs("error", failing), false);
+    expected.process(0);
+    for (int i = 0; i < SIZE; i++) {
+      final Entry<String, String, String> entry = op.entries.get(i);
+      final Entry<String, String, String> expectedEntry = expected.entries.get(i);
+      assertEquals("The parallel result must equal the sequential one.", expectedEntry.result, entry.result);
+      if (expectedEntry.exception == null) {
+        assertNull(entry.exception);
+      } else {
+        assertNotNull("Each failing input must keep its error.", entry.exception);
+        assertEquals(expectedEntry.exception.getMessage(), entry.exception.getMessage());
+      }
+    }
+  }
+}
@@ -41,6 +41,21 @@ public class LimitedQueueTest {
     }
   }
 
+  public class PrioritizedTestElement extends TestElement implements Prioritized {
+
+    private final int priority;
+
+    PrioritizedTestElement(long byteSize, int priority) {
+      super(byteSize);
+      this.priority = priority;
+    }
+
+    @Override
+    public int getPriority() {
+      return priority;
+    }
+  }
+
   @Test
   public void addTooLargeElement() {
     LimitedQueue<TestElement> queue = new LimitedQueue<>(3, 100);
@@ -188,4 +203,43 @@ public class LimitedQueueTest {
     assertEquals("Expected was that element 1 was discarded first.", element1, discarded.get(0));
     assertEquals("Expected was that element 2 was discarded second.", element2, discarded.get(1));
   }
+
+  @Test
+  public void removeByPriority() {
+    LimitedQueue<TestElement> queue = new LimitedQueue<>(10, 100, 3);
+    TestElement low = new PrioritizedTestElement(1, 2);
+    TestElement normal = new PrioritizedTestElement(1, 1);
+    TestElement high1 = new PrioritizedTestElement(1, 0);
+    TestElement high2 = new PrioritizedTestElement(1, 0);
+
+    queue.add(low);
+    queue.add(normal);
+    queue.add(high1);
+    queue.add(high2);
+
+    assertEquals("Expected were 4 elements.", 4, queue.getSize());
+    assertEquals("Expected was that the first element of the highest priority is removed first.", high1, queue.remove());
+    assertEquals("Expected was that the second element of the highest priority is removed second.", high2, queue.remove());
+    assertEquals("Expected was that the element of the normal priority is removed third.", normal, queue.remove());
+    assertEquals("Expected was that the element of the lowest priority is removed last.", low, queue.remove());
+    assertNull("Expected no elements were removed", queue.remove());
+    assertEquals("Expected were 0 bytes.", 0, queue.getByteSize());
+  }
+
+  @Test
+  public void discardLowestPriority() {
+    LimitedQueue<TestElement> queue = new LimitedQueue<>(2, 100, 3);
+    TestElement high = new PrioritizedTestElement(1, 0);
+    TestElement low = new PrioritizedTestElement(1, 2);
+    TestElement normal = new PrioritizedTestElement(1, 1);
+
+    queue.add(high);
+    queue.add(low);
+    List<TestElement> discarded = queue.add(normal);
+    assertEquals("Expected was that 1 element is discarded.", 1, discarded.size());
+    assertEquals("Expected was that the element of the lowest priority is discarded.", low, discarded.get(0));
+    assertEquals("Expected were 2 elements.", 2, queue.getSize());
+    assertEquals("Expected was that the element of the highest priority is removed first.", high, queue.remove());
+    assertEquals("Expected was that the element of the normal priority is removed second.", normal, queue.remove());
+  }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+package com.here.xyz.hub.util.diff;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.hub.util.diff.Difference.DiffList;
+import com.here.xyz.hub.util.diff.Difference.DiffMap;
+import com.here.xyz.hub.util.diff.Difference.Insert;
+import com.here.xyz.hub.util.diff.Difference.Remove;
+import com.here.xyz.hub.util.diff.Difference.Update;
+import com.here.xyz.hub.util.diff.Patcher.MergeConflictException;
+import io.vertx.core.json.JsonObject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class PatcherTest {
+
+  private static Map<String, Object> map(String json) {
+    return new JsonObject(json).getMap();
+  }
+
+  @Test
+  public void equalStates() {
+    final Map<String, Object> source = map("{\"a\":1,\"b\":{\"c\":[1,2,{\"d\":true}]},\"e\":null}");
+    final Map<String, Object> target = map("{\"a\":1.0,\"b\":{\"c\":[1,2,{\"d\":true}]},\"e\":null}");
+    assertNull(Patcher.getDifference(source, target));
+    assertTrue(Patcher.isEqual(source, target));
+  }
+
+  @Test
+  public void mapDifference() {
+    final Map<String, Object> source = map("{\"a\":1,\"b\":{\"c\":\"x\",\"d\":\"y\"},\"e\":null}");
+    final Map<String, Object> target = map("{\"a\":1,\"b\":{\"c\":\"z\",\"d\":\"y\"},\"f\":null}");
+
+    final DiffMap diff = (DiffMap) Patcher.getDifference(source, target);
+    assertEquals(3, diff.size());
+    assertEquals("z", ((Update) ((DiffMap) diff.get("b")).get("c")).newValue());
+    assertTrue(diff.get("e") instanceof Remove);
+    assertTrue(diff.get("f") instanceof Insert);
+    assertFalse(Patcher.isEqual(source, target));
+  }
+
+  @Test
+  public void ignoreKeys() {
+    final Map<String, Object> source = map("{\"a\":1,\"b\":2}");
+    final Map<String, Object> target = map("{\"a\":1,\"c\":3}");
+    final Map<Object, Object> ignoreKeys = new HashMap<>();
+    ignoreKeys.put("b", true);
+    ignoreKeys.put("c", true);
+    assertNull(Patcher.getDifference(source, target, ignoreKeys));
+  }
+
+  @Test
+  public void listDifference() {
+    final Map<String, Object> source = map("{\"l\":[1,2,3,4]}");
+    final Map<String, Object> target = map("{\"l\":[1,2,5,4,6]}");
+
+    final DiffList diff = (DiffList) ((DiffMap) Patcher.getDifference(source, target)).get("l");
+    assertEquals(5, diff.size());
+    assertNull(diff.get(0));
+    assertNull(diff.get(1));
+    assertEquals(5, ((Update) diff.get(2)).newValue());
+    assertNull(diff.get(3));
+    assertTrue(diff.get(4) instanceof Insert);
+    assertEquals(4, diff.originalLength);
+    assertEquals(5, diff.newLength);
+  }
+
+  @Test
+  public void removedListItems() {
+    final DiffList diff = (DiffList) Patcher.getDifference(map("{\"l\":[1,2,3]}").get("l"), map("{\"l\":[1]}").get("l"));
+    assertEquals(3, diff.size());
+    assertNull(diff.get(0));
+    assertTrue(diff.get(1) instanceof Remove);
+    assertTrue(diff.get(2) instanceof Remove);
+  }
+
+  @Test
+  public void mergeNonConflicting() throws MergeConflictException {
+    final Map<String, Object> base = map("{\"a\":1,\"b\":1,\"l\":[1,2]}");
+    final Difference diffA = Patcher.getDifference(base, map("{\"a\":2,\"b\":1,\"l\":[1,2]}"));
+    final Difference diffB = Patcher.getDifference(base, map("{\"a\":1,\"b\":2,\"l\":[1,2,3]}"));
+
+    Patcher.patch(base, Patcher.mergeDifferences(diffA, diffB));
+    assertTrue(Patcher.isEqual(map("{\"a\":2,\"b\":2,\"l\":[1,2,3]}"), base));
+  }
+
+  @Test(expected = MergeConflictException.class)
+  public void mergeConflicting() throws MergeConflictException {
+    final Map<String, Object> base = map("{\"a\":1}");
+    Patcher.mergeDifferences(Patcher.getDifference(base, map("{\"a\":2}")), Patcher.getDifference(base, map("{\"a\":3}")));
+  }
+
+  @Test
+  public void isEqualDetectsMissingKeys() {
+    assertFalse(Patcher.isEqual(map("{\"a\":null}"), map("{\"b\":null}")));
+    assertFalse(Patcher.isEqual(map("{\"a\":1}"), Collections.emptyMap()));
+    assertFalse(Patcher.isEqual(map("{\"l\":[1]}"), map("{\"l\":[1,1]}")));
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.geo;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.here.xyz.models.geojson.coordinates.LineStringCoordinates;
+import com.here.xyz.models.geojson.coordinates.PointCoordinates;
+import com.here.xyz.models.geojson.coordinates.Position;
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.models.geojson.implementation.LineString;
+import com.here.xyz.models.geojson.implementation.Point;
+import com.wdtinc.mapbox_vector_tile.adapt.jts.TileGeomResult;
+import com.wdtinc.mapbox_vector_tile.build.MvtLayerParams;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.opengis.referencing.operation.TransformException;
+
+public class MvtGeometryEncoderTest {
+
+  private static final WebMercatorTile TILE = WebMercatorTile.forWeb(10, 536, 347);
+
+  /**
+   * Features within and around the tile, so that some are clipped or dropped. Every tenth feature has no geometry.
+   */
+  private static List<Feature> features(int count) {
+    final Random random = new Random(42);
+    final List<Feature> features = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      final Feature feature = Feature.createEmptyFeature().withId("F" + i);
+      final double lon = 8.3 + random.nextDouble() * 0.8;
+      final double lat = 49.8 + random.nextDouble() * 0.6;
+      if (i % 10 == 1) {
+        features.add(feature);
+      } else if (i % 2 == 0) {
+        features.add(feature.withGeometry(new Point().withCoordinates(new PointCoordinates(lon, lat))));
+      } else {
+        final LineStringCoordinates coordinates = new LineStringCoordinates();
+        coordinates.add(new Position(lon, lat));
+        coordinates.add(new Position(lon + 0.1, lat - 0.05));
+        features.add(feature.withGeometry(new LineString().withCoordinates(coordinates)));
+      }
+    }
+    return features;
+  }
+
+  private static TileGeomResult[] encode(List<Feature> features, int chunkSize) {
+    return new MvtGeometryEncoder(TILE, 0, new MvtLayerParams(), geometry -> true, chunkSize).encode(features);
+  }
+
+  @Test
+  public void parallelSameAsSequential() {
+    final List<Feature> features = features(5 * MvtGeometryEncoder.CHUNK_SIZE + 17);
+    final TileGeomResult[] sequential = encode(features, Integer.MAX_VALUE);
+    final TileGeomResult[] parallel = encode(features, MvtGeometryEncoder.CHUNK_SIZE);
+
+    assertEquals(features.size(), parallel.length);
+    int encoded = 0;
+    for (int i = 0; i < features.size(); i++) {
+      if (sequential[i] == null) {
+        assertNull("Feature " + i + " must be dropped by both paths.", parallel[i]);
+        continue;
+      }
+      encoded++;
+      assertNotNull("Feature " + i + " must be encoded by both paths.", parallel[i]);
+      assertEquals("Feature " + i + " must have the same number of geometries.", sequential[i].mvtGeoms.size(),
+          parallel[i].mvtGeoms.size());
+      for (int j = 0; j < sequential[i].mvtGeoms.size(); j++) {
+        assertTrue("Feature " + i + " must have the same tile geometry.",
+            sequential[i].mvtGeoms.get(j).equalsExact(parallel[i].mvtGeoms.get(j)));
+      }
+    }
+    assertTrue("The tile must contain features.", encoded > 0);
+  }
+
+  @Test
+  public void tileSameAsSequential() throws Exception {
+    final List<Feature> features = features(3 * MvtGeometryEncoder.CHUNK_SIZE + 1);
+    final byte[] sequential = new MapBoxVectorTileBuilder().build(TILE, 0, "test", features, Integer.MAX_VALUE);
+    final byte[] parallel = new MapBoxVectorTileBuilder().build(TILE, 0, "test", features);
+
+    assertArrayEquals("The tile encoded in parallel must be the same as the sequentially encoded one.", sequential, parallel);
+  }
+
+  @Test
+  public void transformFailureReachesBuilder() {
+    final List<Feature> features = features(3);
+    features.add(1, Feature.createEmptyFeature().withId("invalid")
+        .withGeometry(new Point().withCoordinates(new PointCoordinates(Double.NaN, 50.1))));
+    final MvtGeometryEncoder encoder = new MvtGeometryEncoder(TILE, 0, new MvtLayerParams(), geometry -> true);
+    final TileGeomResult[] result = encoder.encode(features);
+
+    assertNull("The feature, which can't be projected, must not be encoded.", result[1]);
+    assertNotNull("The exception must be returned for the feature, which can't be projected.", encoder.transformException(1));
+    for (int i : new int[]{0, 2, 3}) {
+      assertNull("There must be no exception for feature " + i + ".", encoder.transformException(i));
+    }
+  }
+
+  @Test
+  public void transformFailureIsRethrown() throws Exception {
+    final List<Feature> features = features(3);
+    features.add(Feature.createEmptyFeature().withId("invalid")
+        .withGeometry(new Point().withCoordinates(new PointCoordinates(Double.NaN, 50.1))));
+
+    try {
+      new MapBoxVectorTileBuilder().build(TILE, 0, "test", features);
+      fail("The builder must rethrow the transform exception by default.");
+    } catch (TransformException expected) {
+    }
+
+    final List<Exception> handled = new ArrayList<>();
+    final byte[] withHandler = new MapBoxVectorTileBuilder() {
+      @Override
+      protected void onTransformException(Exception e) {
+        handled.add(e);
+      }
+    }.build(TILE, 0, "test", features);
+
+    assertEquals("The overridden handler must be called once.", 1, handled.size());
+    assertSame(TransformException.class, handled.get(0).getClass());
+    assertArrayEquals("The feature must be skipped, if the handler suppresses the exception.",
+        new MapBoxVectorTileBuilder().build(TILE, 0, "test", features.subList(0, 3)), withHandler);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.hub.util.geo;
+
+import static com.here.xyz.hub.util.geo.GeoTools.WEB_MERCATOR_EPSG;
+import static com.here.xyz.hub.util.geo.GeoTools.WGS84_EPSG;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import com.here.xyz.models.geojson.WebMercatorTile;
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.LineString;
+import org.geotools.geometry.jts.JTS;
+import org.junit.Test;
+import org.opengis.referencing.operation.TransformException;
+
+public class WebMercatorProjectionTest {
+
+  /**
+   * The maximal difference in meter to the projection of GeoTools.
+   */
+  private static final double TOLERANCE = 0.001d;
+
+  private static final double HALF_WORLD = Math.PI * WebMercatorProjection.EARTH_RADIUS;
+
+  private final GeometryFactory geometryFactory = new GeometryFactory();
+
+  @Test
+  public void sameAsGeoTools() throws Exception {
+    for (double lon = -180d; lon <= 180d; lon += 7.5d) {
+      for (double lat = -85d; lat <= 85d; lat += 2.5d) {
+        final Geometry point = geometryFactory.createPoint(new Coordinate(lon, lat));
+        final Coordinate expected = JTS.transform(point, GeoTools.mathTransform(WGS84_EPSG, WEB_MERCATOR_EPSG)).getCoordinate();
+        final Coordinate actual = WebMercatorProjection.project(point).getCoordinate();
+
+        assertEquals("x of " + lon + "," + lat + " must match GeoTools.", expected.x, actual.x, TOLERANCE);
+        assertEquals("y of " + lon + "," + lat + " must match GeoTools.", expected.y, actual.y, TOLERANCE);
+      }
+    }
+  }
+
+  @Test
+  public void projectKeepsSource() throws Exception {
+    final LineString line = geometryFactory.createLineString(new Coordinate[]{new Coordinate(8.5, 50.1), new Coordinate(13.4, 52.5)});
+    final Geometry projected = WebMercatorProjection.project(line);
+
+    assertEquals("The source geometry must not be modified.", 8.5, line.getCoordinateN(0).x, 0d);
+    assertEquals(WebMercatorProjection.x(13.4), projected.getCoordinates()[1].x, 0d);
+    assertEquals(WebMercatorProjection.y(52.5), projected.getCoordinates()[1].y, 0d);
+  }
+
+  @Test
+  public void clampLatitude() {
+    assertEquals("The maximal latitude must be projected to the top of the world.", HALF_WORLD,
+        WebMercatorProjection.y(WebMercatorTile.MaxLatitude), TOLERANCE);
+    assertEquals("The minimal latitude must be projected to the bottom of the world.", -HALF_WORLD,
+        WebMercatorProjection.y(WebMercatorTile.MinLatitude), TOLERANCE);
+    assertEquals("Latitudes above the maximal latitude must be clamped.", WebMercatorProjection.y(WebMercatorTile.MaxLatitude),
+        WebMercatorProjection.y(90d), 0d);
+    assertEquals("Latitudes below the minimal latitude must be clamped.", WebMercatorProjection.y(WebMercatorTile.MinLatitude),
+        WebMercatorProjection.y(-90d), 0d);
+    assertEquals(HALF_WORLD, WebMercatorProjection.x(180d), TOLERANCE);
+  }
+
+  @Test
+  public void rejectInvalidCoordinates() {
+    for (Coordinate coordinate : new Coordinate[]{new Coordinate(Double.NaN, 50.1), new Coordinate(8.5, Double.NaN),
+        new Coordinate(Double.POSITIVE_INFINITY, 50.1)}) {
+      try {
+        WebMercatorProjection.project(geometryFactory.createPoint(coordinate));
+        fail("The coordinate " + coordinate + " must not be projected.");
+      } catch (TransformException e) {
+        assertNotNull(e.getMessage());
+      }
+    }
+  }
+}
@@ -26,6 +26,8 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
@@ -34,8 +36,12 @@ import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.here.xyz.models.geojson.implementation.Feature;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class LazyParsable<T> {
@@ -44,6 +50,7 @@ public class LazyParsable<T> {
   };
   private static final String FEATURE_TYPE = "Feature";
   private String valueString;
+  private byte[] valueBytes;
   private T value;
 
   public LazyParsable() {
@@ -53,22 +60,48 @@ public class LazyParsable<T> {
     this.valueString = valueString;
   }
 
+  /**
+   * Creates the value from its UTF-8 encoded JSON. The bytes are written as they are, when the value is serialized into JSON before it was
+   * parsed.
+   */
+  public LazyParsable(byte[] valueBytes) {
+    this.valueBytes = valueBytes;
+  }
+
   @SuppressWarnings("unchecked")
   @JsonValue
   public T get() throws JsonProcessingException {
-    if (valueString != null) {
-      //TODO: Make generic
-      value = (T) XyzSerializable.DEFAULT_MAPPER.get().readValue(valueString, FEATURE_LIST);
-      valueString = null;
+    try {
+      if (valueString != null) {
+        //TODO: Make generic
+        value = (T) XyzSerializable.DEFAULT_MAPPER.get().readValue(valueString, FEATURE_LIST);
+        valueString = null;
+      } else if (valueBytes != null) {
+        value = (T) XyzSerializable.DEFAULT_MAPPER.get().readValue(valueBytes, FEATURE_LIST);
+        valueBytes = null;
+      }
+    } catch (JsonProcessingException e) {
+      throw e;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
     }
     return value;
   }
 
   public void set(T value) {
     this.value = value;
+    valueString = null;
+    valueBytes = null;
+  }
+
+  /**
+   * Returns the length of the JSON string or of its UTF-8 encoding, if the value was not parsed yet, otherwise -1.
+   */
+  public int getValueStringLength() {
     if (valueString != null) {
-      valueString = null;
+      return valueString.length();
     }
+    return valueBytes != null ? valueBytes.length : -1;
   }
 
   private String getValueString() {
@@ -85,6 +118,8 @@ public class LazyParsable<T> {
     public Object deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
       int start = (int) jp.getCurrentLocation().getCharOffset();
 
+      // The binary format has no source string to extract the value from, therefore its value is always parsed. The hub only receives
+      // binary responses, when it processes the features anyway.
       //TODO: Currently the object is parsed, in few cases when this could be avoided.
       // 1. If getTokenLocation()/getCurrentLocation().getCharOffset() returns -1, the source reference is not a string, but an input
       //  stream, byte array, etc. and the value could be still extracted as a string efficiently.
@@ -120,7 +155,21 @@ public class LazyParsable<T> {
     public void serialize(Object value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
       if (value instanceof LazyParsable) {
         final String valueString = ((LazyParsable) value).valueString;
-        if (valueString != null) {
+        final byte[] valueBytes = ((LazyParsable) value).valueBytes;
+        if (valueBytes != null && gen instanceof SmileGenerator) {
+          try (JsonParser jp = XyzSerializable.DEFAULT_MAPPER.get().getFactory().createParser(valueBytes)) {
+            jp.nextToken();
+            gen.copyCurrentStructure(jp);
+          }
+        } else if (valueBytes != null) {
+          gen.writeRawValue(new RawUTF8Value(valueBytes));
+        } else if (valueString != null && gen instanceof SmileGenerator) {
+          // Raw values can't be written in the binary format, the JSON string is transcoded instead
+          try (JsonParser jp = XyzSerializable.DEFAULT_MAPPER.get().getFactory().createParser(valueString)) {
+            jp.nextToken();
+            gen.copyCurrentStructure(jp);
+          }
+        } else if (valueString != null) {
           gen.writeRawValue(valueString);
         } else {
           //TODO: Make generic
@@ -134,4 +183,99 @@ public class LazyParsable<T> {
       }
     }
   }
+
+  /**
+   * A raw JSON value, which is already UTF-8 encoded. UTF-8 generators copy the bytes into their output as they are, other generators
+   * decode them.
+   */
+  private static class RawUTF8Value implements SerializableString {
+
+    private final byte[] bytes;
+    private SerializedString decoded;
+
+    private RawUTF8Value(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    private SerializedString decoded() {
+      if (decoded == null) {
+        decoded = new SerializedString(new String(bytes, StandardCharsets.UTF_8));
+      }
+      return decoded;
+    }
+
+    @Override
+    public String getValue() {
+      return decoded().getValue();
+    }
+
+    @Override
+    public int charLength() {
+      return decoded().charLength();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+      return decoded().asQuotedChars();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+      return bytes;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+      return decoded().asQuotedUTF8();
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+      return decoded().appendQuotedUTF8(buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+      return decoded().appendQuoted(buffer, offset);
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+      if (offset + bytes.length > buffer.length) {
+        return -1;
+      }
+      System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+      return bytes.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+      return decoded().appendUnquoted(buffer, offset);
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+      return decoded().writeQuotedUTF8(out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+      out.write(bytes);
+      return bytes.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+      return decoded().putQuotedUTF8(buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) throws IOException {
+      if (bytes.length > buffer.remaining()) {
+        return -1;
+      }
+      buffer.put(bytes);
+      return bytes.length;
+    }
+  }
 }
@@ -22,6 +22,7 @@ package com.here.xyz;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.smile.SmileConstants;
 import com.here.xyz.events.Event;
 import com.here.xyz.responses.XyzResponse;
 import com.here.xyz.util.Hasher;
@@ -108,6 +109,36 @@ public class Payload implements Typed {
     }
   }
 
+  /**
+   * Determines if the payload is encoded in the binary format (Smile) instead of JSON. Binary payloads always start with the Smile header.
+   *
+   * @param bytes the payload
+   * @return true if the payload is binary encoded or false otherwise
+   */
+  public static boolean isBinary(byte[] bytes) {
+    return bytes != null && bytes.length >= 3 && bytes[0] == SmileConstants.HEADER_BYTE_1 && bytes[1] == SmileConstants.HEADER_BYTE_2
+        && bytes[2] == SmileConstants.HEADER_BYTE_3;
+  }
+
+  /**
+   * Determines if the payload of an input stream is encoded in the binary format (Smile) instead of JSON. The input stream must support
+   * marks, it will be reset to its current position.
+   *
+   * @param is an input stream, which supports marks
+   * @return true if the payload is binary encoded or false otherwise
+   */
+  public static boolean isBinary(InputStream is) {
+    try {
+      byte[] bytes = new byte[3];
+      is.mark(3);
+      int read = is.read(bytes);
+      is.reset();
+      return read == 3 && isBinary(bytes);
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
   public static byte[] compress(byte[] bytes) {
     final ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
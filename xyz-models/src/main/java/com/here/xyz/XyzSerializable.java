@@ -25,10 +25,15 @@ import static com.here.xyz.models.geojson.implementation.XyzError.TIMEOUT;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.here.xyz.responses.ErrorResponse;
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
@@ -39,6 +44,11 @@ public interface XyzSerializable {
   ThreadLocal<ObjectMapper> DEFAULT_MAPPER = ThreadLocal.withInitial(() -> new ObjectMapper().setSerializationInclusion(Include.NON_NULL));
   ThreadLocal<ObjectMapper> SORTED_MAPPER = ThreadLocal.withInitial(() ->
       new ObjectMapper().configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true).setSerializationInclusion(Include.NON_NULL));
+  /**
+   * The mapper for the binary encoding (Smile), which can be used between the hub and the connectors instead of JSON.
+   */
+  ThreadLocal<ObjectMapper> BINARY_MAPPER = ThreadLocal.withInitial(() ->
+      new ObjectMapper(new SmileFactory()).setSerializationInclusion(Include.NON_NULL));
 
   @SuppressWarnings("unused")
   static <T extends Typed> String serialize(T object) {
@@ -64,11 +74,47 @@ public interface XyzSerializable {
   }
 
   static <T> T deserialize(InputStream is, Class<T> klass) throws JsonProcessingException {
+    if (!is.markSupported()) {
+      is = new BufferedInputStream(is);
+    }
+    if (Payload.isBinary(is)) {
+      try {
+        return BINARY_MAPPER.get().readValue(is, klass);
+      } catch (JsonProcessingException e) {
+        throw e;
+      } catch (IOException e) {
+        throw JsonMappingException.fromUnexpectedIOE(e);
+      }
+    }
+
     try (Scanner scanner = new java.util.Scanner(is)) {
       return deserialize(scanner.useDelimiter("\\A").next(), klass);
     }
   }
 
+  /**
+   * Deserializes a payload, which is either encoded as JSON or in the binary format.
+   */
+  @SuppressWarnings("unchecked")
+  static <T extends Typed> T deserialize(byte[] bytes) throws JsonProcessingException {
+    return (T) deserialize(bytes, Typed.class);
+  }
+
+  static <T> T deserialize(byte[] bytes, Class<T> klass) throws JsonProcessingException {
+    if (!Payload.isBinary(bytes)) {
+      // JSON is parsed from a string, so that lazy values (e.g. the features of a FeatureCollection) can be extracted without parsing them
+      return deserialize(new String(bytes, StandardCharsets.UTF_8), klass);
+    }
+
+    try {
+      return BINARY_MAPPER.get().readValue(bytes, klass);
+    } catch (JsonProcessingException e) {
+      throw e;
+    } catch (IOException e) {
+      throw JsonMappingException.fromUnexpectedIOE(e);
+    }
+  }
+
   static <T extends Typed> T deserialize(String string) throws JsonProcessingException {
     //noinspection unchecked
     return (T) deserialize(string, Typed.class);
@@ -135,6 +181,17 @@ public interface XyzSerializable {
     }
   }
 
+  /**
+   * Serializes this object either as UTF-8 encoded JSON or in the binary format.
+   */
+  default byte[] toByteArray(boolean binary) {
+    try {
+      return (binary ? BINARY_MAPPER : DEFAULT_MAPPER).get().writeValueAsBytes(this);
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   default <T extends XyzSerializable> T copy() {
     try {
       //noinspection unchecked
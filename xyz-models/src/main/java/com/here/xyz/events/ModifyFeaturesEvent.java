@@ -55,6 +55,7 @@ public final class ModifyFeaturesEvent extends Event<ModifyFeaturesEvent> {
   private Boolean transaction;
   private Boolean enableHistory;
   private Boolean enableUUID;
+  private Boolean conflictDetection;
   private List<ModificationFailure> failed;
 
   /**
@@ -220,6 +221,29 @@ public final class ModifyFeaturesEvent extends Event<ModifyFeaturesEvent> {
     return this;
   }
 
+  /**
+   * Returns true if the storage must only update a feature, if its stored state still has the uuid, which the updated state was based
+   * on. That is the previous uuid (puuid) of the updated state. Otherwise the update must be reported as failed. Only applies when the
+   * uuid is enabled.
+   *
+   * @return true if the storage must detect conflicting updates, false otherwise.
+   */
+  @SuppressWarnings("unused")
+  public Boolean getConflictDetection() {
+    return this.conflictDetection;
+  }
+
+  @SuppressWarnings("WeakerAccess")
+  public void setConflictDetection(Boolean conflictDetection) {
+    this.conflictDetection = conflictDetection;
+  }
+
+  @SuppressWarnings("unused")
+  public ModifyFeaturesEvent withConflictDetection(Boolean conflictDetection) {
+    setConflictDetection(conflictDetection);
+    return this;
+  }
+
   /**
    * @return A list of modification failures
    */
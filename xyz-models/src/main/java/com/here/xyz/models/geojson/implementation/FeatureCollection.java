@@ -19,6 +19,7 @@
 
 package com.here.xyz.models.geojson.implementation;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
@@ -114,6 +115,14 @@ public class FeatureCollection extends XyzResponse<FeatureCollection> {
     return features != null ? this.features.get() : null;
   }
 
+  /**
+   * Returns the length of the JSON string or of the UTF-8 encoded JSON of the features, if they were not parsed yet, otherwise -1.
+   */
+  @JsonIgnore
+  public int getRawFeaturesLength() {
+    return features != null ? features.getValueStringLength() : -1;
+  }
+
   public void setFeatures(List<Feature> features) {
     if (this.features == null) {
       this.features = new LazyParsable<>();
@@ -127,6 +136,8 @@ public class FeatureCollection extends XyzResponse<FeatureCollection> {
   public void _setFeatures(Object features) {
     if (features instanceof String) {
       this.features = new LazyParsable<>((String) features);
+    } else if (features instanceof byte[]) {
+      this.features = new LazyParsable<>((byte[]) features);
     } else if (features instanceof List) {
       this.features = new LazyParsable<>();
       //noinspection unchecked
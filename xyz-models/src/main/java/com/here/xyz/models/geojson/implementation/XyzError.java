@@ -67,6 +67,13 @@ public enum XyzError {
    */
   TIMEOUT("Timeout"),
 
+  /**
+   * The request conflicts with the current state of a resource, for example an object was modified concurrently.
+   *
+   * This will lead to a HTTP 409 Conflict response.
+   */
+  CONFLICT("Conflict"),
+
   /**
    * An unexpected error (not further specified) happened while processing the request. Details will be found in the {@link
    * ErrorResponse#getErrorMessage()}.
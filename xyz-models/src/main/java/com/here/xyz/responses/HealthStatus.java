@@ -22,6 +22,7 @@ package com.here.xyz.responses;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.here.xyz.events.HealthCheckEvent;
+import java.util.Map;
 
 /**
  * The response being sent in response to an {@link HealthCheckEvent} when the service is healthy. If the service is not healthy it should
@@ -32,6 +33,7 @@ import com.here.xyz.events.HealthCheckEvent;
 public class HealthStatus extends XyzResponse<HealthStatus> {
 
   private String status;
+  private Map<String, Object> metrics;
 
   public HealthStatus() {
     super();
@@ -51,4 +53,22 @@ public class HealthStatus extends XyzResponse<HealthStatus> {
     setStatus(status);
     return this;
   }
+
+  /**
+   * Returns the optional metrics of the service, e.g. about the effectiveness of its caches.
+   */
+  public Map<String, Object> getMetrics() {
+    return this.metrics;
+  }
+
+  @SuppressWarnings("WeakerAccess")
+  public void setMetrics(Map<String, Object> metrics) {
+    this.metrics = metrics;
+  }
+
+  @SuppressWarnings("unused")
+  public HealthStatus withMetrics(Map<String, Object> metrics) {
+    setMetrics(metrics);
+    return this;
+  }
 }
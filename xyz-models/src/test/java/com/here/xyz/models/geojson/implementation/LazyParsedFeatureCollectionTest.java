@@ -28,11 +28,13 @@ import static org.junit.Assert.fail;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.here.xyz.LazyParsable;
+import com.here.xyz.Payload;
 import com.here.xyz.XyzSerializable;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -179,6 +181,28 @@ public class LazyParsedFeatureCollectionTest {
     }
   }
 
+  @Test
+  public void testRawBytes() throws Exception {
+    final String features = "[{\"type\":\"Feature\",\"id\":\"a\",\"properties\":{\"name\":\"\u00e4\"}}]";
+    final FeatureCollection fc = new FeatureCollection();
+    fc._setFeatures(features.getBytes(StandardCharsets.UTF_8));
+
+    // JSON: the bytes are written as they are
+    final String json = new String(fc.toByteArray(false), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"features\":" + features));
+
+    // Binary: the features are transcoded and parsed, when the binary response is read
+    final byte[] binary = fc.toByteArray(true);
+    assertTrue(Payload.isBinary(binary));
+    final FeatureCollection result = XyzSerializable.deserialize(binary);
+    assertEquals(1, result.getFeatures().size());
+    assertEquals("a", result.getFeatures().get(0).getId());
+    assertEquals("\u00e4", result.getFeatures().get(0).getProperties().get("name"));
+
+    // The raw bytes can be parsed as well
+    assertEquals("a", fc.getFeatures().get(0).getId());
+  }
+
   /**
    * Pretty naive solution, just to be used in these tests
    */
@@ -29,8 +29,17 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.apache.commons.dbutils.QueryRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class Capabilities {
 
@@ -43,91 +52,190 @@ public class Capabilities {
       List<String> keys = query.stream().flatMap(List::stream)
           .filter(k -> k.getKey() != null && k.getKey().length() > 0).map(PropertyQuery::getKey).collect(Collectors.toList());
 
-      int idx_check = 0;
-
       for (String key : keys) {
         if (key.equals("id")) {
           return true;
         }
         String[] parts = key.split("\\.");
-        if (parts.length < 2 || !parts[0].equals("properties")) {
-          continue;
-        }
-
-        if (parts.length == 3 && parts[1].equals("@ns:com:here:xyz") && (parts[2].equals("createdAt") || parts[2].equals("updatedAt"))) {
+        if (parts.length == 3 && parts[0].equals("properties") && parts[1].equals("@ns:com:here:xyz")
+            && (parts[2].equals("createdAt") || parts[2].equals("updatedAt"))) {
           return true;
         }
-        if (parts.length >= 2) {
-          List<String> indices = IndexList.getIndexList(space, connector);
+      }
 
-          // The table is small and not indexed. It's not listed in the xyz_idxs_status table
-          if (indices == null) {
-            return true;
-          }
-          // REMOVE TABLE IF <10.000 and idx_manual = {} or null
+      List<String> indices = IndexList.getIndexList(space, connector);
 
-          if (indices.contains(key.substring("properties.".length()))) {
-        	  /** Check if all properties are indexed */
-        	  idx_check++;
-          }
-        }
+      // The table is small and not indexed. It's not listed in the xyz_idxs_status table
+      if (indices == null) {
+        return true;
       }
+      // REMOVE TABLE IF <10.000 and idx_manual = {} or null
 
-      if(idx_check == keys.size())
-    	  return true;
-
-      return IndexList.getIndexList(space, connector) == null;
+      return canSearchFor(query, indices);
     } catch (Exception e) {
       // In all cases, when something with the check went wrong, allow the search
       return true;
     }
   }
 
+  /**
+   * Returns true, if the database can use an index for each conjunction of the query. That is the case, when all properties of the
+   * conjunction are indexed or when the conjunction has an equality of an indexed property, which drives the search, while the other
+   * predicates are filtered on its results.
+   *
+   * @param query the properties query.
+   * @param indices the indexed properties of the space.
+   */
+  static boolean canSearchFor(PropertiesQuery query, List<String> indices) {
+    final PropertiesQueryPlanner planner = new PropertiesQueryPlanner(indices);
+    return query.stream().allMatch(conjunction -> conjunction.stream()
+        .filter(q -> q != null && q.getKey() != null && q.getKey().length() > 0)
+        .allMatch(q -> planner.isIndexed(q.getKey()))
+        || conjunction.stream().anyMatch(planner::canDrive));
+  }
+
+  /**
+   * The cached index list of a space as listed in the xyz_config.xyz_idxs_status table. When an index list expires, the index lists of all
+   * spaces of the database are refreshed in the background with a single query, while the requests keep using the current lists.
+   */
   public static class IndexList {
 
+    private static final Logger logger = LoggerFactory.getLogger(IndexList.class);
+
+    /**
+     * The interval, after which the index lists get refreshed.
+     */
     static long CACHE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(3);
 
+    /**
+     * The interval, after which the index list of a space gets refreshed, while xyz_maintain_idxs_for_space() creates its indexes. The
+     * function marks the index creation as finished, when it has updated the list of the available indexes.
+     */
+    static long MAINTENANCE_INTERVAL_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private static final String SELECT_INDEX_LISTS = "SELECT spaceid, idx_available, idx_creation_finished FROM xyz_config.xyz_idxs_status";
+
+    static final ConcurrentHashMap<String, IndexList> cachedIndices = new ConcurrentHashMap<>();
+    private static final Set<DataSource> refreshing = ConcurrentHashMap.newKeySet();
+    private static final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+      final Thread thread = new Thread(r, "IndexListRefresher");
+      thread.setDaemon(true);
+      return thread;
+    });
+
     static List<String> getIndexList(String space, PSQLXyzConnector connector) throws SQLException {
       IndexList indexList = cachedIndices.get(space);
-      if (indexList != null && indexList.expiry >= System.currentTimeMillis()) {
-        return indexList.indices;
+      if (indexList == null) {
+        // Only the first lookup of a space blocks, afterwards the list is refreshed together with the lists of all other spaces
+        final DataSource dataSource = connector.readDataSource;
+        indexList = new QueryRunner(dataSource).query(SELECT_INDEX_LISTS + " WHERE spaceid=?", rs -> rsHandler(rs, dataSource), space)
+            .getOrDefault(space, new IndexList(null, dataSource, false));
+        cachedIndices.put(space, indexList);
+      } else if (indexList.expiry < System.currentTimeMillis()) {
+        refresh(indexList.dataSource);
       }
-
-      indexList = connector.executeQuery(new SQLQuery("SELECT idx_available FROM xyz_config.xyz_idxs_status WHERE spaceid=?", space),
-          Capabilities::rsHandler);
-      cachedIndices.put(space, indexList);
       return indexList.indices;
     }
 
-    IndexList(List<String> indices) {
+    /**
+     * Drops the index list of the space, so that the next lookup loads it again. This is used, when the on-demand indexes of the space
+     * were changed or the space was deleted.
+     */
+    static void invalidate(String space) {
+      cachedIndices.remove(space);
+    }
+
+    /**
+     * Reloads the cached index lists of all spaces of the database in the background, unless a refresh is already running.
+     */
+    private static void refresh(DataSource dataSource) {
+      if (!refreshing.add(dataSource)) {
+        return;
+      }
+      try {
+        refresher.execute(() -> {
+          try {
+            final Map<String, IndexList> snapshot = snapshot(dataSource);
+            update(snapshot, new QueryRunner(dataSource).query(SELECT_INDEX_LISTS, rs -> rsHandler(rs, dataSource)));
+          } catch (Exception e) {
+            logger.warn("Failed to refresh the index lists: {}", e);
+          } finally {
+            refreshing.remove(dataSource);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        refreshing.remove(dataSource);
+      }
+    }
+
+    /**
+     * Returns the index lists of the spaces of the database, which are cached before it gets queried for a refresh.
+     */
+    static Map<String, IndexList> snapshot(DataSource dataSource) {
+      final Map<String, IndexList> snapshot = new HashMap<>();
+      cachedIndices.forEach((space, indexList) -> {
+        if (indexList.dataSource == dataSource) {
+          snapshot.put(space, indexList);
+        }
+      });
+      return snapshot;
+    }
+
+    /**
+     * Replaces the index lists of the snapshot with the loaded ones. An index list is only replaced, if it's still the one of the snapshot.
+     * So a list, which was invalidated or loaded again while the refresh was running, is not overwritten by an outdated one.
+     */
+    static void update(Map<String, IndexList> snapshot, Map<String, IndexList> loaded) {
+      snapshot.forEach((space, indexList) -> {
+        IndexList loadedList = loaded.get(space);
+        // The space is not listed anymore
+        if (loadedList == null) {
+          loadedList = new IndexList(null, indexList.dataSource, false);
+        }
+        cachedIndices.replace(space, indexList, loadedList);
+      });
+    }
+
+    IndexList(List<String> indices, DataSource dataSource, boolean inMaintenance) {
+      this(indices, dataSource, System.currentTimeMillis() + (inMaintenance ? MAINTENANCE_INTERVAL_MS : CACHE_INTERVAL_MS));
+    }
+
+    private IndexList(List<String> indices, DataSource dataSource, long expiry) {
       this.indices = indices;
-      expiry = System.currentTimeMillis() + CACHE_INTERVAL_MS;
+      this.dataSource = dataSource;
+      this.expiry = expiry;
     }
 
-    List<String> indices;
-    long expiry;
+    final List<String> indices;
+    final DataSource dataSource;
+    final long expiry;
+  }
 
-    static Map<String, IndexList> cachedIndices = new HashMap<>();
+  static Map<String, IndexList> rsHandler(ResultSet rs, DataSource dataSource) throws SQLException {
+    final Map<String, IndexList> indexLists = new HashMap<>();
+    while (rs.next()) {
+      // A missing state is treated as finished
+      final boolean creationFinished = rs.getBoolean("idx_creation_finished");
+      final boolean inMaintenance = !creationFinished && !rs.wasNull();
+      indexLists.put(rs.getString("spaceid"), new IndexList(parseIndices(rs.getString("idx_available")), dataSource, inMaintenance));
+    }
+    return indexLists;
   }
 
-  public static IndexList rsHandler(ResultSet rs) {
+  private static List<String> parseIndices(String idxAvailable) {
     try {
-      if (!rs.next()) {
-        return new IndexList(null);
-      }
       List<String> indices = new ArrayList<>();
 
-      String result = rs.getString("idx_available");
-      List<Map<String, Object>> raw = XyzSerializable.deserialize(result, new TypeReference<List<Map<String, Object>>>() {});
+      List<Map<String, Object>> raw = XyzSerializable.deserialize(idxAvailable, new TypeReference<List<Map<String, Object>>>() {});
       for (Map<String, Object> one : raw) {
         if (one.get("src").equals("a") || one.get("src").equals("m")) {
           indices.add((String) one.get("property"));
         }
       }
 
-      return new IndexList(indices);
+      return indices;
     } catch (Exception e) {
-      return new IndexList(null);
+      return null;
     }
   }
 }
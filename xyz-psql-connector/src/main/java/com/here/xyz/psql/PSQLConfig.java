@@ -27,8 +27,8 @@ import com.here.xyz.events.Event;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
@@ -84,6 +84,31 @@ class PSQLConfig {
    */
   private final static String PSQL_MAX_CONN = "PSQL_MAX_CONN";
 
+  /**
+   * The amount of rows to fetch at once when streaming the results of feature queries. 0 fetches the whole result at once.
+   */
+  static final String PSQL_FETCH_SIZE = "PSQL_FETCH_SIZE";
+  private final static int DEFAULT_FETCH_SIZE = 1000;
+
+  /**
+   * The minimal amount of features to be inserted at once, for which COPY is used instead of single insert statements. 0 disables COPY.
+   */
+  private final static String PSQL_COPY_THRESHOLD = "PSQL_COPY_THRESHOLD";
+  private final static int DEFAULT_COPY_THRESHOLD = 1000;
+
+  /**
+   * The minimal amount of features to be updated at once, for which a single UPDATE ... FROM unnest statement is used instead of single
+   * update statements. 0 disables the batched update.
+   */
+  static final String PSQL_BATCH_UPDATE_THRESHOLD = "PSQL_BATCH_UPDATE_THRESHOLD";
+  private final static int DEFAULT_BATCH_UPDATE_THRESHOLD = 16;
+
+  /**
+   * The amount of prepared statements, which are cached per connection.
+   */
+  private final static String PSQL_STATEMENT_CACHE_SIZE = "PSQL_STATEMENT_CACHE_SIZE";
+  private final static int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
   /**
    * The encrypted connector parameters.
    */
@@ -141,6 +166,62 @@ class PSQLConfig {
     }
   }
 
+  /**
+   * Returns the amount of rows to fetch at once when streaming the results of feature queries.
+   *
+   * @return the fetch size or 0, if the results should not be streamed.
+   */
+  int fetchSize() {
+    try {
+      final String value = readEnv(PSQL_FETCH_SIZE);
+      return value == null ? DEFAULT_FETCH_SIZE : Math.max(0, Integer.parseInt(value, 10));
+    } catch (Exception e) {
+      return DEFAULT_FETCH_SIZE;
+    }
+  }
+
+  /**
+   * Returns the minimal amount of features to be inserted at once, for which COPY is used.
+   *
+   * @return the threshold or 0, if COPY should not be used.
+   */
+  int copyThreshold() {
+    try {
+      final String value = readEnv(PSQL_COPY_THRESHOLD);
+      return value == null ? DEFAULT_COPY_THRESHOLD : Math.max(0, Integer.parseInt(value, 10));
+    } catch (Exception e) {
+      return DEFAULT_COPY_THRESHOLD;
+    }
+  }
+
+  /**
+   * Returns the minimal amount of features to be updated at once, for which a single batched update statement is used.
+   *
+   * @return the threshold or 0, if the batched update should not be used.
+   */
+  int batchUpdateThreshold() {
+    try {
+      final String value = readEnv(PSQL_BATCH_UPDATE_THRESHOLD);
+      return value == null ? DEFAULT_BATCH_UPDATE_THRESHOLD : Math.max(0, Integer.parseInt(value, 10));
+    } catch (Exception e) {
+      return DEFAULT_BATCH_UPDATE_THRESHOLD;
+    }
+  }
+
+  /**
+   * Returns the amount of prepared statements, which are cached per connection.
+   *
+   * @return the cache size or 0, if statements should not be cached.
+   */
+  int statementCacheSize() {
+    try {
+      final String value = readEnv(PSQL_STATEMENT_CACHE_SIZE);
+      return value == null ? DEFAULT_STATEMENT_CACHE_SIZE : Math.max(0, Integer.parseInt(value, 10));
+    } catch (Exception e) {
+      return DEFAULT_STATEMENT_CACHE_SIZE;
+    }
+  }
+
   /**
    * Returns the host of the PostgreSQL service.
    *
@@ -284,7 +365,7 @@ class PSQLConfig {
   }
 
   public static class AESHelper {
-    private static Map<String, AESHelper> helpers = new HashMap<>();
+    private static final Map<String, AESHelper> helpers = new ConcurrentHashMap<>();
     public byte[] key;
     /**
      * Returns an instance helper for this passphrase.
@@ -293,10 +374,7 @@ class PSQLConfig {
      */
     @SuppressWarnings("WeakerAccess")
     public static AESHelper getInstance( String passphrase ) {
-      if( helpers.get(passphrase) == null){
-        helpers.put(passphrase, new AESHelper(passphrase));
-      }
-      return helpers.get(passphrase);
+      return helpers.computeIfAbsent(passphrase, AESHelper::new);
     }
 
 
@@ -36,12 +36,14 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.sql.Array;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import org.apache.commons.dbutils.QueryRunner;
@@ -50,6 +52,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 import com.mchange.v2.c3p0.C3P0Registry;
+import com.mchange.v2.c3p0.PooledDataSource;
 
 
 @SuppressWarnings("SqlDialectInspection")
@@ -64,31 +67,31 @@ public abstract class PSQLRequestStreamHandler extends StorageConnector {
   private static final String VAR_SCHEMA = "${schema}";
   private static final String VAR_TABLE = "${table}";
 
+  /**
+   * The immutable configuration and the data sources for one ECPS string, which are shared by all requests using that ECPS string.
+   */
   public static class CachedConfig {
 
-    public CachedConfig(final DataSource source, final PSQLConfig config) {
+    public CachedConfig(final DataSource source, final DataSource replicaSource, final PSQLConfig config) {
       this.dataSource = source;
+      this.replicaDataSource = replicaSource;
       this.config = config;
+      this.tableRegistry = new TableRegistry(source);
+      this.sqlTextCache = new SQLTextCache();
     }
 
     final PSQLConfig config;
     final DataSource dataSource;
+    final DataSource replicaDataSource;
+    final TableRegistry tableRegistry;
+    final SQLTextCache sqlTextCache;
   }
 
   /**
-   * The configuration for the current event.
-   */
-  private static Map<String, PSQLConfig> configs = new HashMap<>();
-
-  /**
-   * The data source connections factory.
-   */
-  private static Map<String, DataSource> dataSources = new HashMap<>();
-
-  /**
-   * The data source connections factory.
+   * The configurations and data sources by their ECPS string. The registry is read without locking, so that concurrent requests of an
+   * embedded connector don't block each other.
    */
-  private static Map<String, DataSource> replicaDataSources = new HashMap<>();
+  private static final ConcurrentHashMap<String, CachedConfig> cachedConfigs = new ConcurrentHashMap<>();
 
   /**
    * The write data source for the current event.
@@ -105,11 +108,22 @@ public abstract class PSQLRequestStreamHandler extends StorageConnector {
    */
   PSQLConfig config;
 
+  /**
+   * The registry of the existing tables in the database of the current event.
+   */
+  TableRegistry tableRegistry;
+
+  /**
+   * The resolved SQL texts of the schema of the current event.
+   */
+  SQLTextCache sqlTextCache;
+
   private static final String TIMEOUT_EXCEPTION_STRING = "canceling statement due to statement timeout";
   private static final String XYZ_CONFIG_SCHEMA = "xyz_config";
   private static final int IDX_MIN_THRESHOLD = 10000;
   protected static final String C3P0EXT_CONFIG_SCHEMA = "config.schema()";
   protected static int ON_DEMAND_IDX_LIM = 4;
+  private static final int PREPARE_THRESHOLD = 2;
 
   @Override
   public XyzResponse processEvent(Event event) throws Exception {
@@ -124,50 +138,76 @@ public abstract class PSQLRequestStreamHandler extends StorageConnector {
     }
   }
 
+  /**
+   * Initializes the handler for the given event. The handler instance holds the state of a single request, while the configurations and
+   * data sources are shared, so that any number of handler instances can process requests concurrently.
+   */
   @Override
-  protected synchronized void initialize(Event event) throws Exception {
+  protected void initialize(Event event) throws Exception {
     this.event = event;
     final String ecps = PSQLConfig.getECPS(event);
 
-    if (!configs.containsKey(ecps)) {
-      logger.info("{} - Create new config and data source for ECPS string: '{}'", streamId, ecps);
-      final PSQLConfig config = initializeConfig(event, context);
-
-      final ComboPooledDataSource source = getComboPooledDataSource(config.host(), config.port(), config.database(), config.user(),
-          config.password(), config.applicationName(), config.maxPostgreSQLConnections());
-      dataSources.put(ecps, source);
-
-      Map<String,String> m = new HashMap<>();
-      m.put( C3P0EXT_CONFIG_SCHEMA ,config.schema());
-      source.setExtensions( m );
-
-      if (config.replica() != null) {
-        final ComboPooledDataSource replicaDataSource = getComboPooledDataSource(config.replica(), config.port(), config.database(),
-            config.user(), config.password(), config.applicationName(), config.maxPostgreSQLConnections());
-        replicaDataSources.put(ecps, replicaDataSource);
-
-        replicaDataSource.setExtensions( m );
+    CachedConfig cachedConfig = cachedConfigs.get(ecps);
+    if (cachedConfig == null) {
+      final CachedConfig newConfig = createCachedConfig(event, ecps);
+      cachedConfig = cachedConfigs.putIfAbsent(ecps, newConfig);
+      if (cachedConfig == null) {
+        cachedConfig = newConfig;
+      } else {
+        // Another request created the data sources for this ECPS string concurrently
+        close(newConfig);
       }
-
-      configs.put(ecps, config);
     }
 
     // Set the for write operations
-    dataSource = dataSources.get(ecps);
+    dataSource = cachedConfig.dataSource;
     // Set the data source for read operations.
-    readDataSource = (replicaDataSources.containsKey(ecps) && (event.getPreferPrimaryDataSource() == null
-        || event.getPreferPrimaryDataSource() == Boolean.FALSE)) ? replicaDataSources.get(ecps) : dataSource;
+    readDataSource = (cachedConfig.replicaDataSource != null && (event.getPreferPrimaryDataSource() == null
+        || event.getPreferPrimaryDataSource() == Boolean.FALSE)) ? cachedConfig.replicaDataSource : dataSource;
 
-    config = configs.get(ecps);
+    config = cachedConfig.config;
+    tableRegistry = cachedConfig.tableRegistry;
+    sqlTextCache = cachedConfig.sqlTextCache;
     logger.info("{} - Connect to database: jdbc:postgresql://{}:{}/{}?user={}&password=***  |ecps={}", streamId, config.host(),
         config.port(), config.database(), config.user(), ecps);
   }
 
+  private CachedConfig createCachedConfig(Event event, String ecps) throws Exception {
+    logger.info("{} - Create new config and data source for ECPS string: '{}'", streamId, ecps);
+    final PSQLConfig config = initializeConfig(event, context);
+
+    final ComboPooledDataSource source = getComboPooledDataSource(config.host(), config.port(), config.database(), config.user(),
+        config.password(), config.applicationName(), config.maxPostgreSQLConnections(), config.statementCacheSize());
+
+    Map<String,String> m = new HashMap<>();
+    m.put( C3P0EXT_CONFIG_SCHEMA ,config.schema());
+    source.setExtensions( m );
+
+    ComboPooledDataSource replicaDataSource = null;
+    if (config.replica() != null) {
+      replicaDataSource = getComboPooledDataSource(config.replica(), config.port(), config.database(),
+          config.user(), config.password(), config.applicationName(), config.maxPostgreSQLConnections(), config.statementCacheSize());
+
+      replicaDataSource.setExtensions( m );
+    }
+
+    return new CachedConfig(source, replicaDataSource, config);
+  }
+
+  private void close(CachedConfig cachedConfig) {
+    ((ComboPooledDataSource) cachedConfig.dataSource).close();
+    if (cachedConfig.replicaDataSource != null) {
+      ((ComboPooledDataSource) cachedConfig.replicaDataSource).close();
+    }
+  }
+
   private ComboPooledDataSource getComboPooledDataSource(String host, int port, String database, String user,
-      String password, String applicationName, int maxPostgreSQLConnections) {
+      String password, String applicationName, int maxPostgreSQLConnections, int statementCacheSize) {
     final ComboPooledDataSource cpds = new ComboPooledDataSource();
 
-    cpds.setJdbcUrl( String.format("jdbc:postgresql://%1$s:%2$d/%3$s?ApplicationName=%4$s&tcpKeepAlive=true",host,port,database,applicationName) );
+    // Statements, which are executed more than once on a connection, are prepared on the server and planned only once.
+    cpds.setJdbcUrl( String.format("jdbc:postgresql://%1$s:%2$d/%3$s?ApplicationName=%4$s&tcpKeepAlive=true&prepareThreshold=%5$d",
+        host,port,database,applicationName,PREPARE_THRESHOLD) );
 
     cpds.setUser(user);
     cpds.setPassword(password);
@@ -176,6 +216,7 @@ public abstract class PSQLRequestStreamHandler extends StorageConnector {
     cpds.setMinPoolSize(1);
     cpds.setAcquireIncrement(1);
     cpds.setMaxPoolSize(maxPostgreSQLConnections);
+    cpds.setMaxStatementsPerConnection(statementCacheSize);
 
     cpds.setConnectionCustomizerClassName( PSQLXyzConnector.XyzConnectionCustomizer.class.getName() );
 
@@ -428,12 +469,39 @@ public abstract class PSQLRequestStreamHandler extends StorageConnector {
         Thread.sleep(targetResponseTime - now);
       }
 
-      return new HealthStatus().withStatus("OK");
+      logStatementCacheStatistics();
+      return new HealthStatus().withStatus("OK").withMetrics(getCacheMetrics());
     } catch (Exception e) {
       return new ErrorResponse().withStreamId(streamId).withError(XyzError.EXCEPTION).withErrorMessage(e.getMessage());
     }
   }
 
+  private Map<String, Object> getCacheMetrics() {
+    final Map<String, Object> metrics = new HashMap<>();
+    metrics.put("sqlTextCache", sqlTextCache.getMetrics());
+    return metrics;
+  }
+
+  private void logStatementCacheStatistics() {
+    logStatementCacheStatistics("primary", dataSource);
+    if (dataSource != readDataSource) {
+      logStatementCacheStatistics("replica", readDataSource);
+    }
+  }
+
+  private void logStatementCacheStatistics(String name, DataSource source) {
+    if (!(source instanceof PooledDataSource)) {
+      return;
+    }
+    try {
+      final PooledDataSource pool = (PooledDataSource) source;
+      logger.info("{} - Statement cache of the {} data source: statements={}, checkedOut={}", streamId, name,
+          pool.getStatementCacheNumStatementsAllUsers(), pool.getStatementCacheNumCheckedOutStatementsAllUsers());
+    } catch (SQLException e) {
+      logger.warn("{} - Unable to read the statement cache statistics: {}", streamId, e.getMessage());
+    }
+  }
+
   /**
    * The result handler for a CountFeatures event.
    *
@@ -476,6 +544,36 @@ public abstract class PSQLRequestStreamHandler extends StorageConnector {
     }
   }
 
+  /**
+   * Executes the given query and streams the result to the handler. The rows are fetched in chunks of the configured fetch size, so that
+   * the driver doesn't need to materialize the whole result set before the handler starts to process it.
+   */
+  <T> T executeStreamingQuery(SQLQuery query, ResultSetHandler<T> handler) throws SQLException {
+    final long start = System.currentTimeMillis();
+    try (Connection conn = readDataSource.getConnection()) {
+      query.setText(replaceVars(query.text()));
+      final String queryText = query.text();
+      final List<Object> queryParameters = query.parameters();
+      logger.info("{} - executeStreamingQuery: {} - Parameter: {}", streamId, queryText, queryParameters);
+
+      // The PostgreSQL driver only uses a cursor to fetch the rows, if the query is executed within a transaction.
+      conn.setAutoCommit(false);
+      try (PreparedStatement stmt = conn.prepareStatement(queryText)) {
+        stmt.setFetchSize(config.fetchSize());
+        new QueryRunner().fillStatement(stmt, queryParameters.toArray());
+        try (ResultSet rs = stmt.executeQuery()) {
+          return handler.handle(rs);
+        }
+      } finally {
+        conn.rollback();
+        conn.setAutoCommit(true);
+      }
+    } finally {
+      final long end = System.currentTimeMillis();
+      logger.info("{} - query time: {}ms", streamId, (end - start));
+    }
+  }
+
   /**
    * Executes the given update or delete query and returns the number of deleted or updated records.
    *
@@ -527,9 +625,10 @@ public abstract class PSQLRequestStreamHandler extends StorageConnector {
   }
 
   String replaceVars(String query) {
-    return query
+    final String table = config.table(event);
+    return sqlTextCache.get(table, query, template -> template
         .replace(VAR_SCHEMA, sqlQuote(config.schema()))
-        .replace(VAR_TABLE, sqlQuote(config.table(event)));
+        .replace(VAR_TABLE, sqlQuote(table)));
   }
 
   String replaceVars(String query, Map<String, String> replacements) {
@@ -38,7 +38,6 @@ import com.here.xyz.events.ModifyFeaturesEvent;
 import com.here.xyz.events.ModifySpaceEvent;
 import com.here.xyz.events.ModifySpaceEvent.Operation;
 import com.here.xyz.events.PropertiesQuery;
-import com.here.xyz.events.PropertyQuery.QueryOperation;
 import com.here.xyz.events.QueryEvent;
 import com.here.xyz.events.SearchForFeaturesEvent;
 import com.here.xyz.events.TagList;
@@ -51,6 +50,7 @@ import com.here.xyz.models.geojson.implementation.FeatureCollection;
 import com.here.xyz.models.geojson.implementation.FeatureCollection.ModificationFailure;
 import com.here.xyz.models.geojson.implementation.Geometry;
 import com.here.xyz.models.geojson.implementation.XyzError;
+import com.here.xyz.models.geojson.implementation.XyzNamespace;
 import com.here.xyz.responses.CountResponse;
 import com.here.xyz.responses.ErrorResponse;
 import com.here.xyz.responses.StatisticsResponse;
@@ -62,6 +62,7 @@ import com.here.xyz.responses.SuccessResponse;
 import com.here.xyz.responses.XyzResponse;
 import com.mchange.v2.c3p0.AbstractConnectionCustomizer;
 import com.vividsolutions.jts.io.WKBWriter;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -69,19 +70,24 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import org.apache.commons.dbutils.QueryRunner;
 import org.apache.commons.dbutils.ResultSetHandler;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.postgresql.util.PGobject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,10 +105,22 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
   private static final long EQUATOR_LENGTH = 40_075_016;
   private static final long TILE_SIZE = 256;
   private static final int MAX_PRECISE_STATS_COUNT = 10_000;
+  private static final byte[] GEOMETRY_KEY = ",\"geometry\":".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] NULL_VALUE = "null".getBytes(StandardCharsets.UTF_8);
+  private static final String COPY_STAGING_TABLE = "xyz_copy_staging";
+  private static final int COPY_CHUNK_SIZE = 1024 * 1024;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+  private static final char HANDLE_SEPARATOR = '_';
+  private static final String UPDATE_FAILED_MESSAGE = "The object does not exist.";
+  private static final String UPDATE_CONFLICT_MESSAGE = "The object does not exist or was modified concurrently.";
+  /**
+   * The condition of updates with conflict detection. The parameter is the uuid of the state, which the updated state was based on. If it
+   * is null, the update is not checked.
+   */
+  private static final String UUID_CONDITION = "(?::text IS NULL OR jsondata->'properties'->'@ns:com:here:xyz'->>'uuid' = ?)";
   private static final List<String> GEOMETRY_TYPES = Arrays
       .asList("Point", "LineString", "Polygon", "MultiPoint", "MultiLineString", "MultiPolygon");
   private static Pattern pattern = Pattern.compile("^BOX\\(([-\\d\\.]*)\\s([-\\d\\.]*),([-\\d\\.]*)\\s([-\\d\\.]*)\\)$");
-  private static Map<String, Boolean> initialized = new HashMap<>();
   protected Map<String, String> replacements = new HashMap<>();
   private boolean retryAttempted;
 
@@ -131,16 +149,20 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
     return new PSQLConfig(event, context);
   }
 
+  @Override
+  public XyzResponse processEvent(Event event) throws Exception {
+    try {
+      return super.processEvent(event);
+    } catch (Exception e) {
+      // Covers the failures, which were not retried
+      invalidateUndefinedTable(e);
+      throw e;
+    }
+  }
+
   @Override
   protected void initialize(Event event) throws Exception {
     super.initialize(event);
-
-    final String ecps = PSQLConfig.getECPS(event);
-    if (!initialized.containsKey(ecps)) {
-      synchronized (this) {
-        initialized.put(ecps, true);
-      }
-    }
     retryAttempted = false;
 
     replacements.put("idx_serial", "idx_" + config.table(event) + "_serial");
@@ -172,29 +194,43 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
   }
 
   /**
-   * A helper method that will test if the table for the space does exist.
+   * A helper method that will test if the table for the space does exist. The test uses the table registry, so that it only needs to
+   * query the database for the first test of a schema and for tables, which are not registered.
    *
    * @return true if the table for the space exists; false otherwise.
    * @throws SQLException if the test fails due to any SQL error.
    */
   private boolean hasTable() throws SQLException {
-    QueryRunner run = new QueryRunner(dataSource);
     if (event instanceof HealthCheckEvent) {
       return true;
     }
 
-    PSQLConfig pConfig = (PSQLConfig) config;
-    long start = System.currentTimeMillis();
-    try (final Connection conn = dataSource.getConnection()) {
-      try (final ResultSet rs = conn.getMetaData()
-          .getTables(null, pConfig.schema(), pConfig.table(event), new String[]{"TABLE", "VIEW"})) {
-        if (rs.next()) {
-          long end = System.currentTimeMillis();
-          logger.info("{} - Time for table check: " + (end - start) + "ms", streamId);
-          return true;
+    return tableRegistry.contains(config.schema(), config.table(event));
+  }
+
+  /**
+   * Returns true, if the exception or one of its causes reports an undefined table (SQL state 42P01).
+   */
+  private static boolean isUndefinedTable(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof SQLException) {
+        for (SQLException sqlException = (SQLException) t; sqlException != null; sqlException = sqlException.getNextException()) {
+          if ("42P01".equals(sqlException.getSQLState())) {
+            return true;
+          }
         }
       }
-      return false;
+    }
+    return false;
+  }
+
+  /**
+   * Removes the table of the current event from the table registry, if the exception reports that it's undefined. The registry is
+   * outdated in that case, e.g. because another instance dropped the table.
+   */
+  private void invalidateUndefinedTable(Throwable e) {
+    if (isUndefinedTable(e) && config != null && tableRegistry != null) {
+      tableRegistry.remove(config.schema(), config.table(event));
     }
   }
 
@@ -249,6 +285,7 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
 
           stmt.executeBatch();
           connection.commit();
+          tableRegistry.add(config.schema(), tableName);
           logger.info("{} - Successfully created table for space '{}'", streamId, event.getSpace());
         }
       } catch (Exception e) {
@@ -282,38 +319,46 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
   protected FeatureCollection resultSetHandler(ResultSet rs) throws SQLException {
     final boolean isIterate = (event instanceof IterateFeaturesEvent);
     long nextHandle = 0;
-    StringBuilder sb = new StringBuilder();
-    String prefix = "[";
-    sb.append(prefix);
+    int numRows = 0;
     int numFeatures = 0;
-    while (rs.next()) {
-      sb.append(rs.getString(1));
-      String geom = rs.getString(2);
-      sb.setLength(sb.length() - 1);
-      sb.append(",\"geometry\":");
-      sb.append(geom == null ? "null" : geom);
-      sb.append("}");
-      sb.append(",");
+    final ResultBuffer buffer = ResultBuffer.acquire();
+    try {
+      buffer.append((byte) '[');
+      while (rs.next()) {
+        numRows++;
+        if (isIterate) {
+          nextHandle = rs.getLong(3);
+        }
 
-      if (isIterate) {
-        numFeatures++;
-        nextHandle = rs.getLong(3);
+        // The columns are read as the raw UTF-8 bytes sent by the server, which avoids to decode every row into a string.
+        final byte[] jsondata = rs.getBytes(1);
+        if (jsondata == null) {
+          continue;
+        }
+        final byte[] geom = rs.getBytes(2);
+        if (numFeatures++ > 0) {
+          buffer.append((byte) ',');
+        }
+        buffer.append(jsondata, jsondata.length - 1);
+        buffer.append(GEOMETRY_KEY);
+        buffer.append(geom == null ? NULL_VALUE : geom);
+        buffer.append((byte) '}');
       }
-    }
-    if (sb.length() > prefix.length()) {
-      sb.setLength(sb.length() - 1);
-    }
-    sb.append("]");
+      buffer.append((byte) ']');
 
-    final FeatureCollection featureCollection = new FeatureCollection();
-    featureCollection._setFeatures(sb.toString());
-    if (isIterate) {
-      if (numFeatures > 0 && numFeatures == ((IterateFeaturesEvent) event).getLimit()) {
-        featureCollection.setHandle("" + nextHandle);
+      // The bytes are written into the response as they are, without decoding them into a string.
+      final FeatureCollection featureCollection = new FeatureCollection();
+      featureCollection._setFeatures(buffer.toByteArray());
+      if (isIterate) {
+        if (numRows > 0 && numRows == ((IterateFeaturesEvent) event).getLimit()) {
+          featureCollection.setHandle("" + nextHandle);
+        }
       }
-    }
 
-    return featureCollection;
+      return featureCollection;
+    } finally {
+      buffer.release();
+    }
   }
 
   /**
@@ -363,19 +408,26 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
   }
 
   private FeatureCollection executeQueryWithRetry(SQLQuery query) throws SQLException {
-    return executeQueryWithRetry(query, this::resultSetHandler);
+    return executeQueryWithRetry(query, this::resultSetHandler, config.fetchSize() > 0);
+  }
+
+  private <T extends XyzResponse> T executeQueryWithRetry(SQLQuery query, ResultSetHandler<T> handler) throws SQLException {
+    return executeQueryWithRetry(query, handler, false);
   }
 
   /**
    * Executes the query and reattempt to execute the query, after
+   *
+   * @param stream if true, the rows are fetched in chunks while the handler processes them.
    */
-  private <T extends XyzResponse> T executeQueryWithRetry(SQLQuery query, ResultSetHandler<T> handler) throws SQLException {
+  private <T extends XyzResponse> T executeQueryWithRetry(SQLQuery query, ResultSetHandler<T> handler, boolean stream)
+      throws SQLException {
     try {
-      return executeQuery(query, handler);
+      return stream ? executeStreamingQuery(query, handler) : executeQuery(query, handler);
     } catch (Exception e) {
       try {
-        if (canRetryAttempt()) {
-          return executeQuery(query, handler);
+        if (canRetryAttempt(e)) {
+          return stream ? executeStreamingQuery(query, handler) : executeQuery(query, handler);
         }
       } catch (Exception e1) {
         throw e;
@@ -389,7 +441,7 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
       return executeUpdate(query);
     } catch (Exception e) {
       try {
-        if (canRetryAttempt()) {
+        if (canRetryAttempt(e)) {
           return executeUpdate(query);
         }
       } catch (Exception e1) {
@@ -503,7 +555,7 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
     QuadClustering.checkQuadInput(quadMode,resolution,event,streamId,this);
 
     if(propertiesQuery != null) {
-      propQuery = generatePropertiesQuery(propertiesQuery);
+      propQuery = createPlanner(event).generate(propertiesQuery);
 
       if(propQuery != null) {
         propQuerySQL = propQuery.text();
@@ -780,44 +832,97 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
           .withErrorMessage("Invalid request parameters. Search for the provided properties is not supported for this space.");
     }
 
-    final SQLQuery query = new SQLQuery("SELECT");
-    query.append(selectJson(event.getSelection()));
-    query.append(", geojson, i FROM ${schema}.${table}");
-    final SQLQuery searchQuery = generateSearchQuery(event);
+    final PropertiesQueryPlanner planner = createPlanner(event);
+    final PropertiesQueryPlanner.Plan plan = planner.plan(event.getPropertiesQuery());
+    final SQLQuery filterQuery = plan == null ? null : SQLQuery.join("AND", plan.filterQuery, generateTagsQuery(event.getTags()));
+    final SQLQuery searchQuery = filterQuery != null ? filterQuery : generateSearchQuery(event, planner);
     final boolean hasSearch = searchQuery != null;
-    final boolean hasHandle = handle != null;
-    final long start = hasHandle ? Long.parseLong(handle) : 0L;
 
-    if (hasSearch || hasHandle) {
-      query.append("WHERE");
+    // The handle of a filtered iteration contains the fingerprint of the search, so that it can't be continued with another search
+    final String fingerprint = isIterate && hasSearch ? searchFingerprint(event) : null;
+    final SQLQuery keysetQuery;
+    if (handle != null) {
+      final Long start = parseHandle(handle, fingerprint);
+      if (start == null) {
+        return new ErrorResponse().withStreamId(streamId).withError(XyzError.ILLEGAL_ARGUMENT)
+            .withErrorMessage("Invalid request parameters. The handle is invalid or doesn't belong to the provided search.");
+      }
+      keysetQuery = new SQLQuery("i > ?", start);
+    } else {
+      keysetQuery = null;
     }
 
-    if (hasSearch) {
-      query.append(searchQuery);
+    final SQLQuery query;
+    final SQLQuery whereQuery;
+    if (filterQuery != null && !isIterate) {
+      // Let the most selective indexed property drive the search and apply the remaining conditions on its results
+      query = new SQLQuery("WITH features(jsondata, geojson, i) AS (");
+      query.append("SELECT jsondata, geojson, i FROM ${schema}.${table} WHERE");
+      query.append(plan.drivingQuery);
+      query.append(")");
+      query.append("SELECT");
+      query.append(selectJson(event.getSelection()));
+      query.append(", geojson, i FROM features");
+      whereQuery = filterQuery;
+    } else {
+      // The conditions of an iteration must stay in one query with the ORDER BY and the LIMIT, as a CTE would be materialized completely
+      // for each page before they are applied
+      query = new SQLQuery("SELECT");
+      query.append(selectJson(event.getSelection()));
+      query.append(", geojson, i FROM ${schema}.${table}");
+      whereQuery = filterQuery != null ? SQLQuery.join("AND", plan.drivingQuery, filterQuery, keysetQuery)
+          : SQLQuery.join("AND", searchQuery, keysetQuery);
     }
 
-    if (hasHandle) {
-      if (hasSearch) {
-        query.append("OFFSET ?", start);
-      } else {
-        query.append("i > ?", start);
-      }
+    if (whereQuery != null) {
+      query.append("WHERE");
+      query.append(whereQuery);
     }
 
-    if (isIterate && !hasSearch) {
+    // The iteration continues after the last serial of the previous page, so the features are ordered by it, also when searching
+    if (isIterate) {
       query.append("ORDER BY i");
     }
 
     query.append("LIMIT ?", event.getLimit());
 
     FeatureCollection collection = executeQueryWithRetry(query);
-    if (isIterate && hasSearch && collection.getHandle() != null) {
-      collection.setHandle("" + (start + event.getLimit()));
+    if (fingerprint != null && collection.getHandle() != null) {
+      collection.setHandle(collection.getHandle() + HANDLE_SEPARATOR + fingerprint);
     }
 
     return collection;
   }
 
+  /**
+   * Returns the fingerprint of the properties and tags query of the event.
+   */
+  private String searchFingerprint(SearchForFeaturesEvent event) throws Exception {
+    final CRC32 crc = new CRC32();
+    crc.update(XyzSerializable.DEFAULT_MAPPER.get().writeValueAsBytes(Arrays.asList(event.getPropertiesQuery(), event.getTags())));
+    return Long.toHexString(crc.getValue());
+  }
+
+  /**
+   * Returns the serial, after which the iteration continues, or null, if the handle doesn't contain the fingerprint of the search or its
+   * serial is invalid.
+   */
+  private Long parseHandle(String handle, String fingerprint) {
+    String serial = handle;
+    if (fingerprint != null) {
+      final int separator = handle.indexOf(HANDLE_SEPARATOR);
+      if (separator < 0 || !fingerprint.equals(handle.substring(separator + 1))) {
+        return null;
+      }
+      serial = handle.substring(0, separator);
+    }
+    try {
+      return Long.parseLong(serial);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
   @Override
   protected XyzResponse processDeleteFeaturesByTagEvent(DeleteFeaturesByTagEvent event) throws Exception {
     if (config.isReadOnly()) {
@@ -878,6 +983,9 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
     final List<Feature> updates = event.getUpdateFeatures();
     if (updates != null) {
       for (final Feature feature : updates) {
+        if (isConflictDetection(event)) {
+          clearPuuidWithoutUuid(feature);
+        }
         Feature.finalizeFeature(feature, event.getSpace(), event.getEnableUUID() == Boolean.TRUE);
       }
     }
@@ -885,6 +993,31 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
     return executeModifyFeatures(event);
   }
 
+  private static boolean isConflictDetection(ModifyFeaturesEvent event) {
+    return event.getConflictDetection() == Boolean.TRUE && event.getEnableUUID() == Boolean.TRUE;
+  }
+
+  /**
+   * When the uuid is maintained, the previous uuid of an updated state is the uuid it was based on. An update without a uuid isn't based on
+   * a known state, so a previous uuid sent along with it must not be checked.
+   */
+  private static void clearPuuidWithoutUuid(Feature feature) {
+    final XyzNamespace nsXyz = feature.getProperties() == null ? null : feature.getProperties().getXyzNamespace();
+    if (nsXyz != null && nsXyz.getUuid() == null) {
+      nsXyz.setPuuid(null);
+    }
+  }
+
+  /**
+   * Returns the uuid, which the updated state must replace, or null, if it must not be checked.
+   */
+  private static String expectedUuid(ModifyFeaturesEvent event, Feature feature) {
+    if (!isConflictDetection(event) || feature.getProperties() == null || feature.getProperties().getXyzNamespace() == null) {
+      return null;
+    }
+    return feature.getProperties().getXyzNamespace().getPuuid();
+  }
+
   private FeatureCollection executeModifyFeatures(ModifyFeaturesEvent event) throws Exception {
     boolean includeOldStates = event.getParams() != null && event.getParams().get(PSQLConfig.INCLUDE_OLD_STATES) == Boolean.TRUE;
     List<Feature> oldFeatures = null;
@@ -945,7 +1078,7 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
                   if (firstConnectionAttempt && !retryAttempted) {
                     deleteAtomicStmt.close();
                     connection.close();
-                    canRetryAttempt();
+                    canRetryAttempt(e);
                     return executeModifyFeatures(event);
                   }
 
@@ -975,7 +1108,7 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
                   if (firstConnectionAttempt && !retryAttempted) {
                     deleteStmt.close();
                     connection.close();
-                    canRetryAttempt();
+                    canRetryAttempt(e);
                     return executeModifyFeatures(event);
                   }
 
@@ -989,7 +1122,10 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
         }
 
         // INSERT
-        if (inserts.size() > 0) {
+        if (config.copyThreshold() > 0 && inserts.size() >= config.copyThreshold() && copyInsertFeatures(connection, inserts,
+            transaction)) {
+          collection.getFeatures().addAll(inserts);
+        } else if (inserts.size() > 0) {
           String insertStmtSQL = "INSERT INTO ${schema}.${table} (jsondata, geo, geojson) VALUES(?::jsonb, ST_Force3D(ST_GeomFromWKB(?,4326)), ?::jsonb)";
           insertStmtSQL = replaceVars(insertStmtSQL);
           boolean batchInsert = false;
@@ -1054,7 +1190,7 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
                     insertStmt.close();
                     insertWithoutGeometryStmt.close();
                     connection.close();
-                    canRetryAttempt();
+                    canRetryAttempt(e);
                     return executeModifyFeatures(event);
                   }
                   logger.error("{} - Failed to insert object #{}: {}", streamId, i, e);
@@ -1076,14 +1212,23 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
         }
 
         // UPDATE
-        if (updates.size() > 0) {
-          String updateStmtSQL = "UPDATE ${schema}.${table} SET jsondata = ?::jsonb, geo=ST_Force3D(ST_GeomFromWKB(?,4326)), geojson = ?::jsonb WHERE jsondata->>'id' = ?";
+        // Whether the update at the position updated a row or null, if the update failed with an error, which was logged
+        final Boolean[] updated = new Boolean[updates.size()];
+        final int batchUpdateThreshold = config.batchUpdateThreshold();
+        final Set<String> updatedIds = batchUpdateThreshold > 0 && updates.size() >= batchUpdateThreshold
+            ? updateFeatures(connection, event, updates, transaction) : null;
+        if (updatedIds != null) {
+          for (int i = 0; i < updates.size(); i++) {
+            updated[i] = updatedIds.contains(updates.get(i).getId());
+          }
+        } else if (updates.size() > 0) {
+          String updateStmtSQL = "UPDATE ${schema}.${table} SET jsondata = ?::jsonb, geo=ST_Force3D(ST_GeomFromWKB(?,4326)), geojson = ?::jsonb WHERE jsondata->>'id' = ? AND " + UUID_CONDITION;
           updateStmtSQL = replaceVars(updateStmtSQL);
-          boolean batchUpdate = false;
+          final List<Integer> batchUpdatePositions = new ArrayList<>();
 
-          String updateWithoutGeometryStmtSQL = "UPDATE ${schema}.${table} SET  jsondata = ?::jsonb, geo=NULL, geojson = NULL WHERE jsondata->>'id' = ?";
+          String updateWithoutGeometryStmtSQL = "UPDATE ${schema}.${table} SET  jsondata = ?::jsonb, geo=NULL, geojson = NULL WHERE jsondata->>'id' = ? AND " + UUID_CONDITION;
           updateWithoutGeometryStmtSQL = replaceVars(updateWithoutGeometryStmtSQL);
-          boolean batchUpdateWithoutGeometry = false;
+          final List<Integer> batchUpdateWithoutGeometryPositions = new ArrayList<>();
 
           try (
               final PreparedStatement updateStmt = createStatement(connection, updateStmtSQL);
@@ -1096,6 +1241,7 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
                   throw new NullPointerException("id");
                 }
                 final String id = feature.getId();
+                final String expectedUuid = expectedUuid(event, feature);
                 final Geometry geometry = feature.getGeometry();
                 feature.setGeometry(null); // Do not serialize the geometry in the JSON object
 
@@ -1118,11 +1264,13 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
                 if (geometry == null) {
                   updateWithoutGeometryStmt.setObject(1, jsonbObject);
                   updateWithoutGeometryStmt.setString(2, id);
+                  updateWithoutGeometryStmt.setString(3, expectedUuid);
+                  updateWithoutGeometryStmt.setString(4, expectedUuid);
                   if (transaction) {
                     updateWithoutGeometryStmt.addBatch();
-                    batchUpdateWithoutGeometry = true;
+                    batchUpdateWithoutGeometryPositions.add(i);
                   } else {
-                    updateWithoutGeometryStmt.execute();
+                    updated[i] = updateWithoutGeometryStmt.executeUpdate() > 0;
                   }
                 } else {
                   updateStmt.setObject(1, jsonbObject);
@@ -1130,21 +1278,22 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
                   updateStmt.setBytes(2, wkbWriter.write(geometry.getJTSGeometry()));
                   updateStmt.setObject(3, geojsonbObject);
                   updateStmt.setString(4, id);
+                  updateStmt.setString(5, expectedUuid);
+                  updateStmt.setString(6, expectedUuid);
                   if (transaction) {
                     updateStmt.addBatch();
-                    batchUpdate = true;
+                    batchUpdatePositions.add(i);
                   } else {
-                    updateStmt.execute();
+                    updated[i] = updateStmt.executeUpdate() > 0;
                   }
                 }
-                collection.getFeatures().add(feature);
               } catch (Exception e) {
                 if (!transaction) {
                   if (firstConnectionAttempt && !retryAttempted) {
                     updateStmt.close();
                     updateWithoutGeometryStmt.close();
                     connection.close();
-                    canRetryAttempt();
+                    canRetryAttempt(e);
                     return executeModifyFeatures(event);
                   }
                   logger.error("{} - Failed to update object #{}: {}", streamId, i, e);
@@ -1154,15 +1303,33 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
               }
               firstConnectionAttempt = false;
             }
-            if (batchUpdate) {
-              updateStmt.executeBatch();
+            if (batchUpdatePositions.size() > 0) {
+              setUpdated(updated, batchUpdatePositions, updateStmt.executeBatch());
             }
-            if (batchUpdateWithoutGeometry) {
-              updateWithoutGeometryStmt.executeBatch();
+            if (batchUpdateWithoutGeometryPositions.size() > 0) {
+              setUpdated(updated, batchUpdateWithoutGeometryPositions, updateWithoutGeometryStmt.executeBatch());
             }
           }
         }
 
+        final List<String> notUpdatedIds = new ArrayList<>();
+        final String updateFailedMessage = isConflictDetection(event) ? UPDATE_CONFLICT_MESSAGE : UPDATE_FAILED_MESSAGE;
+        for (int i = 0; i < updates.size(); i++) {
+          final Feature feature = updates.get(i);
+          if (updated[i] == Boolean.TRUE) {
+            collection.getFeatures().add(feature);
+          } else if (updated[i] == Boolean.FALSE) {
+            notUpdatedIds.add(feature.getId());
+            updateIds.remove(feature.getId());
+            fails.add(new ModificationFailure().withId(feature.getId()).withPosition((long) i).withMessage(updateFailedMessage));
+          }
+        }
+        // A conflict is not transient, so the modification is not retried
+        if (transaction && isConflictDetection(event) && notUpdatedIds.size() > 0) {
+          throw new ErrorResponseException(streamId, XyzError.CONFLICT,
+              "Failed to update the objects " + notUpdatedIds + ": " + UPDATE_CONFLICT_MESSAGE);
+        }
+
         if (transaction) {
           connection.commit();
         }
@@ -1170,15 +1337,19 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
         try {
           if (event.getTransaction()) {
             connection.rollback();
-            if (!retryAttempted) {
+            if (!retryAttempted && !(e instanceof ErrorResponseException)) {
               connection.close();
-              canRetryAttempt();
+              canRetryAttempt(e);
               return executeModifyFeatures(event);
             }
           }
         } catch (Exception e2) {
           logger.error("{} - Unexpected exception while invoking a rollback: {}", streamId, e2);
         }
+        if (e instanceof ErrorResponseException) {
+          logger.info("{} - Failed to execute modify features: {}", streamId, e.getMessage());
+          throw e;
+        }
         logger.error("{} - Failed to execute modify features: {}", streamId, e);
         if (e instanceof SQLException) {
           throw e;
@@ -1219,7 +1390,8 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
     }
   }
 
-  private boolean canRetryAttempt() throws Exception {
+  private boolean canRetryAttempt(Exception e) throws Exception {
+    invalidateUndefinedTable(e);
     if (retryAttempted) {
       return false;
     }
@@ -1240,84 +1412,187 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
     return preparedStatement;
   }
 
-  private String getOperation(QueryOperation op) {
-    if (op == null) {
-      throw new NullPointerException("op is required");
-    }
-
-    switch (op) {
-      case EQUALS:
-        return "=";
-      case NOT_EQUALS:
-        return "<>";
-      case LESS_THAN:
-        return "<";
-      case GREATER_THAN:
-        return ">";
-      case LESS_THAN_OR_EQUALS:
-        return "<=";
-      case GREATER_THAN_OR_EQUALS:
-        return ">=";
-    }
+  /**
+   * Inserts the features by streaming them with COPY into a temporary staging table and inserting them from there into the space with a
+   * single statement. If this fails outside of a transaction, nothing was inserted and false is returned, so that the features can be
+   * inserted one by one instead.
+   *
+   * @return true, if all features were inserted; false otherwise.
+   */
+  private boolean copyInsertFeatures(Connection connection, List<Feature> inserts, boolean transaction) throws Exception {
+    final long start = System.currentTimeMillis();
+    try (Statement stmt = connection.createStatement()) {
+      stmt.setQueryTimeout(STATEMENT_TIMEOUT_SECONDS);
+      stmt.execute("CREATE TEMP TABLE IF NOT EXISTS " + COPY_STAGING_TABLE + " (jsondata jsonb, geojson jsonb, geo bytea)");
+      stmt.execute("TRUNCATE " + COPY_STAGING_TABLE);
+
+      final CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI()
+          .copyIn("COPY " + COPY_STAGING_TABLE + " (jsondata, geojson, geo) FROM STDIN WITH (FORMAT csv)");
+      try {
+        final WKBWriter wkbWriter = new WKBWriter(3);
+        final StringBuilder rows = new StringBuilder();
+        for (Feature feature : inserts) {
+          final Geometry geometry = feature.getGeometry();
+          feature.setGeometry(null); // Do not serialize the geometry in the JSON object
+          try {
+            appendCsvValue(rows, feature.serialize()).append(',');
+            if (geometry != null) {
+              appendCsvValue(rows, geometry.serialize()).append(",\\x");
+              appendHex(rows, wkbWriter.write(geometry.getJTSGeometry()));
+            } else {
+              rows.append(',');
+            }
+            rows.append('\n');
+          } finally {
+            feature.setGeometry(geometry);
+          }
 
-    return "";
-  }
+          if (rows.length() >= COPY_CHUNK_SIZE) {
+            final byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            rows.setLength(0);
+          }
+        }
+        final byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        copyIn.endCopy();
+      } finally {
+        if (copyIn.isActive()) {
+          copyIn.cancelCopy();
+        }
+      }
 
-  private SQLQuery createKey(String key) {
-    String[] results = key.split("\\.");
-    return new SQLQuery(
-        "jsondata->" + Collections.nCopies(results.length, "?").stream().collect(Collectors.joining("->")), results);
-  }
+      stmt.execute(replaceVars("INSERT INTO ${schema}.${table} (jsondata, geo, geojson) "
+          + "SELECT jsondata, ST_Force3D(ST_GeomFromWKB(geo,4326)), geojson FROM " + COPY_STAGING_TABLE));
 
-  private String getValue(Object value) {
-    if (value instanceof String) {
-      return "to_jsonb(?::text)";
-    }
-    if (value instanceof Number) {
-      return "to_jsonb(?::numeric)";
-    }
-    if (value instanceof Boolean) {
-      return "to_jsonb(?::boolean)";
+      // The rows are inserted at this point. The staging table is truncated again before the next usage, so outside of a transaction
+      // a failure is only logged. Returning false would insert all features a second time.
+      try {
+        stmt.execute("TRUNCATE " + COPY_STAGING_TABLE);
+      } catch (Exception e) {
+        if (transaction) {
+          throw e;
+        }
+        logger.warn("{} - Failed to truncate the COPY staging table: {}", streamId, e);
+      }
+      return true;
+    } catch (Exception e) {
+      if (transaction) {
+        throw e;
+      }
+      logger.warn("{} - Failed to insert {} objects with COPY, inserting them one by one: {}", streamId, inserts.size(), e);
+      return false;
+    } finally {
+      logger.info("{} - copy insert time: {}ms", streamId, System.currentTimeMillis() - start);
     }
-    return "";
   }
 
-  private SQLQuery generatePropertiesQuery(PropertiesQuery properties) {
-    if (properties == null || properties.size() == 0) {
-      return null;
-    }
-    // TODO: This is only a hot-fix for the connector. The issue is caused in the service and the code below will be removed after the next XYZ Hub deployment
-    if (properties.get(0).size() == 0 || properties.get(0).size() == 1 && properties.get(0).get(0) == null) {
+  /**
+   * Updates all features with a single statement, which joins the table with the unnested arrays of the new feature states. Features,
+   * which don't exist or, with conflict detection, were modified concurrently, are not updated; like for the single updates, the caller
+   * reports them as failed. If a batch contains the same id more than once, the last state wins.
+   *
+   * @return the ids of the updated features or null, if the statement failed outside of a transaction, so that the features can be
+   * updated one by one instead.
+   */
+  private Set<String> updateFeatures(Connection connection, ModifyFeaturesEvent event, List<Feature> updates, boolean transaction)
+      throws Exception {
+    final long start = System.currentTimeMillis();
+    final String updateStmtSQL = replaceVars("UPDATE ${schema}.${table} t SET jsondata = u.jsondata::jsonb, "
+        + "geo = ST_Force3D(ST_GeomFromWKB(decode(u.geo, 'hex'), 4326)), geojson = u.geojson::jsonb "
+        + "FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[]) AS u(id, jsondata, geojson, geo, puuid) "
+        + "WHERE t.jsondata->>'id' = u.id "
+        + "AND (u.puuid IS NULL OR t.jsondata->'properties'->'@ns:com:here:xyz'->>'uuid' = u.puuid) RETURNING u.id");
+
+    try (final PreparedStatement updateStmt = createStatement(connection, updateStmtSQL)) {
+      // The last state of each id, as UPDATE ... FROM would apply an arbitrary one of several rows joining the same feature
+      final Map<String, Feature> lastStates = new LinkedHashMap<>();
+      for (Feature feature : updates) {
+        if (feature.getId() == null) {
+          throw new NullPointerException("id");
+        }
+        lastStates.remove(feature.getId());
+        lastStates.put(feature.getId(), feature);
+      }
+
+      final int size = lastStates.size();
+      final String[] ids = new String[size];
+      final String[] jsons = new String[size];
+      final String[] geojsons = new String[size];
+      final String[] geos = new String[size];
+      final String[] puuids = new String[size];
+      final WKBWriter wkbWriter = new WKBWriter(3);
+      final StringBuilder hex = new StringBuilder();
+
+      int i = 0;
+      for (Feature feature : lastStates.values()) {
+        final Geometry geometry = feature.getGeometry();
+        feature.setGeometry(null); // Do not serialize the geometry in the JSON object
+        try {
+          ids[i] = feature.getId();
+          puuids[i] = expectedUuid(event, feature);
+          jsons[i] = feature.serialize();
+          if (geometry != null) {
+            geojsons[i] = geometry.serialize();
+            hex.setLength(0);
+            appendHex(hex, wkbWriter.write(geometry.getJTSGeometry()));
+            geos[i] = hex.toString();
+          }
+        } finally {
+          feature.setGeometry(geometry);
+        }
+        i++;
+      }
+
+      updateStmt.setArray(1, connection.createArrayOf("text", ids));
+      updateStmt.setArray(2, connection.createArrayOf("text", jsons));
+      updateStmt.setArray(3, connection.createArrayOf("text", geojsons));
+      updateStmt.setArray(4, connection.createArrayOf("text", geos));
+      updateStmt.setArray(5, connection.createArrayOf("text", puuids));
+
+      final Set<String> updatedIds = new HashSet<>();
+      try (ResultSet rs = updateStmt.executeQuery()) {
+        while (rs.next()) {
+          updatedIds.add(rs.getString(1));
+        }
+      }
+      return updatedIds;
+    } catch (Exception e) {
+      if (transaction) {
+        throw e;
+      }
+      logger.warn("{} - Failed to update {} objects at once, updating them one by one: {}", streamId, updates.size(), e);
       return null;
+    } finally {
+      logger.info("{} - update time: {}ms", streamId, System.currentTimeMillis() - start);
     }
-    // List with the outer OR combined statements
-    List<SQLQuery> disjunctionQueries = new ArrayList<>();
-    properties.forEach(conjunctions -> {
+  }
 
-      // List with the AND combined statements
-      final List<SQLQuery> conjunctionQueries = new ArrayList<>();
-      conjunctions.forEach(propertyQuery -> {
+  /**
+   * Marks the batched updates at the given positions as updated, if they updated a row.
+   */
+  private static void setUpdated(Boolean[] updated, List<Integer> positions, int[] updateCounts) {
+    for (int i = 0; i < positions.size(); i++) {
+      updated[positions.get(i)] = updateCounts[i] != 0;
+    }
+  }
 
-        // List with OR combined statements for one property key
-        final List<SQLQuery> keyDisjunctionQueries = new ArrayList<>();
-        propertyQuery.getValues().forEach(v -> {
+  private static StringBuilder appendCsvValue(StringBuilder sb, String value) {
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"') {
+        sb.append('"');
+      }
+      sb.append(c);
+    }
+    return sb.append('"');
+  }
 
-          // The ID is indexed as text
-          if (propertyQuery.getKey().equals("id")) {
-            keyDisjunctionQueries.add(new SQLQuery("jsondata->>'id'" + getOperation(propertyQuery.getOperation()) + "?::text", v));
-          }
-          // The rest are indexed as jsonb
-          else {
-            SQLQuery q = createKey(propertyQuery.getKey());
-            q.append(new SQLQuery(getOperation(propertyQuery.getOperation()) + getValue(v), v));
-            keyDisjunctionQueries.add(q);
-          }
-        });
-        conjunctionQueries.add(SQLQuery.join(keyDisjunctionQueries, "OR", true));
-      });
-      disjunctionQueries.add(SQLQuery.join(conjunctionQueries, "AND", false));
-    });
-    return SQLQuery.join(disjunctionQueries, "OR", false);
+  private static void appendHex(StringBuilder sb, byte[] bytes) {
+    for (byte b : bytes) {
+      sb.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+    }
   }
 
   private SQLQuery generateTagsQuery(TagsQuery tags) throws Exception {
@@ -1355,12 +1630,33 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
 
   @Override
   protected SQLQuery generateSearchQuery(final QueryEvent event) throws Exception {
-    final SQLQuery propertiesQuery = generatePropertiesQuery(event.getPropertiesQuery());
+    return generateSearchQuery(event, createPlanner(event));
+  }
+
+  private SQLQuery generateSearchQuery(final QueryEvent event, final PropertiesQueryPlanner planner) throws Exception {
+    final SQLQuery propertiesQuery = planner.generate(event.getPropertiesQuery());
     final SQLQuery tagsQuery = generateTagsQuery(event.getTags());
 
     return SQLQuery.join("AND", propertiesQuery, tagsQuery);
   }
 
+  /**
+   * Creates the planner for the properties query of the event. The on-demand indexes are only looked up, if the property search is
+   * enabled for the connector, otherwise only the built-in indexes are known.
+   */
+  private PropertiesQueryPlanner createPlanner(final QueryEvent event) {
+    List<String> indices = null;
+    if (event.getPropertiesQuery() != null && event.getConnectorParams() != null
+        && event.getConnectorParams().get("propertySearch") == Boolean.TRUE) {
+      try {
+        indices = Capabilities.IndexList.getIndexList(event.getSpace(), this);
+      } catch (SQLException e) {
+        logger.warn("{} - Failed to load the index list of space '{}': {}", streamId, event.getSpace(), e);
+      }
+    }
+    return new PropertiesQueryPlanner(indices);
+  }
+
   @Override
   protected SuccessResponse processModifySpaceEvent(ModifySpaceEvent event) throws Exception {
 
@@ -1390,25 +1686,25 @@ public class PSQLXyzConnector extends PSQLRequestStreamHandler {
         }
       }
       processSearchableProperties(event.getSpaceDefinition().getSearchableProperties(), event.getOperation());
+      Capabilities.IndexList.invalidate(event.getSpace());
     }
 
     if (Operation.DELETE == event.getOperation()) {
-      if (hasTable()) {
-        try (final Connection connection = dataSource.getConnection()) {
-          try (Statement stmt = connection.createStatement()) {
-            String query = "DROP TABLE ${schema}.${table}";
-            query = replaceVars(query);
-            stmt.executeUpdate(query);
-
-            logger.info("{} - Successfully deleted table for space '{}'", streamId, event.getSpace());
-          } catch (Exception e) {
-            final String tableName = config.table(event);
-            logger.error("{} - Failed to delete table '{}': {}", streamId, tableName, e);
-            throw new SQLException("Failed to delete table: " + tableName, e);
-          }
+      // The table is dropped without checking the table registry, which could miss a table created by another instance
+      try (final Connection connection = dataSource.getConnection()) {
+        try (Statement stmt = connection.createStatement()) {
+          String query = "DROP TABLE IF EXISTS ${schema}.${table}";
+          query = replaceVars(query);
+          stmt.executeUpdate(query);
+          tableRegistry.remove(config.schema(), config.table(event));
+          Capabilities.IndexList.invalidate(event.getSpace());
+
+          logger.info("{} - Successfully deleted table for space '{}'", streamId, event.getSpace());
+        } catch (Exception e) {
+          final String tableName = config.table(event);
+          logger.error("{} - Failed to delete table '{}': {}", streamId, tableName, e);
+          throw new SQLException("Failed to delete table: " + tableName, e);
         }
-      } else {
-        logger.info("{} - Table not found '{}'", streamId, event.getSpace());
       }
     }
     return new SuccessResponse().withStatus("OK");
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import com.here.xyz.events.PropertiesQuery;
+import com.here.xyz.events.PropertyQuery;
+import com.here.xyz.events.PropertyQuery.QueryOperation;
+import com.here.xyz.events.PropertyQueryList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Plans the SQL condition of a {@link PropertiesQuery} with the help of the indexes of a space. Next to the built-in indexes on the id,
+ * createdAt and updatedAt, a space may have on-demand indexes, which are listed in the xyz_config.xyz_idxs_status table.
+ *
+ * Comparisons of indexed properties are generated with the same expression, which was used to create the index, so that the database
+ * is able to use it. The predicates of a conjunction are ordered by their estimated selectivity and the most selective indexed equality
+ * can be used as the driving query of a search.
+ */
+class PropertiesQueryPlanner {
+
+  /**
+   * The estimated selectivity of an equality. This is the default, which PostgreSQL uses when it doesn't know the value.
+   */
+  private static final double EQ_SELECTIVITY = 0.005;
+
+  /**
+   * The estimated selectivity of a range comparison. This is the default, which PostgreSQL uses when it doesn't know the value.
+   */
+  private static final double INEQ_SELECTIVITY = 0.3333;
+
+  /**
+   * The estimated selectivity of an equality on the unique id.
+   */
+  private static final double ID_SELECTIVITY = 0.000001;
+
+  private static final String ID = "id";
+  private static final String PROPERTIES_PREFIX = "properties.";
+  private static final String CREATED_AT = "properties.@ns:com:here:xyz.createdAt";
+  private static final String UPDATED_AT = "properties.@ns:com:here:xyz.updatedAt";
+
+  private final List<String> indices;
+
+  /**
+   * @param indices the indexed properties as listed in the xyz_idxs_status table or null, if the space has no on-demand indexes.
+   */
+  PropertiesQueryPlanner(List<String> indices) {
+    this.indices = indices == null ? Collections.emptyList() : indices;
+  }
+
+  /**
+   * Returns true, if there is an index for the given property key.
+   */
+  boolean isIndexed(String key) {
+    if (key == null) {
+      return false;
+    }
+    if (ID.equals(key) || CREATED_AT.equals(key) || UPDATED_AT.equals(key)) {
+      return true;
+    }
+    return key.startsWith(PROPERTIES_PREFIX) && indices.contains(key.substring(PROPERTIES_PREFIX.length()));
+  }
+
+  /**
+   * Returns true, if the predicate can drive a search. This is an equality of an indexed property.
+   */
+  boolean canDrive(PropertyQuery predicate) {
+    return predicate != null && predicate.getOperation() == QueryOperation.EQUALS && isIndexed(predicate.getKey());
+  }
+
+  /**
+   * Generates the condition for the whole properties query.
+   */
+  SQLQuery generate(PropertiesQuery properties) {
+    if (isEmpty(properties)) {
+      return null;
+    }
+
+    // List with the outer OR combined statements
+    final List<SQLQuery> disjunctionQueries = new ArrayList<>();
+    for (PropertyQueryList conjunctions : properties) {
+      disjunctionQueries.add(generateConjunction(order(conjunctions)));
+    }
+    return SQLQuery.join(disjunctionQueries, "OR", true);
+  }
+
+  /**
+   * Splits the properties query into the driving query and the filter query, which is applied on the results of the driving query.
+   * The driving query is the most selective equality of an indexed property. Range comparisons are not used, as they may match a large
+   * part of the table, which would be loaded before the filter and the limit are applied.
+   *
+   * @return the plan or null, if the query has no predicate, which could drive the search.
+   */
+  Plan plan(PropertiesQuery properties) {
+    // Only a single conjunction can be driven by one of its predicates
+    if (isEmpty(properties) || properties.size() != 1) {
+      return null;
+    }
+
+    final List<PropertyQuery> predicates = order(properties.get(0));
+    for (int i = 0; i < predicates.size(); i++) {
+      final PropertyQuery predicate = predicates.get(i);
+      if (canDrive(predicate)) {
+        predicates.remove(i);
+        return new Plan(generatePredicate(predicate), generateConjunction(predicates));
+      }
+    }
+    return null;
+  }
+
+  private boolean isEmpty(PropertiesQuery properties) {
+    // TODO: This is only a hot-fix for the connector. The issue is caused in the service and the code below will be removed after the next XYZ Hub deployment
+    return properties == null || properties.size() == 0 || properties.get(0).size() == 0
+        || properties.get(0).size() == 1 && properties.get(0).get(0) == null;
+  }
+
+  /**
+   * Orders the predicates of a conjunction by their estimated selectivity, the most selective first. If the selectivity is equal, indexed
+   * predicates come first.
+   */
+  private List<PropertyQuery> order(List<PropertyQuery> conjunctions) {
+    final List<PropertyQuery> ordered = new ArrayList<>(conjunctions);
+    ordered.sort(Comparator.comparingDouble(this::selectivity).thenComparing(q -> !isIndexed(q.getKey())));
+    return ordered;
+  }
+
+  private double selectivity(PropertyQuery query) {
+    final int values = query.getValues() == null ? 0 : query.getValues().size();
+    switch (query.getOperation()) {
+      case EQUALS:
+        return Math.min(1.0, values * (ID.equals(query.getKey()) ? ID_SELECTIVITY : EQ_SELECTIVITY));
+      case NOT_EQUALS:
+        return 1.0 - EQ_SELECTIVITY;
+      default:
+        return Math.min(1.0, values * INEQ_SELECTIVITY);
+    }
+  }
+
+  private SQLQuery generateConjunction(List<PropertyQuery> conjunctions) {
+    // List with the AND combined statements
+    final List<SQLQuery> conjunctionQueries = new ArrayList<>();
+    for (PropertyQuery propertyQuery : conjunctions) {
+      conjunctionQueries.add(generatePredicate(propertyQuery));
+    }
+    return conjunctionQueries.size() == 0 ? null : SQLQuery.join(conjunctionQueries, "AND", false);
+  }
+
+  private SQLQuery generatePredicate(PropertyQuery propertyQuery) {
+    // List with OR combined statements for one property key
+    final List<SQLQuery> keyDisjunctionQueries = new ArrayList<>();
+    for (Object v : propertyQuery.getValues()) {
+      // The ID is indexed as text
+      if (propertyQuery.getKey().equals(ID)) {
+        keyDisjunctionQueries.add(new SQLQuery("jsondata->>'id'" + getOperation(propertyQuery.getOperation()) + "?::text", v));
+      }
+      // The rest are indexed as jsonb
+      else {
+        SQLQuery q = createKey(propertyQuery.getKey());
+        q.append(new SQLQuery(getOperation(propertyQuery.getOperation()) + getValue(v), v));
+        keyDisjunctionQueries.add(q);
+      }
+    }
+    return SQLQuery.join(keyDisjunctionQueries, "OR", true);
+  }
+
+  /**
+   * Creates the expression, which selects the value of the property. For indexed properties the path is inlined as literals, because
+   * the database can only use an expression index, when the expression of the query is equal to the one of the index.
+   */
+  private SQLQuery createKey(String key) {
+    String[] results = key.split("\\.");
+    if (isIndexed(key) && canInline(key)) {
+      return new SQLQuery("jsondata->" + Arrays.stream(results).map(s -> "'" + s + "'").collect(Collectors.joining("->")));
+    }
+    return new SQLQuery(
+        "jsondata->" + Collections.nCopies(results.length, "?").stream().collect(Collectors.joining("->")), results);
+  }
+
+  /**
+   * Returns true, if the key can be safely inlined into the statement. The characters ['] and [\] are not allowed for on-demand indexes
+   * anyway. The [?] is excluded, because some queries replace the parameter placeholders later on.
+   */
+  private boolean canInline(String key) {
+    return key.indexOf('\'') < 0 && key.indexOf('\\') < 0 && key.indexOf('?') < 0;
+  }
+
+  private String getOperation(QueryOperation op) {
+    if (op == null) {
+      throw new NullPointerException("op is required");
+    }
+
+    switch (op) {
+      case EQUALS:
+        return "=";
+      case NOT_EQUALS:
+        return "<>";
+      case LESS_THAN:
+        return "<";
+      case GREATER_THAN:
+        return ">";
+      case LESS_THAN_OR_EQUALS:
+        return "<=";
+      case GREATER_THAN_OR_EQUALS:
+        return ">=";
+    }
+
+    return "";
+  }
+
+  private String getValue(Object value) {
+    if (value instanceof String) {
+      return "to_jsonb(?::text)";
+    }
+    if (value instanceof Number) {
+      return "to_jsonb(?::numeric)";
+    }
+    if (value instanceof Boolean) {
+      return "to_jsonb(?::boolean)";
+    }
+    return "";
+  }
+
+  /**
+   * The plan for a search, which consists of the driving query and the filter query, which is applied on the results of the driving
+   * query.
+   */
+  static class Plan {
+
+    final SQLQuery drivingQuery;
+    final SQLQuery filterQuery;
+
+    Plan(SQLQuery drivingQuery, SQLQuery filterQuery) {
+      this.drivingQuery = drivingQuery;
+      this.filterQuery = filterQuery;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer, which collects the UTF-8 encoded JSON of the rows of a result set. The buffer is bound to the current thread
+ * and reused by all following requests of that thread, so that large results don't need to grow a new buffer from scratch each time.
+ */
+class ResultBuffer {
+
+  /**
+   * The initial capacity of a buffer.
+   */
+  private static final int INITIAL_CAPACITY = 64 * 1024;
+
+  /**
+   * The maximal capacity, which a buffer may keep after it was released. Larger buffers are dropped to give the memory back, so that
+   * each thread retains at most this amount of memory between requests.
+   */
+  static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+  private static final ThreadLocal<ResultBuffer> buffers = ThreadLocal.withInitial(ResultBuffer::new);
+
+  private byte[] bytes = new byte[INITIAL_CAPACITY];
+  private int size;
+
+  private ResultBuffer() {
+  }
+
+  /**
+   * Returns the empty buffer of the current thread. The buffer must be released after usage.
+   */
+  static ResultBuffer acquire() {
+    final ResultBuffer buffer = buffers.get();
+    buffer.size = 0;
+    return buffer;
+  }
+
+  /**
+   * Releases the buffer, so that it can be reused by the next request of this thread.
+   */
+  void release() {
+    size = 0;
+    if (bytes.length > MAX_RETAINED_CAPACITY) {
+      bytes = new byte[INITIAL_CAPACITY];
+    }
+  }
+
+  ResultBuffer append(byte b) {
+    ensureCapacity(size + 1);
+    bytes[size++] = b;
+    return this;
+  }
+
+  ResultBuffer append(byte[] b) {
+    return append(b, b.length);
+  }
+
+  /**
+   * Appends the first {@code length} bytes of the given array.
+   */
+  ResultBuffer append(byte[] b, int length) {
+    ensureCapacity(size + length);
+    System.arraycopy(b, 0, bytes, size, length);
+    size += length;
+    return this;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return bytes.length;
+  }
+
+  /**
+   * Returns a copy of the content of the buffer.
+   */
+  byte[] toByteArray() {
+    return Arrays.copyOf(bytes, size);
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    if (minCapacity <= bytes.length) {
+      return;
+    }
+    if (minCapacity < 0) {
+      throw new OutOfMemoryError("The result is too large to be buffered.");
+    }
+    int newCapacity = bytes.length << 1;
+    if (newCapacity < minCapacity) {
+      newCapacity = minCapacity;
+    }
+    bytes = Arrays.copyOf(bytes, newCapacity);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The SQL texts with resolved schema and table variables of one schema. The texts are cached per table and template, so that a lookup only
+ * hashes the table name and the template. As the templates are mostly constants, their hash codes are computed only once. No key is
+ * concatenated for a lookup.
+ *
+ * Only the most recently used tables and templates are kept, as the search queries generate templates, which are rarely used again.
+ */
+class SQLTextCache {
+
+  private static final int MAX_TABLES = 1024;
+  private static final int MAX_TEMPLATES_PER_TABLE = 64;
+
+  private final Cache<String, Cache<String, String>> textsByTable = CacheBuilder.newBuilder()
+      .maximumSize(MAX_TABLES)
+      .expireAfterAccess(10, TimeUnit.MINUTES)
+      .build();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Returns the resolved SQL text of the template for the table. If it's not cached, it is resolved with the given function.
+   */
+  String get(String table, String template, Function<String, String> resolver) {
+    Cache<String, String> texts = textsByTable.getIfPresent(table);
+    if (texts == null) {
+      texts = textsByTable.asMap().computeIfAbsent(table, t -> CacheBuilder.newBuilder()
+          .maximumSize(MAX_TEMPLATES_PER_TABLE)
+          .<String, String>removalListener(n -> {
+            if (n.getCause() == RemovalCause.SIZE) {
+              evictions.increment();
+            }
+          })
+          .build());
+    }
+
+    String text = texts.getIfPresent(template);
+    if (text != null) {
+      hits.increment();
+      return text;
+    }
+    misses.increment();
+    text = resolver.apply(template);
+    texts.put(template, text);
+    return text;
+  }
+
+  /**
+   * Returns the metrics of the cache effectiveness.
+   */
+  Map<String, Object> getMetrics() {
+    final Map<String, Object> metrics = new LinkedHashMap<>();
+    final long hitCount = hits.sum();
+    final long missCount = misses.sum();
+    metrics.put("tables", textsByTable.size());
+    metrics.put("hits", hitCount);
+    metrics.put("misses", missCount);
+    metrics.put("evictions", evictions.sum());
+    metrics.put("hitRate", hitCount + missCount == 0 ? 1.0 : (double) hitCount / (hitCount + missCount));
+    return metrics;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.sql.DataSource;
+
+/**
+ * The registry of the tables and views, which exist in the schemas of one database. The tables of a schema are read with a single scan of
+ * pg_class, when the schema is accessed the first time. Afterwards the connector keeps the registry up to date, when it creates or drops a
+ * table or when it finds out that a table doesn't exist anymore. A table, which is not registered, is only treated as missing after it was
+ * looked up in pg_class again.
+ */
+class TableRegistry {
+
+  private static final String SCAN_TABLES = "SELECT c.relname FROM pg_catalog.pg_class c "
+      + "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+      + "WHERE n.nspname = ? AND c.relkind IN ('r', 'p', 'v')";
+  private static final String FIND_TABLE = SCAN_TABLES + " AND c.relname = ?";
+
+  private final DataSource dataSource;
+  private final ConcurrentHashMap<String, Set<String>> tablesBySchema = new ConcurrentHashMap<>();
+
+  TableRegistry(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Returns true, if the table exists in the given schema. As the table may have been created by another instance meanwhile, a table, which
+   * is not registered, is looked up in the database again.
+   */
+  boolean contains(String schema, String table) throws SQLException {
+    final Set<String> tables = tables(schema);
+    if (tables.contains(table)) {
+      return true;
+    }
+    if (exists(schema, table)) {
+      tables.add(table);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Registers a table, which was created.
+   */
+  void add(String schema, String table) {
+    final Set<String> tables = tablesBySchema.get(schema);
+    if (tables != null) {
+      tables.add(table);
+    }
+  }
+
+  /**
+   * Removes a table, which was dropped or doesn't exist.
+   */
+  void remove(String schema, String table) {
+    final Set<String> tables = tablesBySchema.get(schema);
+    if (tables != null) {
+      tables.remove(table);
+    }
+  }
+
+  private Set<String> tables(String schema) throws SQLException {
+    Set<String> tables = tablesBySchema.get(schema);
+    if (tables == null) {
+      final Set<String> loaded = load(schema);
+      tables = tablesBySchema.putIfAbsent(schema, loaded);
+      if (tables == null) {
+        tables = loaded;
+      }
+    }
+    return tables;
+  }
+
+  private boolean exists(String schema, String table) throws SQLException {
+    try (final Connection connection = dataSource.getConnection();
+        final PreparedStatement stmt = connection.prepareStatement(FIND_TABLE)) {
+      stmt.setString(1, schema);
+      stmt.setString(2, table);
+      try (final ResultSet rs = stmt.executeQuery()) {
+        return rs.next();
+      }
+    }
+  }
+
+  private Set<String> load(String schema) throws SQLException {
+    final Set<String> tables = ConcurrentHashMap.newKeySet();
+    try (final Connection connection = dataSource.getConnection();
+        final PreparedStatement stmt = connection.prepareStatement(SCAN_TABLES)) {
+      stmt.setString(1, schema);
+      try (final ResultSet rs = stmt.executeQuery()) {
+        while (rs.next()) {
+          tables.add(rs.getString(1));
+        }
+      }
+    }
+    return tables;
+  }
+}
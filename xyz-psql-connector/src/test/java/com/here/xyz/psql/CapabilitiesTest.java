@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.psql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.here.xyz.events.PropertiesQuery;
+import com.here.xyz.events.PropertyQuery;
+import com.here.xyz.events.PropertyQuery.QueryOperation;
+import com.here.xyz.events.PropertyQueryList;
+import com.here.xyz.psql.Capabilities.IndexList;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.Test;
+
+public class CapabilitiesTest {
+
+  private static final List<String> INDICES = Arrays.asList("name", "size");
+
+  @Test
+  public void inequalityOfIndexedProperty() {
+    assertTrue(Capabilities.canSearchFor(query(conjunction(
+        propertyQuery("properties.name", QueryOperation.NOT_EQUALS, "Toyota"))), INDICES));
+  }
+
+  @Test
+  public void rangeOfIndexedProperty() {
+    assertTrue(Capabilities.canSearchFor(query(conjunction(
+        propertyQuery("properties.size", QueryOperation.GREATER_THAN, 5),
+        propertyQuery("properties.size", QueryOperation.LESS_THAN_OR_EQUALS, 10))), INDICES));
+  }
+
+  @Test
+  public void drivingEqualityWithPropertiesNotIndexed() {
+    assertTrue(Capabilities.canSearchFor(query(conjunction(
+        propertyQuery("properties.car", QueryOperation.NOT_EQUALS, true),
+        propertyQuery("properties.name", QueryOperation.EQUALS, "Toyota"))), INDICES));
+  }
+
+  @Test
+  public void rangeOfIndexedPropertyWithPropertiesNotIndexed() {
+    assertFalse(Capabilities.canSearchFor(query(conjunction(
+        propertyQuery("properties.car", QueryOperation.EQUALS, true),
+        propertyQuery("properties.size", QueryOperation.GREATER_THAN, 5))), INDICES));
+  }
+
+  @Test
+  public void eachConjunctionNeedsAnIndex() {
+    assertTrue(Capabilities.canSearchFor(query(
+        conjunction(propertyQuery("properties.name", QueryOperation.EQUALS, "Toyota")),
+        conjunction(propertyQuery("properties.size", QueryOperation.GREATER_THAN, 5))), INDICES));
+    assertFalse(Capabilities.canSearchFor(query(
+        conjunction(propertyQuery("properties.name", QueryOperation.EQUALS, "Toyota")),
+        conjunction(propertyQuery("properties.car", QueryOperation.EQUALS, true))), INDICES));
+  }
+
+  @Test
+  public void refreshKeepsInvalidatedIndexList() {
+    final DataSource dataSource = (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class[]{DataSource.class},
+        (proxy, method, args) -> {
+          throw new UnsupportedOperationException();
+        });
+    final IndexList outdated = new IndexList(Collections.singletonList("name"), dataSource, false);
+    IndexList.cachedIndices.put("refreshed", outdated);
+    IndexList.cachedIndices.put("invalidated", outdated);
+    IndexList.cachedIndices.put("reloaded", outdated);
+    IndexList.cachedIndices.put("deleted", outdated);
+
+    try {
+      final Map<String, IndexList> snapshot = IndexList.snapshot(dataSource);
+      assertEquals(4, snapshot.size());
+
+      // While the refresh queries the database, the indices of two spaces are changed and one of them is loaded again
+      IndexList.invalidate("invalidated");
+      IndexList.invalidate("reloaded");
+      final IndexList reloaded = new IndexList(INDICES, dataSource, false);
+      IndexList.cachedIndices.put("reloaded", reloaded);
+
+      final Map<String, IndexList> loaded = new HashMap<>();
+      loaded.put("refreshed", new IndexList(INDICES, dataSource, false));
+      loaded.put("invalidated", outdated);
+      loaded.put("reloaded", outdated);
+      IndexList.update(snapshot, loaded);
+
+      assertEquals("An index list of the snapshot must be refreshed.", INDICES, IndexList.cachedIndices.get("refreshed").indices);
+      assertNull("An index list invalidated during the refresh must not be put again.", IndexList.cachedIndices.get("invalidated"));
+      assertSame("An index list loaded during the refresh must not be replaced.", reloaded, IndexList.cachedIndices.get("reloaded"));
+      assertNull("The index list of a space, which is not listed anymore, must be empty.", IndexList.cachedIndices.get("deleted").indices);
+    } finally {
+      Arrays.asList("refreshed", "invalidated", "reloaded", "deleted").forEach(IndexList::invalidate);
+    }
+  }
+
+  private static PropertiesQuery query(PropertyQueryList... conjunctions) {
+    final PropertiesQuery query = new PropertiesQuery();
+    query.addAll(Arrays.asList(conjunctions));
+    return query;
+  }
+
+  private static PropertyQueryList conjunction(PropertyQuery... predicates) {
+    final PropertyQueryList conjunction = new PropertyQueryList();
+    conjunction.addAll(Arrays.asList(predicates));
+    return conjunction;
+  }
+
+  private static PropertyQuery propertyQuery(String key, QueryOperation operation, Object value) {
+    return new PropertyQuery().withKey(key).withOperation(operation).withValues(new ArrayList<>(Collections.singletonList(value)));
+  }
+}
@@ -35,6 +35,10 @@ public class GSContext extends SimulatedContext implements LambdaLogger {
     put(PSQLConfig.PSQL_USER, "postgres");
     put(PSQLConfig.PSQL_PASSWORD, "password");
     put(PSQLConfig.ECPS_PHRASE, "testing");
+    // A small fetch size, so that the results of the tests are fetched in multiple chunks
+    put(PSQLConfig.PSQL_FETCH_SIZE, "100");
+    // A small threshold, so that the updates of the tests with several features are batched
+    put(PSQLConfig.PSQL_BATCH_UPDATE_THRESHOLD, "2");
   }};
 
   public GSContext(String functionName, Map<String, String> environmentVariables) {
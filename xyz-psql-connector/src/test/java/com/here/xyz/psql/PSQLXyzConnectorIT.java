@@ -34,8 +34,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.here.xyz.Payload;
 import com.here.xyz.XyzSerializable;
 import com.here.xyz.events.GetFeaturesByGeometryEvent;
+import com.here.xyz.events.GetFeaturesByIdEvent;
 import com.here.xyz.events.GetStatisticsEvent;
 import com.here.xyz.events.HealthCheckEvent;
+import com.here.xyz.events.IterateFeaturesEvent;
 import com.here.xyz.events.ModifyFeaturesEvent;
 import com.here.xyz.events.PropertiesQuery;
 import com.here.xyz.events.PropertyQuery;
@@ -55,6 +57,7 @@ import com.here.xyz.models.geojson.implementation.MultiPolygon;
 import com.here.xyz.models.geojson.implementation.Point;
 import com.here.xyz.models.geojson.implementation.Polygon;
 import com.here.xyz.models.geojson.implementation.Properties;
+import com.here.xyz.models.geojson.implementation.XyzError;
 import com.here.xyz.responses.ErrorResponse;
 import com.here.xyz.responses.StatisticsResponse;
 import com.here.xyz.responses.StatisticsResponse.PropertiesStatistics;
@@ -74,6 +77,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -171,6 +175,143 @@ public class PSQLXyzConnectorIT {
     System.out.println(features.serialize(true));
   }
 
+  @Test
+  public void testIterateWithSearch() throws Exception {
+    // =========== INSERT ==========
+    final List<Feature> features = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final Feature feature = new Feature().withId("f" + i).withProperties(new Properties());
+      feature.getProperties().put("group", i % 2 == 0 ? "even" : "odd");
+      features.add(feature);
+    }
+    ModifyFeaturesEvent mfevent = new ModifyFeaturesEvent();
+    mfevent.setSpace("foo");
+    mfevent.setTransaction(true);
+    mfevent.setInsertFeatures(features);
+    assertNoErrorInResponse(invokeLambda(mfevent.serialize()));
+
+    // =========== ITERATE ==========
+    // The ids drive the search and the group is filtered on their results
+    final List<Object> ids = features.stream().limit(600).map(Feature::getId).collect(Collectors.toList());
+    final PropertyQueryList conjunction = new PropertyQueryList();
+    conjunction.add(new PropertyQuery().withKey("id").withOperation(QueryOperation.EQUALS).withValues(ids));
+    conjunction.add(new PropertyQuery().withKey("properties.group").withOperation(QueryOperation.EQUALS)
+        .withValues(new ArrayList<>(Collections.singletonList("even"))));
+    final PropertiesQuery query = new PropertiesQuery();
+    query.add(conjunction);
+
+    final List<String> iterated = new ArrayList<>();
+    String handle = null;
+    String lastHandle = null;
+    int pages = 0;
+    do {
+      final IterateFeaturesEvent event = new IterateFeaturesEvent().withHandle(handle);
+      event.setSpace("foo");
+      event.setPropertiesQuery(query);
+      event.setLimit(70);
+      final FeatureCollection page = XyzSerializable.deserialize(invokeLambda(event.serialize()));
+      for (Feature feature : page.getFeatures()) {
+        iterated.add(feature.getId());
+        assertEquals("even", feature.getProperties().get("group"));
+      }
+      handle = page.getHandle();
+      lastHandle = handle != null ? handle : lastHandle;
+      pages++;
+    } while (handle != null);
+
+    assertEquals(5, pages);
+    assertEquals(300, iterated.size());
+    assertEquals(300, iterated.stream().distinct().count());
+    assertTrue(ids.containsAll(iterated));
+
+    // =========== ITERATE WITH AN INVALID HANDLE ==========
+    final String fingerprint = lastHandle.substring(lastHandle.indexOf('_') + 1);
+    final IterateFeaturesEvent event = new IterateFeaturesEvent().withHandle("abc_" + fingerprint);
+    event.setSpace("foo");
+    event.setPropertiesQuery(query);
+    event.setLimit(70);
+    final ErrorResponse error = XyzSerializable.deserialize(invokeLambda(event.serialize()));
+    assertEquals(XyzError.ILLEGAL_ARGUMENT, error.getError());
+
+    // =========== ITERATE WITHOUT SEARCH WITH AN INVALID HANDLE ==========
+    final IterateFeaturesEvent unfilteredEvent = new IterateFeaturesEvent().withHandle("abc");
+    unfilteredEvent.setSpace("foo");
+    unfilteredEvent.setLimit(70);
+    final ErrorResponse unfilteredError = XyzSerializable.deserialize(invokeLambda(unfilteredEvent.serialize()));
+    assertEquals(XyzError.ILLEGAL_ARGUMENT, unfilteredError.getError());
+  }
+
+  @Test
+  public void testTableCreatedAfterScan() throws Exception {
+    // The first read scans the tables of the schema and creates the table of the space
+    assertNoErrorInResponse(invokeLambdaFromFile("/events/GetFeaturesByIdEvent.json"));
+    final String schema = lambda.config.schema();
+    assertFalse(lambda.tableRegistry.contains(schema, "bar"));
+
+    // Another instance creates a table after the scan
+    try (final Connection connection = lambda.dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+      stmt.execute("CREATE TABLE " + schema + ".bar (jsondata jsonb, geo geometry(GeometryZ,4326), i SERIAL, geojson jsonb)");
+    }
+    try {
+      assertTrue("A table created after the scan must be found.", lambda.tableRegistry.contains(schema, "bar"));
+    } finally {
+      try (final Connection connection = lambda.dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+        stmt.execute("DROP TABLE IF EXISTS " + schema + ".bar");
+      }
+    }
+  }
+
+  @Test
+  public void testTableDroppedByAnotherInstance() throws Exception {
+    final Feature feature = new Feature().withId("f1").withProperties(new Properties());
+    ModifyFeaturesEvent mfevent = new ModifyFeaturesEvent();
+    mfevent.setSpace("foo");
+    mfevent.setTransaction(true);
+    mfevent.setInsertFeatures(new ArrayList<>(Collections.singletonList(feature)));
+    assertNoErrorInResponse(invokeLambda(mfevent.serialize()));
+    final String schema = lambda.config.schema();
+    assertTrue(lambda.tableRegistry.contains(schema, "foo"));
+
+    // Another instance drops the table, which is still registered
+    try (final Connection connection = lambda.dataSource.getConnection(); Statement stmt = connection.createStatement()) {
+      stmt.execute("DROP TABLE " + schema + ".foo");
+    }
+
+    // The read fails with an undefined table, which invalidates the registry entry, so that the table is created again
+    final GetFeaturesByIdEvent event = new GetFeaturesByIdEvent().withIds(Collections.singletonList("f1"));
+    event.setSpace("foo");
+    final String response = invokeLambda(event.serialize());
+    assertNoErrorInResponse(response);
+    assertEquals(0, XyzSerializable.<FeatureCollection>deserialize(response).getFeatures().size());
+    assertTrue(lambda.tableRegistry.contains(schema, "foo"));
+  }
+
+  @Test
+  public void testReadInChunks() throws Exception {
+    // The test context fetches 100 rows at once, the features are therefore read in multiple chunks
+    final List<Feature> features = new ArrayList<>();
+    for (int i = 0; i < 250; i++) {
+      features.add(new Feature().withId("f" + i).withProperties(new Properties())
+          .withGeometry(new Point().withCoordinates(new PointCoordinates(i % 180, i % 90))));
+    }
+    ModifyFeaturesEvent mfevent = new ModifyFeaturesEvent();
+    mfevent.setSpace("foo");
+    mfevent.setTransaction(true);
+    mfevent.setInsertFeatures(features);
+    assertNoErrorInResponse(invokeLambda(mfevent.serialize()));
+
+    final List<String> ids = features.stream().map(Feature::getId).collect(Collectors.toList());
+    final GetFeaturesByIdEvent event = new GetFeaturesByIdEvent().withIds(ids);
+    event.setSpace("foo");
+    final FeatureCollection result = XyzSerializable.deserialize(invokeLambda(event.serialize()));
+
+    assertEquals(250, result.getFeatures().size());
+    assertEquals(new HashSet<>(ids), result.getFeatures().stream().map(Feature::getId).collect(Collectors.toSet()));
+    for (Feature feature : result.getFeatures()) {
+      assertNotNull("Each feature must have its geometry.", feature.getGeometry());
+    }
+  }
+
   /**
    * Test getFeaturesByGeometryEvent
    */
@@ -1260,6 +1401,115 @@ public class PSQLXyzConnectorIT {
     logger.info("Modify features tested successfully");
   }
 
+  @Test
+  public void testUpdateMissingFeatures() throws Exception {
+    // =========== INSERT ==========
+    String insertResponse = invokeLambdaFromFile("/events/InsertFeaturesEvent.json");
+    assertNoErrorInResponse(insertResponse);
+    final JsonPath jsonPathFeatures = JsonPath.compile("$.features");
+    List<Map<String, Object>> updateFeatures = jsonPathFeatures.read(insertResponse, jsonPathConf);
+
+    final Map<String, Object> missingFeature = new HashMap<>(updateFeatures.get(0));
+    missingFeature.put("id", "missing");
+
+    // =========== UPDATE BATCH ==========
+    updateFeatures.add(missingFeature);
+    String updateResponse = invokeLambda(updateFeaturesEvent(updateFeatures));
+    assertNoErrorInResponse(updateResponse);
+    List<String> failedIds = JsonPath.compile("$.failed[*].id").read(updateResponse, jsonPathConf);
+    assertEquals("The missing feature in a batch update must be reported as failed", Collections.singletonList("missing"), failedIds);
+    List<Integer> failedPositions = JsonPath.compile("$.failed[*].position").read(updateResponse, jsonPathConf);
+    assertEquals(Collections.singletonList(updateFeatures.size() - 1), failedPositions);
+    List<String> updatedIds = JsonPath.compile("$.updated").read(updateResponse, jsonPathConf);
+    assertFalse("The missing feature must not be reported as updated", updatedIds.contains("missing"));
+    assertEquals(updateFeatures.size() - 1, updatedIds.size());
+
+    // =========== UPDATE SINGLE ==========
+    updateResponse = invokeLambda(updateFeaturesEvent(Collections.singletonList(missingFeature)));
+    assertNoErrorInResponse(updateResponse);
+    failedIds = JsonPath.compile("$.failed[*].id").read(updateResponse, jsonPathConf);
+    assertEquals("The missing feature in a single update must be reported as failed", Collections.singletonList("missing"), failedIds);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testUpdateDuplicateFeatures() throws Exception {
+    // =========== INSERT ==========
+    String insertResponse = invokeLambdaFromFile("/events/InsertFeaturesEvent.json");
+    assertNoErrorInResponse(insertResponse);
+    final JsonPath jsonPathFeatures = JsonPath.compile("$.features");
+    List<Map<String, Object>> features = jsonPathFeatures.read(insertResponse, jsonPathConf);
+    final String id = (String) features.get(0).get("id");
+
+    // =========== UPDATE ==========
+    final List<Map<String, Object>> updateFeatures = new ArrayList<>();
+    for (String value : Arrays.asList("first", "last")) {
+      final Map<String, Object> feature = new ObjectMapper().convertValue(features.get(0), Map.class);
+      ((Map<String, Object>) feature.get("properties")).put("test", value);
+      updateFeatures.add(feature);
+    }
+    updateFeatures.add(features.get(1));
+    String updateResponse = invokeLambda(updateFeaturesEvent(updateFeatures));
+    assertNoErrorInResponse(updateResponse);
+
+    // =========== READ ==========
+    String getFeaturesByIdEvent = "{\"type\":\"GetFeaturesByIdEvent\",\"space\":\"foo\",\"ids\":[\"" + id + "\"]}";
+    String readResponse = invokeLambda(getFeaturesByIdEvent);
+    assertNoErrorInResponse(readResponse);
+    List<String> values = JsonPath.compile("$.features[*].properties.test").read(readResponse, jsonPathConf);
+    assertEquals(Collections.singletonList("last"), values);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testUpdateWithConflictDetection() throws Exception {
+    // =========== INSERT ==========
+    final DocumentContext insertFeaturesEventDoc = getEventFromResource("/events/InsertFeaturesEvent.json");
+    insertFeaturesEventDoc.put("$", "enableUUID", true);
+    String insertResponse = invokeLambda(insertFeaturesEventDoc.jsonString());
+    assertNoErrorInResponse(insertResponse);
+    List<Map<String, Object>> features = JsonPath.compile("$.features").read(insertResponse, jsonPathConf);
+
+    // The first feature is based on an outdated state, the others on their head states
+    final Map<String, Object> outdatedNs = (Map<String, Object>) ((Map<String, Object>) features.get(0).get("properties"))
+        .get("@ns:com:here:xyz");
+    outdatedNs.put("uuid", "outdated");
+
+    // =========== UPDATE BATCH ==========
+    String updateResponse = invokeLambda(conflictDetectingUpdateEvent(features));
+    assertNoErrorInResponse(updateResponse);
+    List<String> failedIds = JsonPath.compile("$.failed[*].id").read(updateResponse, jsonPathConf);
+    assertEquals("The update of an outdated state must be rejected", Collections.singletonList(features.get(0).get("id")), failedIds);
+    List<String> updatedIds = JsonPath.compile("$.updated").read(updateResponse, jsonPathConf);
+    assertEquals(features.size() - 1, updatedIds.size());
+
+    // =========== UPDATE SINGLE ==========
+    updateResponse = invokeLambda(conflictDetectingUpdateEvent(Collections.singletonList(features.get(0))));
+    assertNoErrorInResponse(updateResponse);
+    failedIds = JsonPath.compile("$.failed[*].id").read(updateResponse, jsonPathConf);
+    assertEquals("The update of an outdated state must be rejected", Collections.singletonList(features.get(0).get("id")), failedIds);
+
+    // =========== UPDATE IN TRANSACTION ==========
+    final DocumentContext transactionalUpdateDoc = JsonPath.parse(conflictDetectingUpdateEvent(features));
+    transactionalUpdateDoc.put("$", "transaction", true);
+    final ErrorResponse error = XyzSerializable.deserialize(invokeLambda(transactionalUpdateDoc.jsonString()));
+    assertEquals("A conflict must fail the transaction", XyzError.CONFLICT, error.getError());
+  }
+
+  private String conflictDetectingUpdateEvent(List<Map<String, Object>> updateFeatures) throws Exception {
+    final DocumentContext updateFeaturesEventDoc = JsonPath.parse(updateFeaturesEvent(updateFeatures));
+    updateFeaturesEventDoc.put("$", "enableUUID", true);
+    updateFeaturesEventDoc.put("$", "conflictDetection", true);
+    return updateFeaturesEventDoc.jsonString();
+  }
+
+  private String updateFeaturesEvent(List<Map<String, Object>> updateFeatures) throws Exception {
+    final DocumentContext updateFeaturesEventDoc = getEventFromResource("/events/InsertFeaturesEvent.json");
+    updateFeaturesEventDoc.delete("$.insertFeatures");
+    updateFeaturesEventDoc.put("$", "updateFeatures", updateFeatures);
+    return updateFeaturesEventDoc.jsonString();
+  }
+
   private static final Configuration jsonPathConf = Configuration.defaultConfiguration().addOptions(Option.SUPPRESS_EXCEPTIONS);
 
   private void assertNoErrorInResponse(String response) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.psql;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class ResultBufferTest {
+
+  private static byte[] utf8(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void reuse() {
+    final ResultBuffer buffer = ResultBuffer.acquire();
+    buffer.append(utf8("[1,2]"));
+    buffer.release();
+
+    final ResultBuffer reused = ResultBuffer.acquire();
+    assertSame("The buffer of the thread must be reused.", buffer, reused);
+    assertEquals("A reused buffer must be empty.", 0, reused.size());
+    reused.append(utf8("[3]"), 2).append((byte) ']');
+    assertArrayEquals(utf8("[3]"), reused.toByteArray());
+    reused.release();
+  }
+
+  @Test
+  public void releaseLargeBuffer() {
+    final ResultBuffer buffer = ResultBuffer.acquire();
+    buffer.append(new byte[ResultBuffer.MAX_RETAINED_CAPACITY + 1]);
+    assertEquals(ResultBuffer.MAX_RETAINED_CAPACITY + 1, buffer.size());
+    buffer.release();
+
+    assertTrue("A buffer larger than the maximal retained capacity must be dropped.",
+        ResultBuffer.acquire().capacity() <= ResultBuffer.MAX_RETAINED_CAPACITY);
+  }
+}
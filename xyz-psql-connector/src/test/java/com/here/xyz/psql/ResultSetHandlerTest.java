@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+
+package com.here.xyz.psql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.here.xyz.models.geojson.implementation.Feature;
+import com.here.xyz.models.geojson.implementation.FeatureCollection;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class ResultSetHandlerTest {
+
+  /**
+   * Returns a result set with the columns jsondata and geojson, which iterates over the given rows.
+   */
+  private static ResultSet resultSet(String[]... rows) {
+    final Iterator<String[]> iterator = Arrays.asList(rows).iterator();
+    final String[][] row = new String[1][];
+    return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class[]{ResultSet.class}, (proxy, method, args) -> {
+      switch (method.getName()) {
+        case "next":
+          row[0] = iterator.hasNext() ? iterator.next() : null;
+          return row[0] != null;
+        case "getBytes":
+          final String value = row[0][(int) args[0] - 1];
+          return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        default:
+          throw new UnsupportedOperationException(method.getName());
+      }
+    });
+  }
+
+  @Test
+  public void nullColumns() throws Exception {
+    final FeatureCollection collection = new PSQLXyzConnector().resultSetHandler(resultSet(
+        new String[]{"{\"type\":\"Feature\",\"id\":\"a\"}", "{\"type\":\"Point\",\"coordinates\":[1,2]}"},
+        new String[]{null, null},
+        new String[]{"{\"type\":\"Feature\",\"id\":\"b\"}", null}));
+
+    final List<Feature> features = collection.getFeatures();
+    assertEquals("A row without jsondata must be skipped.", Arrays.asList("a", "b"),
+        features.stream().map(Feature::getId).collect(Collectors.toList()));
+    assertNotNull(features.get(0).getGeometry());
+    assertNull("A feature without geometry must have a null geometry.", features.get(1).getGeometry());
+  }
+
+  @Test
+  public void rawFeatures() throws Exception {
+    final FeatureCollection collection = new PSQLXyzConnector().resultSetHandler(resultSet(
+        new String[]{"{\"type\":\"Feature\",\"id\":\"\u00e4\"}", null}));
+
+    assertEquals("The features must be serialized from the bytes without parsing them.",
+        "[{\"type\":\"Feature\",\"id\":\"\u00e4\",\"geometry\":null}]",
+        new String(collection.toByteArray(false), StandardCharsets.UTF_8).replaceAll(".*\"features\":(\\[.*\\]).*", "$1"));
+  }
+}
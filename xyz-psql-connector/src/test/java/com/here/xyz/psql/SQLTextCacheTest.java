@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2017-2019 HERE Europe B.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * License-Filename: LICENSE
+ */
+
+package com.here.xyz.psql;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SQLTextCacheTest {
+
+  private static final String TEMPLATE = "SELECT jsondata FROM ${table}";
+
+  private final AtomicInteger resolved = new AtomicInteger();
+
+  private String get(SQLTextCache cache, String table) {
+    return cache.get(table, TEMPLATE, template -> {
+      resolved.incrementAndGet();
+      return template.replace("${table}", table);
+    });
+  }
+
+  @Test
+  public void resolveOncePerTable() {
+    SQLTextCache cache = new SQLTextCache();
+
+    assertEquals("SELECT jsondata FROM a", get(cache, "a"));
+    assertEquals("SELECT jsondata FROM a", get(cache, "a"));
+    assertEquals("SELECT jsondata FROM b", get(cache, "b"));
+
+    assertEquals("Each template must be resolved once per table.", 2, resolved.get());
+    Map<String, Object> metrics = cache.getMetrics();
+    assertEquals(1L, metrics.get("hits"));
+    assertEquals(2L, metrics.get("misses"));
+    assertEquals(2L, metrics.get("tables"));
+  }
+}